@@ -1,23 +1,49 @@
 package com.blackrock.retirement.controller;
 
 import com.blackrock.retirement.dto.CompareResponse;
+import com.blackrock.retirement.dto.GoalSeekRequest;
+import com.blackrock.retirement.dto.GoalSeekResponse;
+import com.blackrock.retirement.dto.MonteCarloRequest;
+import com.blackrock.retirement.dto.MonteCarloResponse;
 import com.blackrock.retirement.dto.ReturnsRequest;
 import com.blackrock.retirement.dto.ReturnsResponse;
+import com.blackrock.retirement.dto.ScenarioRequest;
+import com.blackrock.retirement.dto.ScenarioResponse;
+import com.blackrock.retirement.dto.TimelineRequest;
+import com.blackrock.retirement.engine.TemporalRules;
 import com.blackrock.retirement.service.InvestmentService;
+import com.blackrock.retirement.service.ReturnsCache;
+import com.blackrock.retirement.service.RuleSetRegistry;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/blackrock/challenge/v1")
 public class ReturnsController {
 
     private final InvestmentService investmentService;
+    private final RuleSetRegistry ruleSetRegistry;
+    private final ReturnsCache returnsCache;
+    private final ObjectMapper objectMapper;
 
-    public ReturnsController(InvestmentService investmentService) {
+    public ReturnsController(InvestmentService investmentService, RuleSetRegistry ruleSetRegistry,
+                             ReturnsCache returnsCache, ObjectMapper objectMapper) {
         this.investmentService = investmentService;
+        this.ruleSetRegistry = ruleSetRegistry;
+        this.returnsCache = returnsCache;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -25,17 +51,18 @@ public class ReturnsController {
      * Calculates NPS returns with compound interest, inflation adjustment, and tax benefit.
      */
     @PostMapping("/returns:nps")
-    public ResponseEntity<ReturnsResponse> calculateNpsReturns(@RequestBody ReturnsRequest request) {
-        ReturnsResponse response = investmentService.calculateNpsReturns(
+    public ResponseEntity<ReturnsResponse> calculateNpsReturns(
+            @RequestBody ReturnsRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cached("nps", request, request.getRuleSetId(), ifNoneMatch, () -> investmentService.calculateNpsReturns(
                 request.getAge(),
                 request.getWage(),
                 request.getInflation(),
-                request.getQ(),
-                request.getP(),
-                request.getK(),
-                request.getTransactions()
-        );
-        return ResponseEntity.ok(response);
+                resolveRules(request),
+                request.getTransactions(),
+                request.getTaxRegime(),
+                request.isTimeWeighted()
+        ));
     }
 
     /**
@@ -43,17 +70,18 @@ public class ReturnsController {
      * Calculates Index Fund (NIFTY 50) returns with compound interest and inflation adjustment.
      */
     @PostMapping("/returns:index")
-    public ResponseEntity<ReturnsResponse> calculateIndexReturns(@RequestBody ReturnsRequest request) {
-        ReturnsResponse response = investmentService.calculateIndexReturns(
+    public ResponseEntity<ReturnsResponse> calculateIndexReturns(
+            @RequestBody ReturnsRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cached("index", request, request.getRuleSetId(), ifNoneMatch, () -> investmentService.calculateIndexReturns(
                 request.getAge(),
                 request.getWage(),
                 request.getInflation(),
-                request.getQ(),
-                request.getP(),
-                request.getK(),
-                request.getTransactions()
-        );
-        return ResponseEntity.ok(response);
+                resolveRules(request),
+                request.getTransactions(),
+                request.getTaxRegime(),
+                request.isTimeWeighted()
+        ));
     }
 
     /**
@@ -62,16 +90,157 @@ public class ReturnsController {
      * Helps users choose the right investment strategy based on their age, income, and risk profile.
      */
     @PostMapping("/returns:compare")
-    public ResponseEntity<CompareResponse> compareReturns(@RequestBody ReturnsRequest request) {
-        CompareResponse response = investmentService.compareReturns(
+    public ResponseEntity<CompareResponse> compareReturns(
+            @RequestBody ReturnsRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cached("compare", request, request.getRuleSetId(), ifNoneMatch, () -> investmentService.compareReturns(
+                request.getAge(),
+                request.getWage(),
+                request.getInflation(),
+                resolveRules(request),
+                request.getTransactions(),
+                request.getTaxRegime(),
+                request.isTimeWeighted()
+        ));
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/returns:montecarlo
+     * Simulates yearly market returns and reports p5/p50/p95 profit per k-period (index fund by default).
+     */
+    @PostMapping("/returns:montecarlo")
+    public ResponseEntity<MonteCarloResponse> simulateReturns(
+            @RequestBody MonteCarloRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cached("montecarlo", request, request.getRuleSetId(), ifNoneMatch, () -> investmentService.simulateReturns(
+                request.getAge(),
+                request.getWage(),
+                request.getInflation(),
+                resolveRules(request),
+                request.getTransactions(),
+                request.getInstrument(),
+                request.getTaxRegime(),
+                request.getSimulations(),
+                request.getSeed()
+        ));
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/returns:scenarios
+     * Evaluates one transaction history under many (age, wage, inflation) scenarios for an instrument.
+     * The transactions are processed once and shared by every scenario.
+     */
+    @PostMapping("/returns:scenarios")
+    public ResponseEntity<ScenarioResponse> evaluateScenarios(
+            @RequestBody ScenarioRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cached("scenarios", request, request.getRuleSetId(), ifNoneMatch, () -> {
+            TemporalRules rules = ruleSetRegistry.resolve(
+                    request.getRuleSetId(), request.getQ(), request.getP(), request.getK());
+
+            return investmentService.evaluateScenarios(
+                    rules,
+                    request.getTransactions(),
+                    request.getInstrument(),
+                    request.getTaxRegime(),
+                    request.isTimeWeighted(),
+                    request.getScenarios()
+            );
+        });
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/returns:goalseek
+     * Solves for the per-transaction p-period extra (or q-period fixed amount) one k-period needs
+     * to reach a target value at retirement, instead of probing /returns:nps repeatedly.
+     */
+    @PostMapping("/returns:goalseek")
+    public ResponseEntity<GoalSeekResponse> seekGoal(
+            @RequestBody GoalSeekRequest request,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return cached("goalseek", request, request.getRuleSetId(), ifNoneMatch, () -> investmentService.seekGoal(
                 request.getAge(),
                 request.getWage(),
                 request.getInflation(),
-                request.getQ(),
-                request.getP(),
-                request.getK(),
-                request.getTransactions()
+                resolveRules(request),
+                request.getTransactions(),
+                request.getInstrument(),
+                request.getTaxRegime(),
+                request.isTimeWeighted(),
+                request.getTarget(),
+                request.getSolveFor(),
+                request.getPeriod(),
+                request.isIncludeTaxBenefit()
+        ));
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/returns:timeline
+     * Streams the projected balance per year (or per month) of every k-period on each instrument,
+     * one series per NDJSON line. Series are generated while they are written, never buffered.
+     */
+    @PostMapping("/returns:timeline")
+    public ResponseEntity<StreamingResponseBody> projectTimeline(@RequestBody TimelineRequest request) {
+        InvestmentService.TimelineProjection projection = investmentService.projectTimeline(
+                request.getAge(),
+                request.getInflation(),
+                resolveRules(request),
+                request.getTransactions(),
+                request.getInstruments(),
+                request.isTimeWeighted(),
+                request.isMonthly()
         );
-        return ResponseEntity.ok(response);
+
+        StreamingResponseBody stream = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+                projection.write(generator);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
+
+    /**
+     * Serves a result through the returns cache, keyed and tagged by the request content.
+     * A matching If-None-Match for a cached result gets 304 without a body.
+     *
+     * The key only holds the ruleSetId, so the rule set is looked up first: once it has been
+     * deleted or evicted the request gets 404 rather than a cached result. Rule set IDs are
+     * derived from the rule content, so a re-registered ID means the same rules and its cached
+     * results stay valid.
+     */
+    private <T> ResponseEntity<T> cached(String endpoint, Object request, String ruleSetId, String ifNoneMatch,
+                                         Supplier<T> compute) {
+        if (ruleSetId != null) {
+            ruleSetRegistry.get(ruleSetId);
+        }
+        String key = returnsCache.key(endpoint, request);
+        String etag = "\"" + key + "\"";
+
+        if (matches(ifNoneMatch, etag) && returnsCache.contains(key)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(returnsCache.getOrCompute(key, compute));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private TemporalRules resolveRules(ReturnsRequest request) {
+        return ruleSetRegistry.resolve(request.getRuleSetId(), request.getQ(), request.getP(), request.getK());
     }
 }
@@ -0,0 +1,51 @@
+package com.blackrock.retirement.controller;
+
+import com.blackrock.retirement.dto.RuleSetRequest;
+import com.blackrock.retirement.dto.RuleSetResponse;
+import com.blackrock.retirement.service.RuleSetRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/blackrock/challenge/v1")
+public class RuleSetController {
+
+    private final RuleSetRegistry ruleSetRegistry;
+
+    public RuleSetController(RuleSetRegistry ruleSetRegistry) {
+        this.ruleSetRegistry = ruleSetRegistry;
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/rulesets:register
+     * Precompiles a q/p/k rule set and returns an ID that filter and returns requests can reference.
+     */
+    @PostMapping("/rulesets:register")
+    public ResponseEntity<RuleSetResponse> registerRuleSet(@RequestBody RuleSetRequest request) {
+        String id = ruleSetRegistry.register(request.getQ(), request.getP(), request.getK());
+        return ResponseEntity.ok(new RuleSetResponse(id,
+                sizeOf(request.getQ()), sizeOf(request.getP()), sizeOf(request.getK())));
+    }
+
+    /**
+     * DELETE /blackrock/challenge/v1/rulesets/{id}
+     * Drops a registered rule set from the cache.
+     */
+    @DeleteMapping("/rulesets/{id}")
+    public ResponseEntity<Void> deleteRuleSet(@PathVariable("id") String id) {
+        return ruleSetRegistry.remove(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
+    private int sizeOf(List<?> list) {
+        return (list == null) ? 0 : list.size();
+    }
+}
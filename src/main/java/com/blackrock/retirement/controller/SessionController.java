@@ -0,0 +1,66 @@
+package com.blackrock.retirement.controller;
+
+import com.blackrock.retirement.dto.ReturnsResponse;
+import com.blackrock.retirement.dto.SessionAppendRequest;
+import com.blackrock.retirement.dto.SessionRequest;
+import com.blackrock.retirement.dto.SessionResponse;
+import com.blackrock.retirement.dto.SessionReturnsRequest;
+import com.blackrock.retirement.service.PortfolioSessionRegistry;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/blackrock/challenge/v1")
+public class SessionController {
+
+    private final PortfolioSessionRegistry sessionRegistry;
+
+    public SessionController(PortfolioSessionRegistry sessionRegistry) {
+        this.sessionRegistry = sessionRegistry;
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/sessions:create
+     * Starts a portfolio session from q/p/k rules (or a ruleSetId) and the initial transactions.
+     */
+    @PostMapping("/sessions:create")
+    public ResponseEntity<SessionResponse> createSession(@RequestBody SessionRequest request) {
+        return ResponseEntity.ok(sessionRegistry.create(request));
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/sessions/{id}/transactions:append
+     * Appends new transactions to a session; only the delta is processed.
+     */
+    @PostMapping("/sessions/{id}/transactions:append")
+    public ResponseEntity<SessionResponse> appendTransactions(@PathVariable("id") String id,
+                                                              @RequestBody SessionAppendRequest request) {
+        return ResponseEntity.ok(sessionRegistry.append(id, request.getTransactions()));
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/sessions/{id}/returns
+     * Calculates returns from the session's running k-period totals.
+     */
+    @PostMapping("/sessions/{id}/returns")
+    public ResponseEntity<ReturnsResponse> sessionReturns(@PathVariable("id") String id,
+                                                          @RequestBody SessionReturnsRequest request) {
+        return ResponseEntity.ok(sessionRegistry.returns(id, request));
+    }
+
+    /**
+     * DELETE /blackrock/challenge/v1/sessions/{id}
+     * Ends a session and frees its memory.
+     */
+    @DeleteMapping("/sessions/{id}")
+    public ResponseEntity<Void> deleteSession(@PathVariable("id") String id) {
+        return sessionRegistry.remove(id)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+}
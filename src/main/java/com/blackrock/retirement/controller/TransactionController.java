@@ -1,36 +1,63 @@
 package com.blackrock.retirement.controller;
 
 import com.blackrock.retirement.dto.*;
+import com.blackrock.retirement.engine.DuplicateDetector;
+import com.blackrock.retirement.engine.TemporalRules;
+import com.blackrock.retirement.model.Expense;
 import com.blackrock.retirement.model.Transaction;
+import com.blackrock.retirement.service.RuleSetRegistry;
+import com.blackrock.retirement.service.InvalidExpenseException;
 import com.blackrock.retirement.service.SummaryService;
 import com.blackrock.retirement.service.TemporalFilterService;
 import com.blackrock.retirement.service.TransactionService;
 import com.blackrock.retirement.service.ValidationService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 
 @RestController
 @RequestMapping("/blackrock/challenge/v1")
 public class TransactionController {
 
+    // rows read from an NDJSON body before they are processed and written back out
+    private static final int NDJSON_CHUNK_SIZE = 4096;
+
     private final TransactionService transactionService;
     private final ValidationService validationService;
     private final TemporalFilterService temporalFilterService;
     private final SummaryService summaryService;
+    private final RuleSetRegistry ruleSetRegistry;
+    private final ObjectMapper objectMapper;
 
     public TransactionController(TransactionService transactionService,
                                  ValidationService validationService,
                                  TemporalFilterService temporalFilterService,
-                                 SummaryService summaryService) {
+                                 SummaryService summaryService,
+                                 RuleSetRegistry ruleSetRegistry,
+                                 ObjectMapper objectMapper) {
         this.transactionService = transactionService;
         this.validationService = validationService;
         this.temporalFilterService = temporalFilterService;
         this.summaryService = summaryService;
+        this.ruleSetRegistry = ruleSetRegistry;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -43,6 +70,33 @@ public class TransactionController {
         return ResponseEntity.ok(new ParseResponse(transactions));
     }
 
+    /**
+     * POST /blackrock/challenge/v1/transactions:parse?stream=true
+     * Streaming variant for large payloads: expenses are read from the request token by token
+     * and each transaction is written to the response as soon as it is computed.
+     * Same request and response format as the buffered endpoint.
+     */
+    @PostMapping(value = "/transactions:parse", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> parseTransactionsStreaming(InputStream body) {
+        StreamingResponseBody stream = out -> {
+            try (JsonParser parser = objectMapper.getFactory().createParser(body);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                transactionService.parseExpenses(parser, generator);
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(stream);
+    }
+
+    /**
+     * POST /blackrock/challenge/v1/transactions:parse (Content-Type: application/x-ndjson)
+     * Bulk variant: one expense per input line, one transaction per output line.
+     */
+    @PostMapping(value = "/transactions:parse", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> parseTransactionsNdjson(InputStream body) {
+        return streamNdjson(body, Expense.class, transactionService::parseExpenses);
+    }
+
     /**
      * POST /blackrock/challenge/v1/transactions:validator
      * Validates transactions - checks for negative amounts, duplicates, and constraint violations.
@@ -55,24 +109,52 @@ public class TransactionController {
         return ResponseEntity.ok(new ValidatorResponse(result.getValid(), result.getInvalid()));
     }
 
+    /**
+     * POST /blackrock/challenge/v1/transactions:validator?wage=... (Content-Type: application/x-ndjson)
+     * Bulk variant: one transaction per line in, the same transaction per line out in input order,
+     * with a message on the invalid ones. Duplicates are detected across the whole stream.
+     */
+    @PostMapping(value = "/transactions:validator", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> validateTransactionsNdjson(
+            @RequestParam(defaultValue = "0") double wage, InputStream body) {
+        DuplicateDetector seenDates = DuplicateDetector.hashed(NDJSON_CHUNK_SIZE);
+        return streamNdjson(body, Transaction.class,
+                (chunk, firstLine) -> validationService.validateChunk(wage, chunk, seenDates));
+    }
+
     /**
      * POST /blackrock/challenge/v1/transactions:filter
      * Applies temporal constraints (q, p, k periods) to filter and adjust transactions.
      */
     @PostMapping("/transactions:filter")
     public ResponseEntity<ValidatorResponse> filterTransactions(@RequestBody FilterRequest request) {
+        TemporalRules rules = ruleSetRegistry.resolve(
+                request.getRuleSetId(), request.getQ(), request.getP(), request.getK());
+
         TemporalFilterService.FilterResult result = temporalFilterService
                 .filterTransactions(
                         request.getTransactions(),
-                        request.getQ(),
-                        request.getP(),
-                        request.getK(),
+                        rules,
                         request.getWage()
                 );
 
         return ResponseEntity.ok(new ValidatorResponse(result.getValid(), result.getInvalid()));
     }
 
+    /**
+     * POST /blackrock/challenge/v1/transactions:filter?ruleSetId=... (Content-Type: application/x-ndjson)
+     * Bulk variant: the q/p/k periods come from a registered rule set (no periods if omitted),
+     * one transaction per line in and out, in input order. Duplicates are detected across the whole stream.
+     */
+    @PostMapping(value = "/transactions:filter", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> filterTransactionsNdjson(
+            @RequestParam(required = false) String ruleSetId, InputStream body) {
+        TemporalRules rules = ruleSetRegistry.resolve(ruleSetId, null, null, null);
+        DuplicateDetector seenDates = DuplicateDetector.hashed(NDJSON_CHUNK_SIZE);
+        return streamNdjson(body, Transaction.class,
+                (chunk, firstLine) -> temporalFilterService.filterChunk(chunk, rules, seenDates));
+    }
+
     /**
      * POST /blackrock/challenge/v1/transactions:summary
      * Analyzes spending patterns and provides savings insights with investment readiness score.
@@ -83,4 +165,86 @@ public class TransactionController {
         SummaryResponse response = summaryService.analyzeSummary(request.getTransactions());
         return ResponseEntity.ok(response);
     }
+
+    /**
+     * Reads NDJSON rows in chunks, processes each chunk and writes the results one per line.
+     * The next chunk is only read once the previous one has been written, and writes block while
+     * the client is not reading, so a slow consumer throttles the whole pipeline.
+     *
+     * The status is sent before the first row is read, so a malformed line or an expense that
+     * cannot be parsed ends the stream with a terminal {"error": {"line", "message"}} line
+     * instead; every line before it is a complete result.
+     */
+    private <T> ResponseEntity<StreamingResponseBody> streamNdjson(InputStream body, Class<T> rowType,
+                                                                   ChunkProcessor<T> process) {
+        ObjectWriter writer = objectMapper.writerFor(Transaction.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody stream = out -> {
+            try (MappingIterator<T> rows = objectMapper.readerFor(rowType).readValues(body);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                generator.setRootValueSeparator(null);
+
+                List<T> chunk = new ArrayList<>(NDJSON_CHUNK_SIZE);
+                int firstLine = 0;
+                int errorLine = -1;
+                String error = null;
+                boolean more = true;
+                while (more) {
+                    chunk.clear();
+                    try {
+                        while (chunk.size() < NDJSON_CHUNK_SIZE && (more = rows.hasNextValue())) {
+                            chunk.add(rows.nextValue());
+                        }
+                    } catch (JsonProcessingException | RuntimeJsonMappingException e) {
+                        // the rows read before the bad line are still processed
+                        more = false;
+                        errorLine = firstLine + chunk.size();
+                        error = "Line " + errorLine + ": malformed row: " + originalMessage(e);
+                    }
+                    List<Transaction> results;
+                    try {
+                        results = process.apply(chunk, firstLine);
+                    } catch (InvalidExpenseException e) {
+                        // keep the rows before the bad one, as for a malformed line
+                        more = false;
+                        errorLine = e.getIndex();
+                        error = e.getMessage();
+                        results = process.apply(chunk.subList(0, errorLine - firstLine), firstLine);
+                    }
+                    for (Transaction txn : results) {
+                        writer.writeValue(generator, txn);
+                        generator.writeRaw('\n');
+                    }
+                    firstLine += chunk.size();
+                    if (error != null) {
+                        generator.writeStartObject();
+                        generator.writeObjectFieldStart("error");
+                        generator.writeNumberField("line", errorLine);
+                        generator.writeStringField("message", error);
+                        generator.writeEndObject();
+                        generator.writeEndObject();
+                        generator.writeRaw('\n');
+                    }
+                    generator.flush();
+                }
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(stream);
+    }
+
+    private static String originalMessage(Exception e) {
+        Throwable cause = (e instanceof RuntimeJsonMappingException && e.getCause() != null) ? e.getCause() : e;
+        return (cause instanceof JsonProcessingException)
+                ? ((JsonProcessingException) cause).getOriginalMessage() : cause.getMessage();
+    }
+
+    /**
+     * Processes one chunk of rows, the first of which is line firstLine of the stream (from 0).
+     */
+    @FunctionalInterface
+    private interface ChunkProcessor<T> {
+        List<Transaction> apply(List<T> chunk, int firstLine);
+    }
 }
@@ -1,6 +1,7 @@
 package com.blackrock.retirement.dto;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.blackrock.retirement.model.InstrumentProjection;
 import com.blackrock.retirement.model.SavingsByDate;
 import java.util.List;
 
@@ -27,6 +28,9 @@ public class CompareResponse {
     private double indexTotalProfit;
     private double indexEffectiveGain;
 
+    // Further instruments from configuration (omitted when only NPS and Index are configured)
+    private List<InstrumentProjection> otherInstruments;
+
     // Recommendation
     private String recommendation;
     private String riskProfile;
@@ -149,6 +153,14 @@ public class CompareResponse {
         this.suggestedIndexPercent = suggestedIndexPercent;
     }
 
+    public List<InstrumentProjection> getOtherInstruments() {
+        return otherInstruments;
+    }
+
+    public void setOtherInstruments(List<InstrumentProjection> otherInstruments) {
+        this.otherInstruments = otherInstruments;
+    }
+
     public String getReasoning() {
         return reasoning;
     }
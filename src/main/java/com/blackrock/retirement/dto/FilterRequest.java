@@ -9,6 +9,7 @@ import java.util.List;
 
 /**
  * Request body for the temporal constraints filter endpoint.
+ * Periods are sent inline, or by ruleSetId when a rule set has been registered.
  */
 public class FilterRequest {
 
@@ -17,6 +18,7 @@ public class FilterRequest {
     private List<KPeriod> k;
     private double wage;
     private List<Transaction> transactions;
+    private String ruleSetId;
 
     public FilterRequest() {
     }
@@ -60,4 +62,12 @@ public class FilterRequest {
     public void setTransactions(List<Transaction> transactions) {
         this.transactions = transactions;
     }
+
+    public String getRuleSetId() {
+        return ruleSetId;
+    }
+
+    public void setRuleSetId(String ruleSetId) {
+        this.ruleSetId = ruleSetId;
+    }
 }
@@ -0,0 +1,59 @@
+package com.blackrock.retirement.dto;
+
+/**
+ * Request body for the goal-seek endpoint.
+ * Same fields as the returns endpoints, plus the goal: the inflation-adjusted value at retirement
+ * that the k-period at index period should reach, and whether to solve for a per-transaction
+ * p-period extra ("extra") or a q-period fixed amount ("fixed") over that k-period.
+ */
+public class GoalSeekRequest extends ReturnsRequest {
+
+    private String instrument = "nps";
+    private double target;
+    private String solveFor = "extra";
+    private int period;
+    private boolean includeTaxBenefit;
+
+    public GoalSeekRequest() {
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    public double getTarget() {
+        return target;
+    }
+
+    public void setTarget(double target) {
+        this.target = target;
+    }
+
+    public String getSolveFor() {
+        return solveFor;
+    }
+
+    public void setSolveFor(String solveFor) {
+        this.solveFor = solveFor;
+    }
+
+    public int getPeriod() {
+        return period;
+    }
+
+    public void setPeriod(int period) {
+        this.period = period;
+    }
+
+    public boolean isIncludeTaxBenefit() {
+        return includeTaxBenefit;
+    }
+
+    public void setIncludeTaxBenefit(boolean includeTaxBenefit) {
+        this.includeTaxBenefit = includeTaxBenefit;
+    }
+}
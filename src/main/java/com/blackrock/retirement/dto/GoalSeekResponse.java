@@ -0,0 +1,112 @@
+package com.blackrock.retirement.dto;
+
+/**
+ * Response body for the goal-seek endpoint.
+ * requiredAmount is per transaction in the goal k-period, rounded up to the paisa so that
+ * projectedValue reaches the target; it is null when no amount can change the period's value.
+ */
+public class GoalSeekResponse {
+
+    private String instrument;
+    private String solveFor;
+    private String start;
+    private String end;
+    private double target;
+    private int transactionsInPeriod;
+    private double currentValue;
+    private Double requiredAmount;
+    private double projectedValue;
+    private boolean reachable;
+    private String method;
+
+    public GoalSeekResponse() {
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    public String getSolveFor() {
+        return solveFor;
+    }
+
+    public void setSolveFor(String solveFor) {
+        this.solveFor = solveFor;
+    }
+
+    public String getStart() {
+        return start;
+    }
+
+    public void setStart(String start) {
+        this.start = start;
+    }
+
+    public String getEnd() {
+        return end;
+    }
+
+    public void setEnd(String end) {
+        this.end = end;
+    }
+
+    public double getTarget() {
+        return target;
+    }
+
+    public void setTarget(double target) {
+        this.target = target;
+    }
+
+    public int getTransactionsInPeriod() {
+        return transactionsInPeriod;
+    }
+
+    public void setTransactionsInPeriod(int transactionsInPeriod) {
+        this.transactionsInPeriod = transactionsInPeriod;
+    }
+
+    public double getCurrentValue() {
+        return currentValue;
+    }
+
+    public void setCurrentValue(double currentValue) {
+        this.currentValue = currentValue;
+    }
+
+    public Double getRequiredAmount() {
+        return requiredAmount;
+    }
+
+    public void setRequiredAmount(Double requiredAmount) {
+        this.requiredAmount = requiredAmount;
+    }
+
+    public double getProjectedValue() {
+        return projectedValue;
+    }
+
+    public void setProjectedValue(double projectedValue) {
+        this.projectedValue = projectedValue;
+    }
+
+    public boolean isReachable() {
+        return reachable;
+    }
+
+    public void setReachable(boolean reachable) {
+        this.reachable = reachable;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public void setMethod(String method) {
+        this.method = method;
+    }
+}
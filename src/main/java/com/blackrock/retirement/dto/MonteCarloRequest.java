@@ -0,0 +1,39 @@
+package com.blackrock.retirement.dto;
+
+/**
+ * Request body for the Monte Carlo returns endpoint.
+ * Same fields as the returns endpoints, plus the instrument, path count and random seed.
+ */
+public class MonteCarloRequest extends ReturnsRequest {
+
+    private String instrument = "index";
+    private Integer simulations;
+    private Long seed;
+
+    public MonteCarloRequest() {
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    public Integer getSimulations() {
+        return simulations;
+    }
+
+    public void setSimulations(Integer simulations) {
+        this.simulations = simulations;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
@@ -0,0 +1,70 @@
+package com.blackrock.retirement.dto;
+
+import com.blackrock.retirement.model.SavingsPercentiles;
+
+import java.util.List;
+
+/**
+ * Response body for the Monte Carlo returns endpoint.
+ * Contains the same totals as the returns endpoints and percentile profits per k-period.
+ */
+public class MonteCarloResponse {
+
+    private String instrument;
+    private int simulations;
+    private long seed;
+    private double totalTransactionAmount;
+    private double totalCeiling;
+    private List<SavingsPercentiles> savingsByDates;
+
+    public MonteCarloResponse() {
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    public int getSimulations() {
+        return simulations;
+    }
+
+    public void setSimulations(int simulations) {
+        this.simulations = simulations;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    public double getTotalTransactionAmount() {
+        return totalTransactionAmount;
+    }
+
+    public void setTotalTransactionAmount(double totalTransactionAmount) {
+        this.totalTransactionAmount = totalTransactionAmount;
+    }
+
+    public double getTotalCeiling() {
+        return totalCeiling;
+    }
+
+    public void setTotalCeiling(double totalCeiling) {
+        this.totalCeiling = totalCeiling;
+    }
+
+    public List<SavingsPercentiles> getSavingsByDates() {
+        return savingsByDates;
+    }
+
+    public void setSavingsByDates(List<SavingsPercentiles> savingsByDates) {
+        this.savingsByDates = savingsByDates;
+    }
+}
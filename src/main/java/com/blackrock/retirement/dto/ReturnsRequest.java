@@ -5,6 +5,7 @@ import java.util.List;
 
 /**
  * Request body for the returns calculation endpoints (NPS and Index Fund).
+ * Periods are sent inline, or by ruleSetId when a rule set has been registered.
  */
 public class ReturnsRequest {
 
@@ -15,6 +16,9 @@ public class ReturnsRequest {
     private List<PPeriod> p;
     private List<KPeriod> k;
     private List<Transaction> transactions;
+    private String ruleSetId;
+    private String taxRegime;
+    private boolean timeWeighted;
 
     public ReturnsRequest() {
     }
@@ -74,4 +78,35 @@ public class ReturnsRequest {
     public void setTransactions(List<Transaction> transactions) {
         this.transactions = transactions;
     }
+
+    public String getRuleSetId() {
+        return ruleSetId;
+    }
+
+    public void setRuleSetId(String ruleSetId) {
+        this.ruleSetId = ruleSetId;
+    }
+
+    /**
+     * Tax regime for the NPS tax benefit (e.g. "old", "new-fy2025"); null uses the configured default.
+     */
+    public String getTaxRegime() {
+        return taxRegime;
+    }
+
+    public void setTaxRegime(String taxRegime) {
+        this.taxRegime = taxRegime;
+    }
+
+    /**
+     * Compound each remanent from its own transaction date rather than every k-period over the same years.
+     * Not used by the Monte Carlo endpoint, which needs one shared holding period.
+     */
+    public boolean isTimeWeighted() {
+        return timeWeighted;
+    }
+
+    public void setTimeWeighted(boolean timeWeighted) {
+        this.timeWeighted = timeWeighted;
+    }
 }
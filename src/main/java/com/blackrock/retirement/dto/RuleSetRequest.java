@@ -0,0 +1,44 @@
+package com.blackrock.retirement.dto;
+
+import com.blackrock.retirement.model.KPeriod;
+import com.blackrock.retirement.model.PPeriod;
+import com.blackrock.retirement.model.QPeriod;
+
+import java.util.List;
+
+/**
+ * Request body for registering a reusable q/p/k rule set.
+ */
+public class RuleSetRequest {
+
+    private List<QPeriod> q;
+    private List<PPeriod> p;
+    private List<KPeriod> k;
+
+    public RuleSetRequest() {
+    }
+
+    public List<QPeriod> getQ() {
+        return q;
+    }
+
+    public void setQ(List<QPeriod> q) {
+        this.q = q;
+    }
+
+    public List<PPeriod> getP() {
+        return p;
+    }
+
+    public void setP(List<PPeriod> p) {
+        this.p = p;
+    }
+
+    public List<KPeriod> getK() {
+        return k;
+    }
+
+    public void setK(List<KPeriod> k) {
+        this.k = k;
+    }
+}
@@ -0,0 +1,60 @@
+package com.blackrock.retirement.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Response body for rule set registration.
+ * The ID can be passed as ruleSetId to the filter and returns endpoints.
+ */
+public class RuleSetResponse {
+
+    private String ruleSetId;
+    private int qCount;
+    private int pCount;
+    private int kCount;
+
+    public RuleSetResponse() {
+    }
+
+    public RuleSetResponse(String ruleSetId, int qCount, int pCount, int kCount) {
+        this.ruleSetId = ruleSetId;
+        this.qCount = qCount;
+        this.pCount = pCount;
+        this.kCount = kCount;
+    }
+
+    public String getRuleSetId() {
+        return ruleSetId;
+    }
+
+    public void setRuleSetId(String ruleSetId) {
+        this.ruleSetId = ruleSetId;
+    }
+
+    @JsonProperty("qCount")
+    public int getQCount() {
+        return qCount;
+    }
+
+    public void setQCount(int qCount) {
+        this.qCount = qCount;
+    }
+
+    @JsonProperty("pCount")
+    public int getPCount() {
+        return pCount;
+    }
+
+    public void setPCount(int pCount) {
+        this.pCount = pCount;
+    }
+
+    @JsonProperty("kCount")
+    public int getKCount() {
+        return kCount;
+    }
+
+    public void setKCount(int kCount) {
+        this.kCount = kCount;
+    }
+}
@@ -0,0 +1,104 @@
+package com.blackrock.retirement.dto;
+
+import com.blackrock.retirement.model.*;
+
+import java.util.List;
+
+/**
+ * Request body for the scenario-batch endpoint: one transaction history and rule set,
+ * evaluated under many (age, wage, inflation) scenarios for one instrument ("nps" or "index").
+ * Periods are sent inline, or by ruleSetId when a rule set has been registered.
+ */
+public class ScenarioRequest {
+
+    private String instrument = "nps";
+    private List<QPeriod> q;
+    private List<PPeriod> p;
+    private List<KPeriod> k;
+    private List<Transaction> transactions;
+    private String ruleSetId;
+    private String taxRegime;
+    private boolean timeWeighted;
+    private List<Scenario> scenarios;
+
+    public ScenarioRequest() {
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    public List<QPeriod> getQ() {
+        return q;
+    }
+
+    public void setQ(List<QPeriod> q) {
+        this.q = q;
+    }
+
+    public List<PPeriod> getP() {
+        return p;
+    }
+
+    public void setP(List<PPeriod> p) {
+        this.p = p;
+    }
+
+    public List<KPeriod> getK() {
+        return k;
+    }
+
+    public void setK(List<KPeriod> k) {
+        this.k = k;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+
+    public String getRuleSetId() {
+        return ruleSetId;
+    }
+
+    public void setRuleSetId(String ruleSetId) {
+        this.ruleSetId = ruleSetId;
+    }
+
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<Scenario> scenarios) {
+        this.scenarios = scenarios;
+    }
+
+    /**
+     * Tax regime for the NPS tax benefit (e.g. "old", "new-fy2025"); null uses the configured default.
+     */
+    public String getTaxRegime() {
+        return taxRegime;
+    }
+
+    public void setTaxRegime(String taxRegime) {
+        this.taxRegime = taxRegime;
+    }
+
+    /**
+     * Compound each remanent from its own transaction date rather than every k-period over the same years.
+     */
+    public boolean isTimeWeighted() {
+        return timeWeighted;
+    }
+
+    public void setTimeWeighted(boolean timeWeighted) {
+        this.timeWeighted = timeWeighted;
+    }
+}
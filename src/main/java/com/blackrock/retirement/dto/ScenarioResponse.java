@@ -0,0 +1,52 @@
+package com.blackrock.retirement.dto;
+
+import com.blackrock.retirement.model.ScenarioResult;
+
+import java.util.List;
+
+/**
+ * Response body for the scenario-batch endpoint.
+ * Totals are shared by every scenario; each scenario carries its own per-period breakdown.
+ */
+public class ScenarioResponse {
+
+    private String instrument;
+    private double totalTransactionAmount;
+    private double totalCeiling;
+    private List<ScenarioResult> scenarios;
+
+    public ScenarioResponse() {
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    public double getTotalTransactionAmount() {
+        return totalTransactionAmount;
+    }
+
+    public void setTotalTransactionAmount(double totalTransactionAmount) {
+        this.totalTransactionAmount = totalTransactionAmount;
+    }
+
+    public double getTotalCeiling() {
+        return totalCeiling;
+    }
+
+    public void setTotalCeiling(double totalCeiling) {
+        this.totalCeiling = totalCeiling;
+    }
+
+    public List<ScenarioResult> getScenarios() {
+        return scenarios;
+    }
+
+    public void setScenarios(List<ScenarioResult> scenarios) {
+        this.scenarios = scenarios;
+    }
+}
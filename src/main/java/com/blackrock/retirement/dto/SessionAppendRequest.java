@@ -0,0 +1,24 @@
+package com.blackrock.retirement.dto;
+
+import com.blackrock.retirement.model.Transaction;
+
+import java.util.List;
+
+/**
+ * Request body for appending transactions to a portfolio session.
+ */
+public class SessionAppendRequest {
+
+    private List<Transaction> transactions;
+
+    public SessionAppendRequest() {
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+}
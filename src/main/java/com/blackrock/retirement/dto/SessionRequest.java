@@ -0,0 +1,61 @@
+package com.blackrock.retirement.dto;
+
+import com.blackrock.retirement.model.*;
+
+import java.util.List;
+
+/**
+ * Request body for creating a portfolio session: the q/p/k rules (inline, or by ruleSetId)
+ * and the initial transaction history. Later transactions are appended as deltas.
+ */
+public class SessionRequest {
+
+    private List<QPeriod> q;
+    private List<PPeriod> p;
+    private List<KPeriod> k;
+    private List<Transaction> transactions;
+    private String ruleSetId;
+
+    public SessionRequest() {
+    }
+
+    public List<QPeriod> getQ() {
+        return q;
+    }
+
+    public void setQ(List<QPeriod> q) {
+        this.q = q;
+    }
+
+    public List<PPeriod> getP() {
+        return p;
+    }
+
+    public void setP(List<PPeriod> p) {
+        this.p = p;
+    }
+
+    public List<KPeriod> getK() {
+        return k;
+    }
+
+    public void setK(List<KPeriod> k) {
+        this.k = k;
+    }
+
+    public List<Transaction> getTransactions() {
+        return transactions;
+    }
+
+    public void setTransactions(List<Transaction> transactions) {
+        this.transactions = transactions;
+    }
+
+    public String getRuleSetId() {
+        return ruleSetId;
+    }
+
+    public void setRuleSetId(String ruleSetId) {
+        this.ruleSetId = ruleSetId;
+    }
+}
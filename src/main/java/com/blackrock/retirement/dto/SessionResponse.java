@@ -0,0 +1,83 @@
+package com.blackrock.retirement.dto;
+
+/**
+ * State of a portfolio session after it was created or had transactions appended.
+ */
+public class SessionResponse {
+
+    private String sessionId;
+    private int transactionCount;
+    private int validCount;
+    private int appended;
+    private int rejected;
+    private double totalTransactionAmount;
+    private double totalCeiling;
+
+    public SessionResponse() {
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public void setSessionId(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Transactions received over the session's lifetime, valid or not.
+     */
+    public int getTransactionCount() {
+        return transactionCount;
+    }
+
+    public void setTransactionCount(int transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+
+    public int getValidCount() {
+        return validCount;
+    }
+
+    public void setValidCount(int validCount) {
+        this.validCount = validCount;
+    }
+
+    /**
+     * Transactions in this request.
+     */
+    public int getAppended() {
+        return appended;
+    }
+
+    public void setAppended(int appended) {
+        this.appended = appended;
+    }
+
+    /**
+     * Transactions in this request rejected as negative or duplicate dates.
+     */
+    public int getRejected() {
+        return rejected;
+    }
+
+    public void setRejected(int rejected) {
+        this.rejected = rejected;
+    }
+
+    public double getTotalTransactionAmount() {
+        return totalTransactionAmount;
+    }
+
+    public void setTotalTransactionAmount(double totalTransactionAmount) {
+        this.totalTransactionAmount = totalTransactionAmount;
+    }
+
+    public double getTotalCeiling() {
+        return totalCeiling;
+    }
+
+    public void setTotalCeiling(double totalCeiling) {
+        this.totalCeiling = totalCeiling;
+    }
+}
@@ -0,0 +1,60 @@
+package com.blackrock.retirement.dto;
+
+/**
+ * Request body for returns on a portfolio session: the investor profile and instrument
+ * ("nps" by default). The transactions and rules come from the session.
+ */
+public class SessionReturnsRequest {
+
+    private int age;
+    private double wage;
+    private double inflation;
+    private String instrument = "nps";
+    private String taxRegime;
+
+    public SessionReturnsRequest() {
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public double getWage() {
+        return wage;
+    }
+
+    public void setWage(double wage) {
+        this.wage = wage;
+    }
+
+    public double getInflation() {
+        return inflation;
+    }
+
+    public void setInflation(double inflation) {
+        this.inflation = inflation;
+    }
+
+    public String getInstrument() {
+        return instrument;
+    }
+
+    public void setInstrument(String instrument) {
+        this.instrument = instrument;
+    }
+
+    /**
+     * Tax regime for the NPS tax benefit; null uses the configured default.
+     */
+    public String getTaxRegime() {
+        return taxRegime;
+    }
+
+    public void setTaxRegime(String taxRegime) {
+        this.taxRegime = taxRegime;
+    }
+}
@@ -1,5 +1,8 @@
 package com.blackrock.retirement.dto;
 
+import com.blackrock.retirement.model.RankedSpend;
+import com.blackrock.retirement.model.SpendBucket;
+import com.blackrock.retirement.model.SpendingAnomaly;
 import com.fasterxml.jackson.annotation.JsonInclude;
 import java.util.List;
 
@@ -23,12 +26,35 @@ public class SummaryResponse {
     private String highestSpendDate;
     private String lowestSpendDate;
 
+    // top-k lists, largest first
+    private List<RankedSpend> largestExpenses;
+    private List<RankedSpend> topSavingsContributors;
+    private List<SpendBucket> topSpendDays;
+
+    // spending distribution, from fixed-memory quantile sketches
+    private double medianSpend;
+    private double p90Spend;
+    private double p99Spend;
+    private double medianRemanent;
+    private double p90Remanent;
+    private double p99Remanent;
+
     // savings potential
     private double totalSavingsPotential;
     private double averageSavingsPerTransaction;
     private double monthlySavingsEstimate;
     private double annualSavingsProjection;
 
+    // time buckets; a series spanning more than 4096 buckets is left out
+    private Double observedTransactionsPerMonth;
+    private List<SpendBucket> dailySpend;
+    private List<SpendBucket> weeklySpend;
+    private List<SpendBucket> monthlySpend;
+    private long[][] hourWeekdayHeatmap;
+
+    // top spending anomalies, highest score first
+    private List<SpendingAnomaly> anomalies;
+
     // investment readiness score (0-100)
     private int investmentReadinessScore;
     private String investmentReadinessLabel;
@@ -109,6 +135,78 @@ public class SummaryResponse {
         this.lowestSpendDate = lowestSpendDate;
     }
 
+    public List<RankedSpend> getLargestExpenses() {
+        return largestExpenses;
+    }
+
+    public void setLargestExpenses(List<RankedSpend> largestExpenses) {
+        this.largestExpenses = largestExpenses;
+    }
+
+    public List<RankedSpend> getTopSavingsContributors() {
+        return topSavingsContributors;
+    }
+
+    public void setTopSavingsContributors(List<RankedSpend> topSavingsContributors) {
+        this.topSavingsContributors = topSavingsContributors;
+    }
+
+    public List<SpendBucket> getTopSpendDays() {
+        return topSpendDays;
+    }
+
+    public void setTopSpendDays(List<SpendBucket> topSpendDays) {
+        this.topSpendDays = topSpendDays;
+    }
+
+    public double getMedianSpend() {
+        return medianSpend;
+    }
+
+    public void setMedianSpend(double medianSpend) {
+        this.medianSpend = medianSpend;
+    }
+
+    public double getP90Spend() {
+        return p90Spend;
+    }
+
+    public void setP90Spend(double p90Spend) {
+        this.p90Spend = p90Spend;
+    }
+
+    public double getP99Spend() {
+        return p99Spend;
+    }
+
+    public void setP99Spend(double p99Spend) {
+        this.p99Spend = p99Spend;
+    }
+
+    public double getMedianRemanent() {
+        return medianRemanent;
+    }
+
+    public void setMedianRemanent(double medianRemanent) {
+        this.medianRemanent = medianRemanent;
+    }
+
+    public double getP90Remanent() {
+        return p90Remanent;
+    }
+
+    public void setP90Remanent(double p90Remanent) {
+        this.p90Remanent = p90Remanent;
+    }
+
+    public double getP99Remanent() {
+        return p99Remanent;
+    }
+
+    public void setP99Remanent(double p99Remanent) {
+        this.p99Remanent = p99Remanent;
+    }
+
     public double getTotalSavingsPotential() {
         return totalSavingsPotential;
     }
@@ -141,6 +239,54 @@ public class SummaryResponse {
         this.annualSavingsProjection = annualSavingsProjection;
     }
 
+    public Double getObservedTransactionsPerMonth() {
+        return observedTransactionsPerMonth;
+    }
+
+    public void setObservedTransactionsPerMonth(Double observedTransactionsPerMonth) {
+        this.observedTransactionsPerMonth = observedTransactionsPerMonth;
+    }
+
+    public List<SpendBucket> getDailySpend() {
+        return dailySpend;
+    }
+
+    public void setDailySpend(List<SpendBucket> dailySpend) {
+        this.dailySpend = dailySpend;
+    }
+
+    public List<SpendBucket> getWeeklySpend() {
+        return weeklySpend;
+    }
+
+    public void setWeeklySpend(List<SpendBucket> weeklySpend) {
+        this.weeklySpend = weeklySpend;
+    }
+
+    public List<SpendBucket> getMonthlySpend() {
+        return monthlySpend;
+    }
+
+    public void setMonthlySpend(List<SpendBucket> monthlySpend) {
+        this.monthlySpend = monthlySpend;
+    }
+
+    public long[][] getHourWeekdayHeatmap() {
+        return hourWeekdayHeatmap;
+    }
+
+    public void setHourWeekdayHeatmap(long[][] hourWeekdayHeatmap) {
+        this.hourWeekdayHeatmap = hourWeekdayHeatmap;
+    }
+
+    public List<SpendingAnomaly> getAnomalies() {
+        return anomalies;
+    }
+
+    public void setAnomalies(List<SpendingAnomaly> anomalies) {
+        this.anomalies = anomalies;
+    }
+
     public int getInvestmentReadinessScore() {
         return investmentReadinessScore;
     }
@@ -0,0 +1,33 @@
+package com.blackrock.retirement.dto;
+
+import java.util.List;
+
+/**
+ * Request body for the projection timeline endpoint.
+ * Same fields as the returns endpoints, plus the instruments to project (all configured ones
+ * when empty) and whether to emit monthly rather than yearly points.
+ */
+public class TimelineRequest extends ReturnsRequest {
+
+    private List<String> instruments;
+    private boolean monthly;
+
+    public TimelineRequest() {
+    }
+
+    public List<String> getInstruments() {
+        return instruments;
+    }
+
+    public void setInstruments(List<String> instruments) {
+        this.instruments = instruments;
+    }
+
+    public boolean isMonthly() {
+        return monthly;
+    }
+
+    public void setMonthly(boolean monthly) {
+        this.monthly = monthly;
+    }
+}
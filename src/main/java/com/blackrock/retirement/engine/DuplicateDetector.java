@@ -0,0 +1,211 @@
+package com.blackrock.retirement.engine;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Detects duplicate transaction dates without hashing the date strings.
+ *
+ * Plain fixed-width dates are keyed on their encoded timestamp ({@link TransactionBatch#dateKey}),
+ * which maps equal strings to equal keys and different strings to different keys, so the
+ * result is the same as a HashSet of the raw date strings. Keys live in a primitive long
+ * open-addressing table (linear probing, load factor at most 1/2). The rare dates that are not
+ * fixed width fall back to a string set. Null dates are never duplicates.
+ *
+ * For input already sorted by timestamp, {@link #sorted()} keeps only the keys of the current
+ * run of equal timestamps, since a timestamp that has been passed can never come back.
+ */
+public final class DuplicateDetector {
+
+    // never a valid key: keys are timestamp << 1 with |timestamp| < 2^39
+    private static final long EMPTY = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private final boolean sortedInput;
+
+    // hashed mode
+    private long[] table;
+    private int mask;
+    private int count;
+
+    // sorted mode: keys seen for the current timestamp
+    private long runTimestamp = EMPTY;
+    private long[] runKeys;
+    private int runCount;
+
+    private Set<String> otherDates;
+
+    private DuplicateDetector(boolean sortedInput, int capacity) {
+        this.sortedInput = sortedInput;
+        if (sortedInput) {
+            this.runKeys = new long[2];
+        } else {
+            this.table = newTable(capacity);
+            this.mask = capacity - 1;
+        }
+    }
+
+    /**
+     * Hash-based detector sized for about expectedSize dates; it grows if more are added.
+     */
+    public static DuplicateDetector hashed(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * expectedSize && capacity < (1 << 30)) {
+            capacity <<= 1;
+        }
+        return new DuplicateDetector(false, capacity);
+    }
+
+    /**
+     * Detector for rows arriving in non-decreasing timestamp order, using O(1) memory for
+     * fixed-width dates. Throws IllegalStateException if a row goes back in time.
+     */
+    public static DuplicateDetector sorted() {
+        return new DuplicateDetector(true, 0);
+    }
+
+    /**
+     * Picks the sorted mode when the batch is already in timestamp order, otherwise a hash
+     * table sized from the batch length.
+     */
+    public static DuplicateDetector forBatch(TransactionBatch batch) {
+        return batch.isSortedByTimestamp() ? sorted() : hashed(batch.size());
+    }
+
+    /**
+     * Whether the row's date has already been added.
+     */
+    public boolean contains(TransactionBatch batch, int row) {
+        long key = batch.dateKey(row);
+        if (key == TransactionBatch.NO_DATE_KEY) {
+            String date = batch.date(row);
+            return date != null && otherDates != null && otherDates.contains(date);
+        }
+        return sortedInput ? runContains(key) : tableContains(key);
+    }
+
+    /**
+     * Records the row's date as seen. Null dates are ignored.
+     */
+    public void add(TransactionBatch batch, int row) {
+        long key = batch.dateKey(row);
+        if (key == TransactionBatch.NO_DATE_KEY) {
+            String date = batch.date(row);
+            if (date != null) {
+                if (otherDates == null) {
+                    otherDates = new HashSet<>();
+                }
+                otherDates.add(date);
+            }
+            return;
+        }
+        if (sortedInput) {
+            runAdd(key);
+        } else {
+            tableAdd(key);
+        }
+    }
+
+    /**
+     * Approximate heap footprint, for memory budgets.
+     */
+    public long estimatedBytes() {
+        long bytes = 8L * ((table != null) ? table.length : runKeys.length);
+        if (otherDates != null) {
+            // string, its bytes and the hash set node
+            bytes += 96L * otherDates.size();
+        }
+        return bytes;
+    }
+
+    private boolean tableContains(long key) {
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long existing = table[slot];
+            if (existing == key) {
+                return true;
+            }
+            if (existing == EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    private void tableAdd(long key) {
+        int slot = slot(key);
+        while (table[slot] != EMPTY) {
+            if (table[slot] == key) {
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = key;
+        count++;
+        if (2 * count > table.length) {
+            rehash();
+        }
+    }
+
+    private void rehash() {
+        long[] old = table;
+        table = newTable(old.length << 1);
+        mask = table.length - 1;
+        for (long key : old) {
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (table[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                table[slot] = key;
+            }
+        }
+    }
+
+    private int slot(long key) {
+        // fibonacci hashing spreads consecutive timestamps across the table
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private boolean runContains(long key) {
+        long timestamp = key >> 1;
+        checkOrder(timestamp);
+        if (timestamp != runTimestamp) {
+            return false;
+        }
+        for (int i = 0; i < runCount; i++) {
+            if (runKeys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void runAdd(long key) {
+        long timestamp = key >> 1;
+        checkOrder(timestamp);
+        if (timestamp != runTimestamp) {
+            runTimestamp = timestamp;
+            runCount = 0;
+        }
+        for (int i = 0; i < runCount; i++) {
+            if (runKeys[i] == key) {
+                return;
+            }
+        }
+        // at most two keys per timestamp: the minute form and the seconds form
+        runKeys[runCount++] = key;
+    }
+
+    private void checkOrder(long timestamp) {
+        if (runTimestamp != EMPTY && timestamp < runTimestamp) {
+            throw new IllegalStateException("Transactions are not sorted by timestamp");
+        }
+    }
+
+    private static long[] newTable(int capacity) {
+        long[] table = new long[capacity];
+        Arrays.fill(table, EMPTY);
+        return table;
+    }
+}
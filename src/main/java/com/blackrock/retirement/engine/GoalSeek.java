@@ -0,0 +1,72 @@
+package com.blackrock.retirement.engine;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Solvers for "what input reaches this target" questions over a projection.
+ *
+ * A projection that is linear in the unknown, a + b * x, is inverted in closed form. Anything
+ * else must be increasing in the unknown and is solved inside a bracket by false position with
+ * the Illinois modification, falling back to a bisection step whenever an iteration fails to
+ * halve the bracket, so it never needs more than about twice the iterations of plain bisection
+ * and usually far fewer on piecewise-linear functions such as tax schedules.
+ */
+public final class GoalSeek {
+
+    private static final int MAX_ITERATIONS = 200;
+
+    private GoalSeek() {
+    }
+
+    /**
+     * Solves a + b * x = target, or NaN when b is zero and no x changes the result.
+     */
+    public static double linear(double a, double b, double target) {
+        return (b == 0) ? Double.NaN : (target - a) / b;
+    }
+
+    /**
+     * Smallest x in [lo, hi], to within tolerance, with f(x) &gt;= 0 for an increasing f.
+     * Returns lo when f(lo) &gt;= 0 already, and hi when even f(hi) &lt; 0.
+     */
+    public static double increasingRoot(DoubleUnaryOperator f, double lo, double hi, double tolerance) {
+        double fLo = f.applyAsDouble(lo);
+        if (fLo >= 0) {
+            return lo;
+        }
+        double fHi = f.applyAsDouble(hi);
+        if (fHi < 0) {
+            return hi;
+        }
+
+        // invariant: f(lo) < 0 <= f(hi); the Illinois halving stops one end sticking
+        int retained = 0;
+        boolean bisect = false;
+        for (int i = 0; i < MAX_ITERATIONS && hi - lo > tolerance; i++) {
+            double width = hi - lo;
+            double x = bisect ? lo + width / 2 : (lo * fHi - hi * fLo) / (fHi - fLo);
+            if (!(x > lo && x < hi)) {
+                x = lo + width / 2;
+            }
+
+            double fx = f.applyAsDouble(x);
+            if (fx < 0) {
+                lo = x;
+                fLo = fx;
+                if (retained == 1) {
+                    fHi /= 2;
+                }
+                retained = 1;
+            } else {
+                hi = x;
+                fHi = fx;
+                if (retained == -1) {
+                    fLo /= 2;
+                }
+                retained = -1;
+            }
+            bisect = hi - lo > width / 2;
+        }
+        return hi;
+    }
+}
@@ -0,0 +1,124 @@
+package com.blackrock.retirement.engine;
+
+import com.blackrock.retirement.model.KPeriod;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precompiled k-period boundaries.
+ *
+ * Keeps each k-period's inclusive [start, end] as epoch seconds in list order for per-period
+ * aggregation, plus the merged union of all periods so membership checks are a binary search.
+ */
+public final class KPeriodIndex {
+
+    private static final KPeriodIndex EMPTY = new KPeriodIndex(new long[0], new long[0], new long[0], new long[0], 0);
+
+    private final long[] starts;
+    private final long[] ends;
+    private final long[] coverStarts;
+    private final long[] coverEnds;
+    private final int coverCount;
+
+    private KPeriodIndex(long[] starts, long[] ends, long[] coverStarts, long[] coverEnds, int coverCount) {
+        this.starts = starts;
+        this.ends = ends;
+        this.coverStarts = coverStarts;
+        this.coverEnds = coverEnds;
+        this.coverCount = coverCount;
+    }
+
+    public static KPeriodIndex compile(List<KPeriod> kPeriods) {
+        if (kPeriods == null || kPeriods.isEmpty()) {
+            return EMPTY;
+        }
+
+        int n = kPeriods.size();
+        long[] starts = new long[n];
+        long[] ends = new long[n];
+        for (int i = 0; i < n; i++) {
+            KPeriod k = kPeriods.get(i);
+            starts[i] = TimestampCodec.parse(k.getStart());
+            ends[i] = TimestampCodec.parse(k.getEnd());
+        }
+
+        // merge the usable periods into a sorted, disjoint union for membership checks
+        long[] sortedStarts = new long[n];
+        int usable = 0;
+        for (int i = 0; i < n; i++) {
+            if (starts[i] <= ends[i]) {
+                sortedStarts[usable++] = starts[i];
+            }
+        }
+        int distinctStarts = LongSearch.sortDistinct(sortedStarts, usable);
+
+        // furthest inclusive end reached by any period opening at each distinct start
+        long[] furthestEnds = new long[distinctStarts];
+        Arrays.fill(furthestEnds, Long.MIN_VALUE);
+        for (int i = 0; i < n; i++) {
+            if (starts[i] <= ends[i]) {
+                int slot = LongSearch.lowerBound(sortedStarts, distinctStarts, starts[i]);
+                furthestEnds[slot] = Math.max(furthestEnds[slot], ends[i]);
+            }
+        }
+
+        long[] coverStarts = new long[distinctStarts];
+        long[] coverEnds = new long[distinctStarts];
+        int coverCount = 0;
+        for (int i = 0; i < distinctStarts; i++) {
+            if (coverCount > 0 && sortedStarts[i] <= coverEnds[coverCount - 1] + 1) {
+                coverEnds[coverCount - 1] = Math.max(coverEnds[coverCount - 1], furthestEnds[i]);
+            } else {
+                coverStarts[coverCount] = sortedStarts[i];
+                coverEnds[coverCount] = furthestEnds[i];
+                coverCount++;
+            }
+        }
+
+        return new KPeriodIndex(starts, ends, coverStarts, coverEnds, coverCount);
+    }
+
+    public int size() {
+        return starts.length;
+    }
+
+    public long startAt(int period) {
+        return starts[period];
+    }
+
+    public long endAt(int period) {
+        return ends[period];
+    }
+
+    /**
+     * Checks if the timestamp falls within any k-period (inclusive).
+     */
+    public boolean covers(long timestamp) {
+        int slot = LongSearch.floor(coverStarts, coverCount, timestamp);
+        return slot >= 0 && timestamp <= coverEnds[slot];
+    }
+
+    /**
+     * Sums the timeline values falling inside each k-period, in k-period list order.
+     * Each period costs two binary searches, so the whole pass is O(K log N).
+     */
+    public long[] sumByPeriod(PrefixSumTimeline timeline) {
+        long[] sums = new long[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            sums[i] = timeline.sumBetween(starts[i], ends[i]);
+        }
+        return sums;
+    }
+
+    /**
+     * Sums the compounded timeline values falling inside each k-period, in k-period list order.
+     */
+    public double[] sumByPeriod(PrefixSumTimeline.Compounded timeline) {
+        double[] sums = new double[starts.length];
+        for (int i = 0; i < starts.length; i++) {
+            sums[i] = timeline.sumBetween(starts[i], ends[i]);
+        }
+        return sums;
+    }
+}
@@ -0,0 +1,88 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Running per-k-period totals that accept values one at a time, in any time order.
+ *
+ * The k-period boundaries (every start, and every end + 1 second) cut the timeline into
+ * buckets that each lie entirely inside or outside every period. A Fenwick tree over those
+ * buckets takes each value in O(log B), and a period's total is the difference of two prefix
+ * sums, so all K totals cost O(K log B) however many values have been added.
+ */
+public final class KPeriodTotals {
+
+    private final long[] boundaries;
+    private final int[] startBuckets;
+    private final int[] endBuckets;
+    private final long[] tree;
+
+    private KPeriodTotals(long[] boundaries, int[] startBuckets, int[] endBuckets) {
+        this.boundaries = boundaries;
+        this.startBuckets = startBuckets;
+        this.endBuckets = endBuckets;
+        this.tree = new long[boundaries.length + 1];
+    }
+
+    public static KPeriodTotals of(KPeriodIndex index) {
+        int k = index.size();
+        long[] boundaries = new long[2 * k];
+        for (int i = 0; i < k; i++) {
+            boundaries[2 * i] = index.startAt(i);
+            boundaries[2 * i + 1] = index.endAt(i) + 1;
+        }
+        int count = LongSearch.sortDistinct(boundaries, boundaries.length);
+        long[] distinct = new long[count];
+        System.arraycopy(boundaries, 0, distinct, 0, count);
+
+        // a period covers the buckets [startBucket, endBucket); inverted periods cover none
+        int[] startBuckets = new int[k];
+        int[] endBuckets = new int[k];
+        for (int i = 0; i < k; i++) {
+            if (index.startAt(i) <= index.endAt(i)) {
+                startBuckets[i] = LongSearch.lowerBound(distinct, count, index.startAt(i));
+                endBuckets[i] = LongSearch.lowerBound(distinct, count, index.endAt(i) + 1);
+            }
+        }
+        return new KPeriodTotals(distinct, startBuckets, endBuckets);
+    }
+
+    /**
+     * Adds a paise value at the timestamp to every period containing it.
+     */
+    public void add(long timestamp, long value) {
+        int bucket = LongSearch.floor(boundaries, boundaries.length, timestamp);
+        if (bucket < 0) {
+            // before every period
+            return;
+        }
+        for (int i = bucket + 1; i < tree.length; i += i & -i) {
+            tree[i] += value;
+        }
+    }
+
+    /**
+     * Current total of each k-period, in paise and k-period list order.
+     */
+    public long[] sumByPeriod() {
+        long[] sums = new long[startBuckets.length];
+        for (int i = 0; i < sums.length; i++) {
+            sums[i] = prefix(endBuckets[i]) - prefix(startBuckets[i]);
+        }
+        return sums;
+    }
+
+    /**
+     * Approximate heap footprint, for memory budgets.
+     */
+    public long estimatedBytes() {
+        return 8L * (boundaries.length + tree.length) + 4L * (startBuckets.length + endBuckets.length);
+    }
+
+    // sum of buckets [0, bucket)
+    private long prefix(int bucket) {
+        long sum = 0;
+        for (int i = bucket; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,68 @@
+package com.blackrock.retirement.engine;
+
+import java.util.Arrays;
+
+/**
+ * Binary search helpers over sorted long arrays.
+ */
+final class LongSearch {
+
+    private LongSearch() {
+    }
+
+    /**
+     * Returns the index of the last element &lt;= key, or -1 if every element is greater.
+     */
+    static int floor(long[] sorted, int length, long key) {
+        return upperBound(sorted, length, key) - 1;
+    }
+
+    /**
+     * Returns the index of the first element &gt;= key (length if none).
+     */
+    static int lowerBound(long[] sorted, int length, long key) {
+        int lo = 0;
+        int hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the index of the first element &gt; key (length if none).
+     */
+    static int upperBound(long[] sorted, int length, long key) {
+        int lo = 0;
+        int hi = length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Sorts the first length elements in place and removes duplicates.
+     * Returns the number of distinct values left at the front of the array.
+     */
+    static int sortDistinct(long[] values, int length) {
+        Arrays.sort(values, 0, length);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (distinct == 0 || values[distinct - 1] != values[i]) {
+                values[distinct++] = values[i];
+            }
+        }
+        return distinct;
+    }
+}
@@ -0,0 +1,110 @@
+package com.blackrock.retirement.engine;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Monte Carlo simulation of the growth factor of an investment held for a number of years.
+ *
+ * Each path draws one yearly return per year from a normal distribution with the instrument's
+ * mean and volatility (floored at a 95% loss) and multiplies them into a growth factor. The
+ * log growth of every path goes into a {@link StreamingHistogram}; the paths are split over a
+ * fixed number of independent SplittableRandom streams, each run as its own ForkJoinPool task
+ * with its own histogram, and the histograms are merged at the end. Memory is bounded by
+ * STREAMS * BINS counters whatever the number of paths, and the path loop does not allocate.
+ *
+ * The stream count does not depend on the machine, so a given seed gives the same result
+ * everywhere. Percentiles are accurate to within one histogram bin of log growth: about
+ * 12 * sd * sqrt(years) / 8192, i.e. under 0.2% relative error for 30 years at 18% volatility.
+ */
+public final class MonteCarloProjection {
+
+    private static final int STREAMS = 32;
+    private static final int BINS = 8192;
+    private static final double RANGE_SIGMAS = 6;
+    private static final double MIN_YEARLY_RETURN = -0.95;
+
+    private MonteCarloProjection() {
+    }
+
+    /**
+     * Returns the growth factor at each requested quantile (0..1), after the given years.
+     * With zero volatility (or zero years) every path is the same and no simulation is run.
+     */
+    public static double[] growthQuantiles(double meanReturn, double volatility, int years,
+                                           int paths, long seed, double... quantiles) {
+        if (paths < 1) {
+            throw new IllegalArgumentException("At least one simulation path is required");
+        }
+        double[] result = new double[quantiles.length];
+        if (volatility <= 0 || years <= 0) {
+            double growth = Math.pow(1 + meanReturn, Math.max(years, 0));
+            Arrays.fill(result, growth);
+            return result;
+        }
+
+        // histogram range from the approximate distribution of the log growth
+        double logMean = Math.log1p(meanReturn) - volatility * volatility / (2 * (1 + meanReturn) * (1 + meanReturn));
+        double logSd = volatility / (1 + meanReturn);
+        double center = years * logMean;
+        double halfRange = RANGE_SIGMAS * logSd * Math.sqrt(years);
+
+        // split the seed into one stream per task up front, so scheduling cannot change the result
+        SplittableRandom root = new SplittableRandom(seed);
+        int streams = Math.min(STREAMS, paths);
+        List<Callable<StreamingHistogram>> tasks = new ArrayList<>(streams);
+        for (int s = 0; s < streams; s++) {
+            SplittableRandom random = root.split();
+            int streamPaths = paths / streams + (s < paths % streams ? 1 : 0);
+            tasks.add(() -> {
+                StreamingHistogram histogram = new StreamingHistogram(center - halfRange, center + halfRange, BINS);
+                simulate(random, meanReturn, volatility, years, streamPaths, histogram);
+                return histogram;
+            });
+        }
+
+        StreamingHistogram merged = null;
+        for (Future<StreamingHistogram> future : ForkJoinPool.commonPool().invokeAll(tasks)) {
+            StreamingHistogram histogram = join(future);
+            if (merged == null) {
+                merged = histogram;
+            } else {
+                merged.merge(histogram);
+            }
+        }
+
+        for (int i = 0; i < quantiles.length; i++) {
+            result[i] = Math.exp(merged.quantile(quantiles[i]));
+        }
+        return result;
+    }
+
+    private static void simulate(SplittableRandom random, double meanReturn, double volatility,
+                                 int years, int paths, StreamingHistogram histogram) {
+        for (int p = 0; p < paths; p++) {
+            double growth = 1;
+            for (int y = 0; y < years; y++) {
+                double yearly = meanReturn + volatility * random.nextGaussian();
+                growth *= 1 + Math.max(yearly, MIN_YEARLY_RETURN);
+            }
+            histogram.add(Math.log(growth));
+        }
+    }
+
+    private static StreamingHistogram join(Future<StreamingHistogram> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Monte Carlo simulation interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Monte Carlo simulation failed", e.getCause());
+        }
+    }
+}
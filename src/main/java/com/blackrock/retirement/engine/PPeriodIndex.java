@@ -0,0 +1,115 @@
+package com.blackrock.retirement.engine;
+
+import com.blackrock.retirement.model.PPeriod;
+
+import java.util.List;
+
+/**
+ * Sweep-line index for p-period extras.
+ *
+ * Every p-period start and end boundary is placed on a single sorted timeline. Sweeping it
+ * once produces elementary segments, each carrying the summed extra of all p-periods active
+ * within it. A transaction then picks up its additive extra with a single binary search.
+ * Extras are summed in whole paise, so a segment with no open period is exactly zero.
+ *
+ * Boundaries are inclusive at second precision, so [start, end] is stored as [start, end + 1).
+ */
+public final class PPeriodIndex {
+
+    private static final PPeriodIndex EMPTY = new PPeriodIndex(new long[0], new long[0], 0);
+
+    private final long[] segmentStarts;
+    private final long[] segmentExtras;
+    private final int segmentCount;
+
+    private PPeriodIndex(long[] segmentStarts, long[] segmentExtras, int segmentCount) {
+        this.segmentStarts = segmentStarts;
+        this.segmentExtras = segmentExtras;
+        this.segmentCount = segmentCount;
+    }
+
+    /**
+     * Builds the index in O(P log P). Periods whose start is after their end are ignored.
+     */
+    public static PPeriodIndex compile(List<PPeriod> pPeriods) {
+        if (pPeriods == null || pPeriods.isEmpty()) {
+            return EMPTY;
+        }
+
+        int n = pPeriods.size();
+        long[] starts = new long[n];
+        long[] endsExclusive = new long[n];
+        long[] boundaries = new long[2 * n];
+        int boundaryCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            PPeriod p = pPeriods.get(i);
+            long start = TimestampCodec.parse(p.getStart());
+            long end = TimestampCodec.parse(p.getEnd());
+            starts[i] = start;
+            endsExclusive[i] = end + 1;
+
+            if (start <= end) {
+                boundaries[boundaryCount++] = start;
+                boundaries[boundaryCount++] = end + 1;
+            }
+        }
+
+        if (boundaryCount == 0) {
+            return EMPTY;
+        }
+
+        int distinct = LongSearch.sortDistinct(boundaries, boundaryCount);
+
+        // bucket the +extra / -extra events onto their boundary
+        long[] deltas = new long[distinct];
+        for (int i = 0; i < n; i++) {
+            if (starts[i] >= endsExclusive[i]) {
+                continue;
+            }
+            long extra = Paise.of(pPeriods.get(i).getExtra());
+            int open = LongSearch.lowerBound(boundaries, distinct, starts[i]);
+            int close = LongSearch.lowerBound(boundaries, distinct, endsExclusive[i]);
+            deltas[open] += extra;
+            deltas[close] -= extra;
+        }
+
+        // sweep: running sum of active extras per elementary segment
+        long[] segmentStarts = new long[distinct];
+        long[] segmentExtras = new long[distinct];
+        int segmentCount = 0;
+        long running = 0;
+
+        for (int b = 0; b < distinct; b++) {
+            running += deltas[b];
+
+            if (segmentCount > 0 && segmentExtras[segmentCount - 1] == running) {
+                continue;
+            }
+            segmentStarts[segmentCount] = boundaries[b];
+            segmentExtras[segmentCount] = running;
+            segmentCount++;
+        }
+
+        return new PPeriodIndex(segmentStarts, segmentExtras, segmentCount);
+    }
+
+    public boolean isEmpty() {
+        return segmentCount == 0;
+    }
+
+    /**
+     * Returns the summed extra, in paise, of every p-period covering the timestamp (0 if none).
+     */
+    public long extraAt(long timestamp) {
+        int segment = LongSearch.floor(segmentStarts, segmentCount, timestamp);
+        return (segment < 0) ? 0 : segmentExtras[segment];
+    }
+
+    /**
+     * Adds the summed p-period extra for the timestamp to the remanent.
+     */
+    public long apply(long timestamp, long remanent) {
+        return remanent + extraAt(timestamp);
+    }
+}
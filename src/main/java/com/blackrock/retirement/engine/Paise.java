@@ -0,0 +1,94 @@
+package com.blackrock.retirement.engine;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money in paise (1/100 rupee) held in a long.
+ *
+ * The engine adds, compares and rounds amounts as whole paise, so sums are exact and ceilings
+ * are integer arithmetic. Rupee doubles only appear at the JSON boundary: {@link #of} on the way
+ * in and {@link #toRupees} on the way out.
+ *
+ * Rounding is half-up on the decimal value the double prints as, like
+ * BigDecimal.valueOf(x).setScale(2, HALF_UP), so 1.005 rounds to 1.01 even though the nearest
+ * double is slightly below it. Values that are not within a few ulps of a tie are rounded with
+ * plain double arithmetic and allocate nothing; near-ties and values too large for a double
+ * product to carry whole paise go through that BigDecimal, so the result is exact either way.
+ *
+ * Amounts are limited to {@link #MAX_PAISE} in magnitude, so a ceiling or a sum of a hundred of
+ * them still fits in a long.
+ */
+public final class Paise {
+
+    public static final long PER_RUPEE = 100;
+
+    /** Largest magnitude {@link #of} accepts, in paise: about 9.2 * 10^14 rupees. */
+    public static final long MAX_PAISE = Long.MAX_VALUE / 100;
+
+    // above 2^52 a double has no fractional part left to round
+    private static final double EXACT_LIMIT = 0x1p52;
+
+    // a product v * 100 is within about 1.5 ulps of the decimal it stands for, so outside this
+    // window it rounds the same way that decimal does
+    private static final int TIE_ULPS = 4;
+
+    private Paise() {
+    }
+
+    /**
+     * Rupees to the nearest paisa, ties away from zero. Throws ArithmeticException when the
+     * amount is not a number or is beyond {@link #MAX_PAISE}.
+     */
+    public static long of(double rupees) {
+        double scaled = rupees * PER_RUPEE;
+        double magnitude = Math.abs(scaled);
+        if (!(magnitude <= MAX_PAISE)) {
+            throw new ArithmeticException("Rupee amount out of range: " + rupees);
+        }
+        if (magnitude >= EXACT_LIMIT) {
+            return exact(rupees);
+        }
+        double floor = Math.floor(magnitude);
+        double fraction = magnitude - floor;
+        if (Math.abs(fraction - 0.5) <= TIE_ULPS * Math.ulp(magnitude)) {
+            return exact(rupees);
+        }
+        long paise = (fraction > 0.5) ? (long) floor + 1 : (long) floor;
+        return (scaled < 0) ? -paise : paise;
+    }
+
+    /**
+     * Paise to rupees. The result is the double nearest the two-decimal value, so it prints
+     * exactly as that value.
+     */
+    public static double toRupees(long paise) {
+        return paise / (double) PER_RUPEE;
+    }
+
+    /**
+     * Rupees rounded half-up to two decimals; the allocation-free replacement for a BigDecimal
+     * setScale(2, HALF_UP). NaN, infinities and values beyond {@link #MAX_PAISE} come back
+     * unchanged, since a double that large has no paise left to round.
+     */
+    public static double round(double rupees) {
+        if (!(Math.abs(rupees * PER_RUPEE) <= MAX_PAISE)) {
+            return rupees;
+        }
+        return toRupees(of(rupees));
+    }
+
+    /**
+     * Rounds up to the next multiple of 100 rupees; an exact multiple stays as it is.
+     * Throws ArithmeticException when that multiple does not fit in a long.
+     */
+    public static long ceilToHundredRupees(long paise) {
+        long step = 100 * PER_RUPEE;
+        return Math.floorDiv(Math.addExact(paise, step - 1), step) * step;
+    }
+
+    // the decimal the double prints as, rounded half-up to whole paise
+    private static long exact(double rupees) {
+        return BigDecimal.valueOf(rupees).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+}
@@ -0,0 +1,115 @@
+package com.blackrock.retirement.engine;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+
+/**
+ * Splits a row range [0, size) into chunks and runs them on the common ForkJoinPool.
+ *
+ * Chunks are disjoint and start on multiples of 64, so bodies may write per-row results into
+ * plain arrays (including long[] bitset words) without sharing a slot with another chunk.
+ * Results are visible to the caller once forEach returns. {@link #reduce} instead returns one
+ * partial result per chunk and combines them left to right in row order, so any associative
+ * combine gives the same answer as a single sequential pass.
+ */
+public final class ParallelRows {
+
+    /** Rows handled by one task; a multiple of 64. */
+    public static final int CHUNK_SIZE = 4096;
+
+    /**
+     * Work on the half-open row range [from, to).
+     */
+    @FunctionalInterface
+    public interface RangeBody {
+        void run(int from, int to);
+    }
+
+    /**
+     * Partial result for the half-open row range [from, to).
+     */
+    @FunctionalInterface
+    public interface RangeReducer<R> {
+        R run(int from, int to);
+    }
+
+    private ParallelRows() {
+    }
+
+    /**
+     * Runs body over [0, size), split across the pool when parallel is set and there is more
+     * than one chunk of work, otherwise on the calling thread in a single call.
+     */
+    public static void forEach(int size, boolean parallel, RangeBody body) {
+        if (!parallel || size <= CHUNK_SIZE) {
+            body.run(0, size);
+            return;
+        }
+        ForkJoinPool.commonPool().invoke(new RangeTask(body, 0, size));
+    }
+
+    /**
+     * Reduces [0, size) with body and combines the partial results, earlier rows on the left;
+     * on the calling thread in a single call unless parallel is set and there is more than one
+     * chunk of work.
+     */
+    public static <R> R reduce(int size, boolean parallel, RangeReducer<R> body, BinaryOperator<R> combine) {
+        if (!parallel || size <= CHUNK_SIZE) {
+            return body.run(0, size);
+        }
+        return ForkJoinPool.commonPool().invoke(new ReduceTask<>(body, combine, 0, size));
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+
+        private final RangeBody body;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeBody body, int from, int to) {
+            this.body = body;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= CHUNK_SIZE) {
+                body.run(from, to);
+                return;
+            }
+            // from is always 64-aligned, so rounding the midpoint down keeps both halves aligned
+            int mid = (from + (to - from) / 2) & ~63;
+            invokeAll(new RangeTask(body, from, mid), new RangeTask(body, mid, to));
+        }
+    }
+
+    private static final class ReduceTask<R> extends RecursiveTask<R> {
+
+        private final RangeReducer<R> body;
+        private final BinaryOperator<R> combine;
+        private final int from;
+        private final int to;
+
+        ReduceTask(RangeReducer<R> body, BinaryOperator<R> combine, int from, int to) {
+            this.body = body;
+            this.combine = combine;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected R compute() {
+            if (to - from <= CHUNK_SIZE) {
+                return body.run(from, to);
+            }
+            int mid = (from + (to - from) / 2) & ~63;
+            ReduceTask<R> left = new ReduceTask<>(body, combine, from, mid);
+            left.fork();
+            R right = new ReduceTask<>(body, combine, mid, to).compute();
+            return combine.apply(left.join(), right);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Paise values keyed by timestamp, sorted once and folded into a prefix-sum array so that the
+ * total over any inclusive time range is two binary searches and a subtraction. Sums are exact
+ * long arithmetic; only the {@link #compounded} view, which applies growth factors, is double.
+ */
+public final class PrefixSumTimeline {
+
+    /** Seconds in an average (365.25-day) year. */
+    public static final long YEAR_SECONDS = 31557600L;
+
+    private final long[] timestamps;
+    private final long[] values;
+    private final long[] prefix;
+    private final int size;
+
+    private PrefixSumTimeline(long[] timestamps, long[] values, long[] prefix, int size) {
+        this.timestamps = timestamps;
+        this.values = values;
+        this.prefix = prefix;
+        this.size = size;
+    }
+
+    /**
+     * Builds the timeline from the first count (timestamp, value) pairs in O(N log N).
+     * Values sharing a timestamp are combined into a single entry.
+     */
+    public static PrefixSumTimeline of(long[] timestamps, long[] values, int count) {
+        long[] sorted = new long[count];
+        System.arraycopy(timestamps, 0, sorted, 0, count);
+        int distinct = LongSearch.sortDistinct(sorted, count);
+
+        long[] buckets = new long[distinct];
+        for (int i = 0; i < count; i++) {
+            buckets[LongSearch.lowerBound(sorted, distinct, timestamps[i])] += values[i];
+        }
+
+        long[] prefix = new long[distinct + 1];
+        for (int i = 0; i < distinct; i++) {
+            prefix[i + 1] = prefix[i] + buckets[i];
+        }
+        return new PrefixSumTimeline(sorted, buckets, prefix, distinct);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * The latest timestamp on the timeline; only meaningful when it is not empty.
+     */
+    public long lastTimestamp() {
+        return timestamps[size - 1];
+    }
+
+    /**
+     * Returns the sum of values with start &lt;= timestamp &lt;= end.
+     */
+    public long sumBetween(long start, long end) {
+        if (start > end) {
+            return 0;
+        }
+        int lo = LongSearch.lowerBound(timestamps, size, start);
+        int hi = LongSearch.upperBound(timestamps, size, end);
+        return prefix[hi] - prefix[lo];
+    }
+
+    /**
+     * Returns a view over the same timestamps whose values are compounded at yearlyGrowth
+     * (e.g. 1.0711) from their own timestamp to valuationTime, so that its sumBetween gives the
+     * value, in fractional paise, at valuationTime of everything invested in the range.
+     *
+     * One backward sweep carries the running growth factor: moving to the previous timestamp
+     * multiplies it by the growth across the gap, which is a product of precomputed
+     * yearlyGrowth^(2^b / YEAR_SECONDS) factors for the set bits of the gap in seconds. That
+     * costs about 40 Math.pow calls per timeline, not one per entry, and O(N) multiplies.
+     */
+    public Compounded compounded(long valuationTime, double yearlyGrowth) {
+        double[] weighted = new double[size];
+        if (size > 0) {
+            double[] powers = secondPowers(yearlyGrowth, timestamps[size - 1] - timestamps[0]);
+
+            // step 1: the latest entry compounds straight to the valuation time
+            double growth = Math.pow(yearlyGrowth, (double) (valuationTime - timestamps[size - 1]) / YEAR_SECONDS);
+            weighted[size - 1] = values[size - 1] * growth;
+
+            // step 2: each earlier entry also compounds across the gap to the next one
+            for (int i = size - 2; i >= 0; i--) {
+                growth *= growthOver(powers, timestamps[i + 1] - timestamps[i]);
+                weighted[i] = values[i] * growth;
+            }
+        }
+        double[] prefix = new double[size + 1];
+        for (int i = 0; i < size; i++) {
+            prefix[i + 1] = prefix[i] + weighted[i];
+        }
+        return new Compounded(timestamps, prefix, size);
+    }
+
+    // powers[b] = yearlyGrowth^(2^b seconds), for every bit a gap up to span can have
+    private static double[] secondPowers(double yearlyGrowth, long span) {
+        double[] powers = new double[64 - Long.numberOfLeadingZeros(span)];
+        for (int b = 0; b < powers.length; b++) {
+            powers[b] = Math.pow(yearlyGrowth, (double) (1L << b) / YEAR_SECONDS);
+        }
+        return powers;
+    }
+
+    private static double growthOver(double[] powers, long seconds) {
+        double growth = 1;
+        for (long rest = seconds; rest != 0; rest &= rest - 1) {
+            growth *= powers[Long.numberOfTrailingZeros(rest)];
+        }
+        return growth;
+    }
+
+    /**
+     * Compounded values over a timeline, as returned by {@link #compounded}.
+     */
+    public static final class Compounded {
+
+        private final long[] timestamps;
+        private final double[] prefix;
+        private final int size;
+
+        private Compounded(long[] timestamps, double[] prefix, int size) {
+            this.timestamps = timestamps;
+            this.prefix = prefix;
+            this.size = size;
+        }
+
+        /**
+         * Returns the compounded sum of values with start &lt;= timestamp &lt;= end.
+         */
+        public double sumBetween(long start, long end) {
+            if (start > end) {
+                return 0;
+            }
+            int lo = LongSearch.lowerBound(timestamps, size, start);
+            int hi = LongSearch.upperBound(timestamps, size, end);
+            return prefix[hi] - prefix[lo];
+        }
+    }
+}
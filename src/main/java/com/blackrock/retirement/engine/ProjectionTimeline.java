@@ -0,0 +1,106 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Lazy cursor over the projected balance of one investment, step by step to retirement.
+ *
+ * Each call to {@link #next} advances one step (a year, or a month in monthly mode) and updates
+ * the balance from the current year's growth and inflation factors, so a series of any length
+ * costs O(1) memory. Steps inside a year multiply the year's factor by precomputed fractional
+ * powers; year ends take the factor for the whole years, computed the same way as the returns
+ * projection, so the last step matches its profit exactly and monthly drift never builds up.
+ */
+public final class ProjectionTimeline {
+
+    private final double principal;
+    private final double yearlyGrowth;
+    private final double yearlyInflation;
+    private final int steps;
+    private final int stepsPerYear;
+    private final double[] growthWithinYear;
+    private final double[] inflationWithinYear;
+
+    private int step;
+    private double yearGrowth = 1;
+    private double yearInflation = 1;
+    private double balance;
+    private double realBalance;
+
+    /**
+     * A timeline for principal invested now at annualRate (0.0711 for 7.11%) with inflationRate
+     * (0.06 for 6%), over the given years, in yearly or monthly steps.
+     */
+    public ProjectionTimeline(double principal, double annualRate, double inflationRate, int years, boolean monthly) {
+        this.principal = principal;
+        this.yearlyGrowth = 1 + annualRate;
+        this.yearlyInflation = 1 + inflationRate;
+        this.stepsPerYear = monthly ? 12 : 1;
+        this.steps = Math.max(years, 0) * stepsPerYear;
+
+        // step 1: factors for the steps inside a year, the last one being the whole year
+        this.growthWithinYear = new double[stepsPerYear];
+        this.inflationWithinYear = new double[stepsPerYear];
+        for (int s = 0; s < stepsPerYear; s++) {
+            double fraction = (double) (s + 1) / stepsPerYear;
+            growthWithinYear[s] = Math.pow(yearlyGrowth, fraction);
+            inflationWithinYear[s] = Math.pow(yearlyInflation, fraction);
+        }
+        this.balance = principal;
+        this.realBalance = principal;
+    }
+
+    /**
+     * Advances to the next step; false once retirement has been reached.
+     */
+    public boolean next() {
+        if (step >= steps) {
+            return false;
+        }
+        int within = step % stepsPerYear;
+        step++;
+
+        // step 2: a completed year moves the running factors on to the next whole year
+        double growth;
+        double inflation;
+        if (within == stepsPerYear - 1) {
+            int years = step / stepsPerYear;
+            yearGrowth = Math.pow(yearlyGrowth, years);
+            yearInflation = Math.pow(yearlyInflation, years);
+            growth = yearGrowth;
+            inflation = yearInflation;
+        } else {
+            growth = yearGrowth * growthWithinYear[within];
+            inflation = yearInflation * inflationWithinYear[within];
+        }
+        balance = principal * growth;
+        realBalance = balance / inflation;
+        return true;
+    }
+
+    /**
+     * Year of the current step, from 1.
+     */
+    public int year() {
+        return (step - 1) / stepsPerYear + 1;
+    }
+
+    /**
+     * Month of the current step within its year, from 1 to 12; always 12 in yearly mode.
+     */
+    public int month() {
+        return ((step - 1) % stepsPerYear + 1) * (12 / stepsPerYear);
+    }
+
+    /**
+     * Nominal balance at the current step.
+     */
+    public double balance() {
+        return balance;
+    }
+
+    /**
+     * Balance at the current step in today's money.
+     */
+    public double realBalance() {
+        return realBalance;
+    }
+}
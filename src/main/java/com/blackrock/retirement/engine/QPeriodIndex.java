@@ -0,0 +1,141 @@
+package com.blackrock.retirement.engine;
+
+import com.blackrock.retirement.model.QPeriod;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Precompiled "winner timeline" for q-period fixed-amount overrides.
+ *
+ * The q-period boundaries split the timeline into elementary segments. For each segment
+ * the winning q-period is resolved once at compile time (latest start wins, ties go to the
+ * earliest list index), so looking up a transaction is a single binary search, O(log Q).
+ *
+ * Boundaries are inclusive on both ends at second precision, so a period [start, end]
+ * is stored as the half-open range [start, end + 1).
+ */
+public final class QPeriodIndex {
+
+    private static final int NO_WINNER = -1;
+
+    private static final QPeriodIndex EMPTY = new QPeriodIndex(new long[0], new int[0], new long[0], 0);
+
+    private final long[] segmentStarts;
+    private final int[] segmentWinners;
+    private final long[] fixedAmounts;
+    private final int segmentCount;
+
+    private QPeriodIndex(long[] segmentStarts, int[] segmentWinners, long[] fixedAmounts, int segmentCount) {
+        this.segmentStarts = segmentStarts;
+        this.segmentWinners = segmentWinners;
+        this.fixedAmounts = fixedAmounts;
+        this.segmentCount = segmentCount;
+    }
+
+    /**
+     * Builds the index in O(Q log Q). Periods whose start is after their end never match
+     * a transaction and are ignored.
+     */
+    public static QPeriodIndex compile(List<QPeriod> qPeriods) {
+        if (qPeriods == null || qPeriods.isEmpty()) {
+            return EMPTY;
+        }
+
+        int n = qPeriods.size();
+        long[] starts = new long[n];
+        long[] endsExclusive = new long[n];
+        long[] fixedAmounts = new long[n];
+        boolean[] usable = new boolean[n];
+
+        long[] boundaries = new long[2 * n];
+        int boundaryCount = 0;
+        int usableCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            QPeriod q = qPeriods.get(i);
+            long start = TimestampCodec.parse(q.getStart());
+            long end = TimestampCodec.parse(q.getEnd());
+            starts[i] = start;
+            endsExclusive[i] = end + 1;
+            fixedAmounts[i] = Paise.of(q.getFixed());
+
+            if (start <= end) {
+                usable[i] = true;
+                usableCount++;
+                boundaries[boundaryCount++] = start;
+                boundaries[boundaryCount++] = end + 1;
+            }
+        }
+
+        if (usableCount == 0) {
+            return EMPTY;
+        }
+
+        int distinct = LongSearch.sortDistinct(boundaries, boundaryCount);
+
+        // order periods by start ascending, and by list index descending within the same start,
+        // packed as (startRank << 32 | reversedIndex) so a primitive sort does the work
+        long[] order = new long[usableCount];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (usable[i]) {
+                long rank = LongSearch.lowerBound(boundaries, distinct, starts[i]);
+                order[k++] = (rank << 32) | (Integer.MAX_VALUE - i);
+            }
+        }
+        Arrays.sort(order);
+
+        // sweep the boundaries keeping active periods on a stack. Periods are pushed in
+        // increasing priority (later start, then lower index), so the top of the stack is
+        // always the winner once expired periods have been popped off it.
+        int[] stack = new int[usableCount];
+        int top = 0;
+        int cursor = 0;
+
+        long[] segmentStarts = new long[distinct];
+        int[] segmentWinners = new int[distinct];
+        int segmentCount = 0;
+
+        for (int b = 0; b < distinct; b++) {
+            long boundary = boundaries[b];
+
+            while (cursor < usableCount && (order[cursor] >>> 32) == b) {
+                stack[top++] = Integer.MAX_VALUE - (int) (order[cursor] & 0xFFFFFFFFL);
+                cursor++;
+            }
+            while (top > 0 && endsExclusive[stack[top - 1]] <= boundary) {
+                top--;
+            }
+
+            int winner = (top > 0) ? stack[top - 1] : NO_WINNER;
+
+            // merge adjacent segments that resolve to the same period
+            if (segmentCount > 0 && segmentWinners[segmentCount - 1] == winner) {
+                continue;
+            }
+            segmentStarts[segmentCount] = boundary;
+            segmentWinners[segmentCount] = winner;
+            segmentCount++;
+        }
+
+        return new QPeriodIndex(segmentStarts, segmentWinners, fixedAmounts, segmentCount);
+    }
+
+    public boolean isEmpty() {
+        return segmentCount == 0;
+    }
+
+    /**
+     * Returns the fixed amount, in paise, of the winning q-period for the timestamp,
+     * or the given remanent if no q-period covers it.
+     */
+    public long apply(long timestamp, long remanent) {
+        int segment = LongSearch.floor(segmentStarts, segmentCount, timestamp);
+        if (segment < 0) {
+            return remanent;
+        }
+        int winner = segmentWinners[segment];
+        return (winner == NO_WINNER) ? remanent : fixedAmounts[winner];
+    }
+}
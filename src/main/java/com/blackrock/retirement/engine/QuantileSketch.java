@@ -0,0 +1,96 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Fixed-memory quantile sketch with a relative error bound, for non-negative paise values.
+ *
+ * Values are counted into logarithmic buckets (gamma^(i-1), gamma^i] with
+ * gamma = (1 + alpha) / (1 - alpha), plus one bucket for zero, and each bucket answers with the
+ * point that is within alpha of everything in it. So any quantile is within a relative error
+ * alpha of the true value of that rank, however skewed the data, for values up to maxValue
+ * (larger values are clamped into the last bucket). Memory is one long per bucket, about
+ * ln(maxValue) / (2 * alpha) of them, no matter how many values are added.
+ *
+ * Two sketches with the same alpha and maxValue merge by adding counts, which is exact, so
+ * merging in any grouping or order gives the same sketch as adding every value to one.
+ */
+public final class QuantileSketch {
+
+    private final double alpha;
+    private final long maxValue;
+    private final double logGamma;
+    private final double bucketValueScale;
+    private final long[] counts;
+    private long zeroCount;
+    private long total;
+
+    /**
+     * A sketch for values in [0, maxValue] with relative error alpha (0.01 for 1%).
+     */
+    public QuantileSketch(double alpha, long maxValue) {
+        if (!(alpha > 0 && alpha < 1) || maxValue < 1) {
+            throw new IllegalArgumentException("Sketch needs 0 < alpha < 1 and maxValue >= 1");
+        }
+        double gamma = (1 + alpha) / (1 - alpha);
+        this.alpha = alpha;
+        this.maxValue = maxValue;
+        this.logGamma = Math.log(gamma);
+        this.bucketValueScale = 2 / (gamma + 1);
+        this.counts = new long[bucket(maxValue) + 1];
+    }
+
+    /**
+     * Adds one value; negative values count as zero.
+     */
+    public void add(long value) {
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            counts[Math.min(bucket(value), counts.length - 1)]++;
+        }
+        total++;
+    }
+
+    /**
+     * Adds the other sketch's counts into this one. Both must share alpha and maxValue.
+     */
+    public void merge(QuantileSketch other) {
+        if (other.alpha != alpha || other.maxValue != maxValue) {
+            throw new IllegalArgumentException("Sketches must share alpha and maxValue to merge");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        zeroCount += other.zeroCount;
+        total += other.total;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    /**
+     * Estimated value at quantile q (0..1): the value of rank floor(q * (count - 1)) in sorted
+     * order, to within relative error alpha. NaN if the sketch is empty.
+     */
+    public double quantile(double q) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        long rank = (long) (Math.max(0, Math.min(1, q)) * (total - 1));
+        if (rank < zeroCount) {
+            return 0;
+        }
+        long seen = zeroCount;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen > rank) {
+                return bucketValueScale * Math.exp(i * logGamma);
+            }
+        }
+        return maxValue;
+    }
+
+    private int bucket(long value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+}
@@ -0,0 +1,327 @@
+package com.blackrock.retirement.engine;
+
+import java.time.format.DateTimeParseException;
+
+/**
+ * Single-pass spending statistics: counts, total spend, highest and lowest spend with their
+ * dates, the round-up savings potential, quantile sketches of the spends and remanents, daily,
+ * weekly and monthly spend buckets, an hour-of-day by weekday heatmap, and the top k spends by
+ * amount and by remanent, all in paise.
+ *
+ * Accumulators over consecutive runs of rows merge into the accumulator of the whole run, and
+ * merging is associative, so chunks can be folded in parallel and partial summaries from
+ * separate batches combined in any grouping. On equal highest or lowest spends the left side
+ * keeps its date, which is the earlier row as long as merges keep row order.
+ */
+public final class SpendingAccumulator {
+
+    /** Passed to {@link #add} for a spend whose date has no usable timestamp. */
+    public static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /** Longest series kept per granularity: about 11 years of days. */
+    public static final int MAX_BUCKETS = 4096;
+
+    /** Anomalies kept, highest score first. */
+    public static final int MAX_ANOMALIES = 10;
+
+    /** Spends kept per top-k list unless configured otherwise. */
+    public static final int DEFAULT_TOP_K = 5;
+
+    // quantiles within 1% of the true spend or remanent
+    public static final double SKETCH_ALPHA = 0.01;
+
+    // valid spends stay below 5 * 10^5 rupees, and a remanent is below 100 rupees
+    private static final long MAX_AMOUNT_PAISE = 500000 * Paise.PER_RUPEE;
+    private static final long MAX_REMANENT_PAISE = 100 * Paise.PER_RUPEE;
+
+    private int validCount;
+    private int invalidCount;
+    private long totalSpentPaise;
+    private long totalSavingsPaise;
+
+    // highest starts at zero, so an all-zero history reports no highest date
+    private long highestPaise;
+    private String highestDate = "";
+    private long lowestPaise = Long.MAX_VALUE;
+    private String lowestDate = "";
+
+    private final QuantileSketch amounts = new QuantileSketch(SKETCH_ALPHA, MAX_AMOUNT_PAISE);
+    private final QuantileSketch remanents = new QuantileSketch(SKETCH_ALPHA, MAX_REMANENT_PAISE);
+
+    // time buckets: days since 1970-01-01, Monday-based weeks and months since January 1970
+    private int timedCount;
+    private long firstTimestamp = Long.MAX_VALUE;
+    private long lastTimestamp = Long.MIN_VALUE;
+    private final TimeBuckets days = new TimeBuckets(MAX_BUCKETS);
+    private final TimeBuckets weeks = new TimeBuckets(MAX_BUCKETS);
+    private final TimeBuckets months = new TimeBuckets(MAX_BUCKETS);
+    private final long[] heatmap = new long[7 * 24];
+
+    private final SpendingAnomalies anomalies = new SpendingAnomalies(MAX_ANOMALIES);
+
+    private final int topK;
+    private final TopSpends largestSpends;
+    private final TopSpends largestRemanents;
+
+    public SpendingAccumulator() {
+        this(DEFAULT_TOP_K);
+    }
+
+    /**
+     * An accumulator keeping the top k spends by amount and by remanent.
+     */
+    public SpendingAccumulator(int topK) {
+        this.topK = topK;
+        this.largestSpends = new TopSpends(topK);
+        this.largestRemanents = new TopSpends(topK);
+    }
+
+    /**
+     * Adds one valid spend without a timestamp, so it stays out of the time buckets.
+     */
+    public void add(long amountPaise, String date) {
+        add(amountPaise, date, NO_TIMESTAMP);
+    }
+
+    /**
+     * Adds one valid spend at the epoch-second timestamp, or {@link #NO_TIMESTAMP}.
+     */
+    public void add(long amountPaise, String date, long timestamp) {
+        long remanent = Paise.ceilToHundredRupees(amountPaise) - amountPaise;
+        validCount++;
+        totalSpentPaise += amountPaise;
+        totalSavingsPaise += remanent;
+        amounts.add(amountPaise);
+        remanents.add(remanent);
+
+        if (amountPaise > highestPaise) {
+            highestPaise = amountPaise;
+            highestDate = date;
+        }
+        if (amountPaise < lowestPaise) {
+            lowestPaise = amountPaise;
+            lowestDate = date;
+        }
+
+        // untimed spends lose ties to every timed one
+        long tieKey = (timestamp == NO_TIMESTAMP) ? Long.MAX_VALUE : timestamp;
+        largestSpends.offer(amountPaise, tieKey, date, amountPaise, remanent);
+        largestRemanents.offer(remanent, tieKey, date, amountPaise, remanent);
+
+        if (timestamp != NO_TIMESTAMP) {
+            long day = TimestampCodec.epochDay(timestamp);
+            timedCount++;
+            firstTimestamp = Math.min(firstTimestamp, timestamp);
+            lastTimestamp = Math.max(lastTimestamp, timestamp);
+            days.add(day, amountPaise, remanent);
+            weeks.add(weekOf(day), amountPaise, remanent);
+            months.add(TimestampCodec.epochMonth(timestamp), amountPaise, remanent);
+            heatmap[TimestampCodec.dayOfWeek(timestamp) * 24 + TimestampCodec.hourOfDay(timestamp)]++;
+        }
+    }
+
+    /**
+     * Counts one rejected row.
+     */
+    public void reject() {
+        invalidCount++;
+    }
+
+    /**
+     * Folds the classified rows [from, to) of the batch.
+     */
+    public SpendingAccumulator addRows(TransactionBatch batch, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (batch.isValid(i)) {
+                add(batch.amountPaiseOrZero(i), batch.date(i), timestampOf(batch, i));
+            } else {
+                reject();
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Folds in the statistics of rows that come after this accumulator's rows, and returns this.
+     */
+    public SpendingAccumulator merge(SpendingAccumulator later) {
+        validCount += later.validCount;
+        invalidCount += later.invalidCount;
+        totalSpentPaise += later.totalSpentPaise;
+        totalSavingsPaise += later.totalSavingsPaise;
+        amounts.merge(later.amounts);
+        remanents.merge(later.remanents);
+        timedCount += later.timedCount;
+        firstTimestamp = Math.min(firstTimestamp, later.firstTimestamp);
+        lastTimestamp = Math.max(lastTimestamp, later.lastTimestamp);
+        days.merge(later.days);
+        weeks.merge(later.weeks);
+        months.merge(later.months);
+        for (int i = 0; i < heatmap.length; i++) {
+            heatmap[i] += later.heatmap[i];
+        }
+        anomalies.merge(later.anomalies);
+        largestSpends.merge(later.largestSpends);
+        largestRemanents.merge(later.largestRemanents);
+
+        if (later.highestPaise > highestPaise) {
+            highestPaise = later.highestPaise;
+            highestDate = later.highestDate;
+        }
+        if (later.lowestPaise < lowestPaise) {
+            lowestPaise = later.lowestPaise;
+            lowestDate = later.lowestDate;
+        }
+        return this;
+    }
+
+    public int getValidCount() {
+        return validCount;
+    }
+
+    public int getInvalidCount() {
+        return invalidCount;
+    }
+
+    public int getTotalCount() {
+        return validCount + invalidCount;
+    }
+
+    public long getTotalSpentPaise() {
+        return totalSpentPaise;
+    }
+
+    public long getTotalSavingsPaise() {
+        return totalSavingsPaise;
+    }
+
+    public long getHighestPaise() {
+        return highestPaise;
+    }
+
+    public String getHighestDate() {
+        return highestDate;
+    }
+
+    public long getLowestPaise() {
+        return lowestPaise;
+    }
+
+    public String getLowestDate() {
+        return lowestDate;
+    }
+
+    /**
+     * Spend at quantile q (0..1) in paise, within {@link #SKETCH_ALPHA}; NaN with no valid rows.
+     */
+    public double amountQuantile(double q) {
+        return amounts.quantile(q);
+    }
+
+    /**
+     * Remanent at quantile q (0..1) in paise, within {@link #SKETCH_ALPHA}; NaN with no valid rows.
+     */
+    public double remanentQuantile(double q) {
+        return remanents.quantile(q);
+    }
+
+    /**
+     * Number of valid spends with a usable timestamp.
+     */
+    public int getTimedCount() {
+        return timedCount;
+    }
+
+    /**
+     * Earliest timestamp among the timed spends; only meaningful when there are some.
+     */
+    public long getFirstTimestamp() {
+        return firstTimestamp;
+    }
+
+    public long getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /**
+     * Spends per day; bucket i is i days after 1970-01-01.
+     */
+    public TimeBuckets getDays() {
+        return days;
+    }
+
+    /**
+     * Spends per week; week w starts on the Monday 7 * w - 3 days after 1970-01-01.
+     */
+    public TimeBuckets getWeeks() {
+        return weeks;
+    }
+
+    /**
+     * Spends per month; bucket m is m months after January 1970.
+     */
+    public TimeBuckets getMonths() {
+        return months;
+    }
+
+    /**
+     * Number of timed spends in the hour (0..23) of the day of the week (0 for Monday).
+     */
+    public long heatmapCount(int dayOfWeek, int hour) {
+        return heatmap[dayOfWeek * 24 + hour];
+    }
+
+    /**
+     * Top anomalies, from a {@link SpendingAnomalyDetector} run over each batch.
+     */
+    public SpendingAnomalies getAnomalies() {
+        return anomalies;
+    }
+
+    /**
+     * Number of spends kept per top-k list.
+     */
+    public int getTopK() {
+        return topK;
+    }
+
+    /**
+     * The largest spends by amount.
+     */
+    public TopSpends getLargestSpends() {
+        return largestSpends;
+    }
+
+    /**
+     * The spends leaving the largest remanents, the biggest savings contributors.
+     */
+    public TopSpends getLargestRemanents() {
+        return largestRemanents;
+    }
+
+    /**
+     * Epoch day of the Monday that starts the week.
+     */
+    public static long weekStartDay(long week) {
+        return 7 * week - 3;
+    }
+
+    private static long weekOf(long epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    /**
+     * Timestamp of the row, or {@link #NO_TIMESTAMP} when its date is missing or cannot be
+     * decoded; such a row still counts as a spend, just not in any time bucket.
+     */
+    public static long timestampOf(TransactionBatch batch, int row) {
+        if (batch.date(row) == null) {
+            return NO_TIMESTAMP;
+        }
+        try {
+            return batch.timestamp(row);
+        } catch (DateTimeParseException e) {
+            return NO_TIMESTAMP;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * The top anomalies found so far, by score, in a fixed number of slots.
+ *
+ * Payloads live in primitive arrays indexed by the {@link TopKHeap} slot, so memory is fixed
+ * by the capacity. Merging offers the other list's entries one by one; ties go to the earlier
+ * timestamp, so merges in any grouping keep the same entries.
+ */
+public final class SpendingAnomalies {
+
+    /** A single transaction far above the recent spending level. */
+    public static final int SPIKE = 0;
+
+    /** A day whose total spend is far from the usual daily total. */
+    public static final int UNUSUAL_DAY = 1;
+
+    private final TopKHeap heap;
+    private final int[] kinds;
+    private final String[] dates;
+    private final long[] amounts;
+    private final double[] expected;
+
+    public SpendingAnomalies(int capacity) {
+        this.heap = new TopKHeap(capacity);
+        this.kinds = new int[capacity];
+        this.dates = new String[capacity];
+        this.amounts = new long[capacity];
+        this.expected = new double[capacity];
+    }
+
+    /**
+     * Offers an anomaly of the given kind, with the amount seen and the amount expected in paise;
+     * the timestamp breaks ties between equal scores.
+     */
+    public void offer(int kind, double score, long timestamp, String date, long amountPaise, double expectedPaise) {
+        int slot = heap.offer(score, timestamp);
+        if (slot >= 0) {
+            kinds[slot] = kind;
+            dates[slot] = date;
+            amounts[slot] = amountPaise;
+            expected[slot] = expectedPaise;
+        }
+    }
+
+    /**
+     * Offers every anomaly of the other list into this one.
+     */
+    public void merge(SpendingAnomalies other) {
+        TopKHeap from = other.heap;
+        for (int position = 0; position < from.size(); position++) {
+            int slot = from.slotAt(position);
+            offer(other.kinds[slot], from.scoreAt(position), from.keyAt(position),
+                    other.dates[slot], other.amounts[slot], other.expected[slot]);
+        }
+    }
+
+    /**
+     * Slots of the kept anomalies, highest score first.
+     */
+    public int[] sortedSlots() {
+        return heap.sortedSlots();
+    }
+
+    public int kind(int slot) {
+        return kinds[slot];
+    }
+
+    public double score(int slot) {
+        return heap.scoreOf(slot);
+    }
+
+    public String date(int slot) {
+        return dates[slot];
+    }
+
+    public long amountPaise(int slot) {
+        return amounts[slot];
+    }
+
+    public double expectedPaise(int slot) {
+        return expected[slot];
+    }
+}
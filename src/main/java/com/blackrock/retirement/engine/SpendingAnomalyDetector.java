@@ -0,0 +1,141 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Streaming spending-anomaly detection in O(1) time and memory per transaction.
+ *
+ * Spikes: each spend is scored against the exponentially weighted mean and variance of the
+ * spends before it, z = (x - mean) / sd, and one more than {@link #SPIKE_Z} above is flagged.
+ *
+ * Unusual days: when the day changes, the finished day's total gets a robust z-score against a
+ * streaming median of earlier day totals (which moves a fixed fraction of the scale towards
+ * each new total, so one extreme day barely shifts it) and their exponentially weighted mean
+ * absolute deviation. Days more than {@link #DAY_Z} away on either side are flagged.
+ *
+ * Both scales are floored at a small fraction of the level and at one rupee, so near-constant
+ * spending (499.00 one day, 499.02 the next) has no vanishing deviation to turn noise into
+ * huge scores.
+ *
+ * Both follow input order, which is chronological for the usual sorted input, so they run
+ * sequentially; the flagged anomalies go into a bounded {@link SpendingAnomalies} list.
+ */
+public final class SpendingAnomalyDetector {
+
+    public static final double SPIKE_Z = 3.0;
+    public static final double DAY_Z = 3.5;
+
+    // smoothing for the spend mean/variance (about a 20-transaction memory) and the day median
+    private static final double ALPHA = 0.1;
+    private static final double ETA = 0.1;
+    private static final int WARMUP_TRANSACTIONS = 10;
+    private static final int WARMUP_DAYS = 7;
+
+    // the standard deviation of normal data is about 1.2533 mean absolute deviations
+    private static final double SD_PER_MEAN_DEVIATION = 1.2533;
+
+    // smallest scale a score is measured in: 5% of the level, and never under one rupee
+    private static final double RELATIVE_FLOOR = 0.05;
+    private static final double ABSOLUTE_FLOOR_PAISE = Paise.PER_RUPEE;
+
+    private static final long SECONDS_PER_DAY = 86400;
+    private static final long NO_DAY = Long.MIN_VALUE;
+
+    private final SpendingAnomalies anomalies;
+
+    private long transactions;
+    private double mean;
+    private double variance;
+
+    private long days;
+    private long currentDay = NO_DAY;
+    private long currentTotal;
+    private double dayMedian;
+    private double dayDeviation;
+
+    public SpendingAnomalyDetector(int capacity) {
+        this.anomalies = new SpendingAnomalies(capacity);
+    }
+
+    /**
+     * Scores one valid spend and folds it into the running statistics.
+     */
+    public void observe(long amountPaise, String date, long timestamp) {
+        // step 1: spike against the spends so far, then the exponentially weighted update
+        double x = amountPaise;
+        if (transactions == 0) {
+            mean = x;
+        } else {
+            double diff = x - mean;
+            if (transactions >= WARMUP_TRANSACTIONS) {
+                double z = diff / scale(Math.sqrt(variance), mean);
+                if (z > SPIKE_Z) {
+                    anomalies.offer(SpendingAnomalies.SPIKE, z, tieKey(timestamp), date, amountPaise, mean);
+                }
+            }
+            double alpha = weight(ALPHA, transactions + 1);
+            double increment = alpha * diff;
+            mean += increment;
+            variance = (1 - alpha) * (variance + diff * increment);
+        }
+        transactions++;
+
+        // step 2: a new day closes the previous one
+        if (timestamp == SpendingAccumulator.NO_TIMESTAMP) {
+            return;
+        }
+        long day = TimestampCodec.epochDay(timestamp);
+        if (day != currentDay) {
+            closeDay();
+            currentDay = day;
+            currentTotal = 0;
+        }
+        currentTotal += amountPaise;
+    }
+
+    /**
+     * Closes the last day and returns the anomalies found.
+     */
+    public SpendingAnomalies finish() {
+        closeDay();
+        currentDay = NO_DAY;
+        return anomalies;
+    }
+
+    private void closeDay() {
+        if (currentDay == NO_DAY) {
+            return;
+        }
+        double x = currentTotal;
+        if (days == 0) {
+            dayMedian = x;
+        } else {
+            double diff = x - dayMedian;
+            if (days >= WARMUP_DAYS) {
+                double z = diff / scale(SD_PER_MEAN_DEVIATION * dayDeviation, dayMedian);
+                if (Math.abs(z) > DAY_Z) {
+                    String date = TimestampCodec.format(currentDay * SECONDS_PER_DAY).substring(0, 10);
+                    anomalies.offer(SpendingAnomalies.UNUSUAL_DAY, Math.abs(z), currentDay * SECONDS_PER_DAY,
+                            date, currentTotal, dayMedian);
+                }
+            }
+            // the median steps by a fraction of the scale, so its moves are bounded
+            double eta = weight(ETA, days + 1);
+            double step = (dayDeviation > 0) ? dayDeviation : Math.abs(diff);
+            dayMedian += eta * step * Math.signum(diff);
+            dayDeviation += eta * (Math.abs(diff) - dayDeviation);
+        }
+        days++;
+    }
+
+    private static double scale(double deviation, double level) {
+        return Math.max(deviation, Math.max(RELATIVE_FLOOR * Math.abs(level), ABSOLUTE_FLOOR_PAISE));
+    }
+
+    // plain averaging over the first 1 / rate values, so early estimates are not biased to zero
+    private static double weight(double rate, long count) {
+        return Math.max(rate, 1.0 / count);
+    }
+
+    private static long tieKey(long timestamp) {
+        return (timestamp == SpendingAccumulator.NO_TIMESTAMP) ? Long.MAX_VALUE : timestamp;
+    }
+}
@@ -0,0 +1,80 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Fixed-memory histogram for streaming quantile estimates over a known value range.
+ *
+ * Values are counted into equal-width bins over [min, max); values outside the range are
+ * clamped into the first or last bin. Memory is one long per bin no matter how many values
+ * are added, and two histograms over the same range merge by adding counts, so parallel
+ * workers can each fill their own and combine them at the end.
+ *
+ * A quantile is answered by interpolating inside the bin that holds it, so for values inside
+ * the range the error is at most one bin width, (max - min) / bins.
+ */
+public final class StreamingHistogram {
+
+    private final double min;
+    private final double max;
+    private final double binsPerUnit;
+    private final long[] counts;
+    private long total;
+
+    public StreamingHistogram(double min, double max, int bins) {
+        if (!(max > min) || bins < 1) {
+            throw new IllegalArgumentException("Histogram needs max > min and at least one bin");
+        }
+        this.min = min;
+        this.max = max;
+        this.binsPerUnit = bins / (max - min);
+        this.counts = new long[bins];
+    }
+
+    public void add(double value) {
+        int bin = (int) ((value - min) * binsPerUnit);
+        if (bin < 0 || value != value) {
+            bin = 0;
+        } else if (bin >= counts.length) {
+            bin = counts.length - 1;
+        }
+        counts[bin]++;
+        total++;
+    }
+
+    /**
+     * Adds the other histogram's counts into this one. Both must cover the same range and bins.
+     */
+    public void merge(StreamingHistogram other) {
+        if (other.counts.length != counts.length || other.min != min || other.max != max) {
+            throw new IllegalArgumentException("Histograms must share range and bin count to merge");
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    public long count() {
+        return total;
+    }
+
+    /**
+     * Estimated value at quantile q (0..1), or NaN if the histogram is empty.
+     */
+    public double quantile(double q) {
+        if (total == 0) {
+            return Double.NaN;
+        }
+        double rank = q * total;
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            long c = counts[i];
+            if (c > 0 && seen + c >= rank) {
+                // linear interpolation inside the bin
+                double fraction = (rank - seen) / c;
+                return min + (i + fraction) / binsPerUnit;
+            }
+            seen += c;
+        }
+        return max;
+    }
+}
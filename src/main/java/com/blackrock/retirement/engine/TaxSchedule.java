@@ -0,0 +1,115 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Income tax slabs compiled into a piecewise-linear cumulative-tax table.
+ *
+ * For each slab start the table holds the tax owed on income up to that start and the marginal
+ * rate above it, so the tax on any income is one binary search over the starts plus one
+ * multiply-add, whatever the number of slabs. Income up to the first slab start is untaxed.
+ */
+public final class TaxSchedule {
+
+    private final double[] starts;
+    private final double[] baseTax;
+    private final double[] rates;
+
+    private TaxSchedule(double[] starts, double[] baseTax, double[] rates) {
+        this.starts = starts;
+        this.baseTax = baseTax;
+        this.rates = rates;
+    }
+
+    /**
+     * Compiles slabs given as ascending start incomes and the marginal rate (0..1) above each.
+     */
+    public static TaxSchedule compile(double[] slabStarts, double[] slabRates) {
+        if (slabStarts.length != slabRates.length) {
+            throw new IllegalArgumentException("Every tax slab needs a start and a rate");
+        }
+        int n = slabStarts.length;
+        double[] starts = new double[n + 1];
+        double[] baseTax = new double[n + 1];
+        double[] rates = new double[n + 1];
+
+        // step 1: an untaxed slab from zero up to the first configured start
+        for (int i = 0; i < n; i++) {
+            double start = slabStarts[i];
+            double rate = slabRates[i];
+            if (!(start > starts[i]) || !(rate >= 0 && rate <= 1)) {
+                throw new IllegalArgumentException(
+                        "Tax slabs need ascending positive starts and rates between 0 and 1");
+            }
+            starts[i + 1] = start;
+            rates[i + 1] = rate;
+
+            // step 2: tax owed at this start is the previous slab filled to the top
+            baseTax[i + 1] = baseTax[i] + (start - starts[i]) * rates[i];
+        }
+        return new TaxSchedule(starts, baseTax, rates);
+    }
+
+    /**
+     * Tax owed on the given annual income; zero for income at or below zero.
+     */
+    public double tax(double income) {
+        if (income <= 0) {
+            return 0;
+        }
+        int slab = slabOf(income);
+        return baseTax[slab] + (income - starts[slab]) * rates[slab];
+    }
+
+    /**
+     * Tax saved by deductions of up to cap from one annual income. The tax on the full income,
+     * and the saving for a deduction at the cap, are computed once here and reused for every
+     * deduction, so only deductions below the cap cost a lookup.
+     */
+    public DeductionSavings deductionSavings(double income, double cap) {
+        return new DeductionSavings(this, income, cap);
+    }
+
+    // index of the slab holding income: the last start strictly below it
+    private int slabOf(double income) {
+        int lo = 0;
+        int hi = starts.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] < income) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1;
+    }
+
+    /**
+     * Tax deltas for one income, as returned by {@link #deductionSavings}.
+     */
+    public static final class DeductionSavings {
+
+        private final TaxSchedule schedule;
+        private final double income;
+        private final double cap;
+        private final double fullTax;
+        private final double cappedSaving;
+
+        private DeductionSavings(TaxSchedule schedule, double income, double cap) {
+            this.schedule = schedule;
+            this.income = income;
+            this.cap = cap;
+            this.fullTax = schedule.tax(income);
+            this.cappedSaving = fullTax - schedule.tax(income - cap);
+        }
+
+        /**
+         * Tax saved by deducting min(amount, cap) from the income.
+         */
+        public double saving(double amount) {
+            if (amount >= cap) {
+                return cappedSaving;
+            }
+            return fullTax - schedule.tax(income - amount);
+        }
+    }
+}
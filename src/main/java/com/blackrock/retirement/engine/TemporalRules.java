@@ -0,0 +1,63 @@
+package com.blackrock.retirement.engine;
+
+import com.blackrock.retirement.model.KPeriod;
+import com.blackrock.retirement.model.PPeriod;
+import com.blackrock.retirement.model.QPeriod;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A compiled set of q, p and k period rules.
+ * Compiling is the expensive part of applying temporal rules, so a TemporalRules instance is
+ * built once and can be shared across requests (it is immutable and thread-safe).
+ */
+public final class TemporalRules {
+
+    private final QPeriodIndex qIndex;
+    private final PPeriodIndex pIndex;
+    private final KPeriodIndex kIndex;
+    private final List<KPeriod> kPeriods;
+
+    private TemporalRules(QPeriodIndex qIndex, PPeriodIndex pIndex, KPeriodIndex kIndex, List<KPeriod> kPeriods) {
+        this.qIndex = qIndex;
+        this.pIndex = pIndex;
+        this.kIndex = kIndex;
+        this.kPeriods = kPeriods;
+    }
+
+    /**
+     * Compiles the given periods. Null lists are treated as empty.
+     */
+    public static TemporalRules compile(List<QPeriod> qPeriods, List<PPeriod> pPeriods, List<KPeriod> kPeriods) {
+        List<KPeriod> ks = (kPeriods == null)
+                ? Collections.emptyList()
+                : List.copyOf(kPeriods);
+
+        return new TemporalRules(
+                QPeriodIndex.compile(qPeriods),
+                PPeriodIndex.compile(pPeriods),
+                KPeriodIndex.compile(ks),
+                ks);
+    }
+
+    public QPeriodIndex getQIndex() {
+        return qIndex;
+    }
+
+    public PPeriodIndex getPIndex() {
+        return pIndex;
+    }
+
+    public KPeriodIndex getKIndex() {
+        return kIndex;
+    }
+
+    /**
+     * The k-periods in their original order, used to label per-period results.
+     */
+    public List<KPeriod> getKPeriods() {
+        return kPeriods;
+    }
+
+}
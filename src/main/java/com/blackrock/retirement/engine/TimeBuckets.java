@@ -0,0 +1,150 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Transaction count, spend and savings per time bucket (a day, week or month index), held in
+ * primitive arrays indexed directly by bucket offset from the first bucket seen.
+ *
+ * The arrays grow to cover the span between the earliest and latest bucket, up to maxBuckets.
+ * A span wider than that stops the series (it reports {@link #isOverflowed}) instead of letting
+ * one outlying date allocate arbitrary memory. Merging adds counts bucket by bucket over the
+ * union of the spans, so it is exact and associative, and overflows exactly when a single
+ * series over all the values would have.
+ */
+public final class TimeBuckets {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int maxBuckets;
+    private long first;
+    private int span;
+    private long[] counts;
+    private long[] spent;
+    private long[] savings;
+    private boolean overflowed;
+
+    public TimeBuckets(int maxBuckets) {
+        if (maxBuckets < 1) {
+            throw new IllegalArgumentException("Time buckets need room for at least one bucket");
+        }
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Adds one transaction to the bucket.
+     */
+    public void add(long bucket, long amountPaise, long savingsPaise) {
+        if (!cover(bucket, bucket)) {
+            return;
+        }
+        int offset = (int) (bucket - first);
+        counts[offset]++;
+        spent[offset] += amountPaise;
+        savings[offset] += savingsPaise;
+    }
+
+    /**
+     * Adds the other series bucket by bucket. Both must share maxBuckets.
+     */
+    public void merge(TimeBuckets other) {
+        if (other.maxBuckets != maxBuckets) {
+            throw new IllegalArgumentException("Time buckets must share maxBuckets to merge");
+        }
+        if (other.overflowed) {
+            overflow();
+            return;
+        }
+        if (other.span == 0 || !cover(other.first, other.first + other.span - 1)) {
+            return;
+        }
+        int shift = (int) (other.first - first);
+        for (int i = 0; i < other.span; i++) {
+            counts[shift + i] += other.counts[i];
+            spent[shift + i] += other.spent[i];
+            savings[shift + i] += other.savings[i];
+        }
+    }
+
+    public boolean isOverflowed() {
+        return overflowed;
+    }
+
+    /**
+     * Index of the first bucket of the series.
+     */
+    public long firstBucket() {
+        return first;
+    }
+
+    /**
+     * Number of buckets from the first to the last one seen; 0 when empty or overflowed.
+     */
+    public int span() {
+        return span;
+    }
+
+    public long count(int offset) {
+        return counts[offset];
+    }
+
+    public long spentPaise(int offset) {
+        return spent[offset];
+    }
+
+    public long savingsPaise(int offset) {
+        return savings[offset];
+    }
+
+    // widens the series to include [from, to]; false once it no longer fits
+    private boolean cover(long from, long to) {
+        if (overflowed) {
+            return false;
+        }
+        if (span == 0) {
+            if (to - from >= maxBuckets) {
+                overflow();
+                return false;
+            }
+            first = from;
+            span = (int) (to - from + 1);
+            int capacity = Math.min(maxBuckets, Math.max(INITIAL_CAPACITY, span));
+            counts = new long[capacity];
+            spent = new long[capacity];
+            savings = new long[capacity];
+            return true;
+        }
+
+        long newFirst = Math.min(first, from);
+        long newLast = Math.max(first + span - 1, to);
+        if (newLast - newFirst >= maxBuckets) {
+            overflow();
+            return false;
+        }
+        int newSpan = (int) (newLast - newFirst + 1);
+        int shift = (int) (first - newFirst);
+        if (newSpan > counts.length || shift > 0) {
+            int capacity = (newSpan > counts.length)
+                    ? Math.min(maxBuckets, Math.max(newSpan, 2 * counts.length))
+                    : counts.length;
+            counts = moved(counts, capacity, shift, span);
+            spent = moved(spent, capacity, shift, span);
+            savings = moved(savings, capacity, shift, span);
+        }
+        first = newFirst;
+        span = newSpan;
+        return true;
+    }
+
+    private void overflow() {
+        overflowed = true;
+        span = 0;
+        counts = null;
+        spent = null;
+        savings = null;
+    }
+
+    private static long[] moved(long[] values, int capacity, int shift, int length) {
+        long[] copy = new long[capacity];
+        System.arraycopy(values, 0, copy, shift, length);
+        return copy;
+    }
+}
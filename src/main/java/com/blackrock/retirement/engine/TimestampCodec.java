@@ -0,0 +1,222 @@
+package com.blackrock.retirement.engine;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.temporal.ChronoField;
+
+/**
+ * Shared codec for "yyyy-MM-dd HH:mm[:ss]" timestamps, encoded as epoch seconds (UTC).
+ *
+ * Well-formed fixed-width input is decoded by hand straight into a primitive long without
+ * allocating. Anything else (wrong length, stray characters, out-of-range fields) is handed
+ * to the original DateTimeFormatter, so malformed input is rejected with exactly the same
+ * DateTimeParseException as before and lenient corner cases resolve the same way.
+ */
+public final class TimestampCodec {
+
+    private static final DateTimeFormatter FLEXIBLE_FORMATTER = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm")
+            .optionalStart()
+            .appendPattern(":ss")
+            .optionalEnd()
+            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+            .toFormatter();
+
+    private static final DateTimeFormatter OUTPUT_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    /** Returned by {@link #tryParse} when the input is not plain fixed-width. */
+    public static final long NOT_FIXED_WIDTH = Long.MIN_VALUE;
+
+    private static final int MINUTE_LENGTH = 16;  // yyyy-MM-dd HH:mm
+    private static final int SECOND_LENGTH = 19;  // yyyy-MM-dd HH:mm:ss
+
+    private static final long SECONDS_PER_DAY = 86400;
+    private static final long DAYS_0000_TO_1970 = 719468;
+
+    private TimestampCodec() {
+    }
+
+    /**
+     * Parses a timestamp string into epoch seconds.
+     * Throws the same DateTimeParseException as LocalDateTime.parse for malformed input.
+     */
+    public static long parse(String text) {
+        long epochSecond = tryParse(text);
+        if (epochSecond != NOT_FIXED_WIDTH) {
+            return epochSecond;
+        }
+        return LocalDateTime.parse(text, FLEXIBLE_FORMATTER).toEpochSecond(ZoneOffset.UTC);
+    }
+
+    /**
+     * Decodes plain fixed-width input without allocating.
+     * Returns {@link #NOT_FIXED_WIDTH} for null or anything the fast path does not cover.
+     */
+    public static long tryParse(String text) {
+        if (text == null) {
+            return NOT_FIXED_WIDTH;
+        }
+        int length = text.length();
+        if (length != MINUTE_LENGTH && length != SECOND_LENGTH) {
+            return NOT_FIXED_WIDTH;
+        }
+        if (text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != ' '
+                || text.charAt(13) != ':' || (length == SECOND_LENGTH && text.charAt(16) != ':')) {
+            return NOT_FIXED_WIDTH;
+        }
+
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        int second = (length == SECOND_LENGTH) ? digits(text, 17, 2) : 0;
+
+        if (year < 1 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NOT_FIXED_WIDTH;
+        }
+
+        return daysFromCivil(year, month, day) * SECONDS_PER_DAY + hour * 3600L + minute * 60L + second;
+    }
+
+    /**
+     * Formats epoch seconds as "yyyy-MM-dd HH:mm:ss".
+     */
+    public static String format(long epochSecond) {
+        long days = Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+        int secondOfDay = (int) Math.floorMod(epochSecond, SECONDS_PER_DAY);
+
+        long civil = civilFromDays(days);
+        int day = (int) (civil & 31);
+        int month = (int) ((civil >> 5) & 15);
+        long year = civil >> 9;
+
+        if (year < 1 || year > 9999) {
+            return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).format(OUTPUT_FORMATTER);
+        }
+
+        char[] out = new char[SECOND_LENGTH];
+        writeDigits(out, 0, (int) year, 4);
+        out[4] = '-';
+        writeDigits(out, 5, month, 2);
+        out[7] = '-';
+        writeDigits(out, 8, day, 2);
+        out[10] = ' ';
+        writeDigits(out, 11, secondOfDay / 3600, 2);
+        out[13] = ':';
+        writeDigits(out, 14, (secondOfDay / 60) % 60, 2);
+        out[16] = ':';
+        writeDigits(out, 17, secondOfDay % 60, 2);
+        return new String(out);
+    }
+
+    /**
+     * Days since 1970-01-01 of the timestamp, negative before it.
+     */
+    public static long epochDay(long epochSecond) {
+        return Math.floorDiv(epochSecond, SECONDS_PER_DAY);
+    }
+
+    /**
+     * Months since January 1970 of the timestamp, negative before it.
+     */
+    public static long epochMonth(long epochSecond) {
+        long civil = civilFromDays(epochDay(epochSecond));
+        return ((civil >> 9) - 1970) * 12 + ((civil >> 5) & 15) - 1;
+    }
+
+    /**
+     * Day of the week of the timestamp, 0 for Monday to 6 for Sunday.
+     */
+    public static int dayOfWeek(long epochSecond) {
+        // 1970-01-01 was a Thursday
+        return Math.floorMod(epochDay(epochSecond) + 3, 7);
+    }
+
+    /**
+     * Hour of the day of the timestamp, 0 to 23.
+     */
+    public static int hourOfDay(long epochSecond) {
+        return (int) (Math.floorMod(epochSecond, SECONDS_PER_DAY) / 3600);
+    }
+
+    /**
+     * Drops the seconds, keeping the start of the minute.
+     */
+    public static long truncateToMinute(long epochSecond) {
+        return epochSecond - Math.floorMod(epochSecond, 60);
+    }
+
+    /**
+     * Reads count ASCII digits, returning -1 if any character is not a digit.
+     */
+    private static int digits(String text, int offset, int count) {
+        int value = 0;
+        for (int i = offset; i < offset + count; i++) {
+            int d = text.charAt(i) - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static void writeDigits(char[] out, int offset, int value, int count) {
+        for (int i = offset + count - 1; i >= offset; i--) {
+            out[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    /**
+     * Proleptic Gregorian date of days since 1970-01-01, the inverse of daysFromCivil, packed
+     * as year &lt;&lt; 9 | month &lt;&lt; 5 | day.
+     */
+    private static long civilFromDays(long days) {
+        long z = days + DAYS_0000_TO_1970;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return (year << 9) | (month << 5) | day;
+    }
+
+    /**
+     * Days since 1970-01-01 for a proleptic Gregorian date (Howard Hinnant's algorithm).
+     */
+    private static long daysFromCivil(int year, int month, int day) {
+        long y = (month <= 2) ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yearOfEra = y - era * 400;
+        long dayOfYear = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146097 + dayOfEra - DAYS_0000_TO_1970;
+    }
+}
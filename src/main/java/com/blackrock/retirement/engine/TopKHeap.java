@@ -0,0 +1,179 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * Keeps the k best-scoring entries seen so far in a primitive min-heap, in O(log k) per offer.
+ * Reading them out best first is a heap sort of a copy, O(k log k), and merging walks the heap
+ * positions directly (see {@link #scoreAt}), so neither goes quadratic in k.
+ *
+ * The heap only holds scores, tie-break keys and slot numbers; callers keep each entry's
+ * payload in their own arrays of k slots and write it to the slot {@link #offer} hands back,
+ * which is either a fresh slot or the one freed by evicting the worst entry. Entries are
+ * ordered by score, higher first, and then by tie-break key, lower first, so the kept set is
+ * the same however the offers are split up and merged.
+ */
+public final class TopKHeap {
+
+    private final double[] scores;
+    private final long[] keys;
+    private final int[] slots;
+    // heap position of each slot, kept up to date by swap so scoreOf and keyOf are O(1)
+    private final int[] positions;
+    private int size;
+
+    public TopKHeap(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("Heap capacity must not be negative");
+        }
+        this.scores = new double[capacity];
+        this.keys = new long[capacity];
+        this.slots = new int[capacity];
+        this.positions = new int[capacity];
+    }
+
+    /**
+     * Offers an entry; returns the payload slot to fill, or -1 when it does not make the top k.
+     */
+    public int offer(double score, long key) {
+        if (size < scores.length) {
+            int position = size++;
+            slots[position] = position;
+            positions[position] = position;
+            scores[position] = score;
+            keys[position] = key;
+            siftUp(position);
+            return position;
+        }
+        if (size == 0 || !better(score, key, scores[0], keys[0])) {
+            return -1;
+        }
+        int slot = slots[0];
+        scores[0] = score;
+        keys[0] = key;
+        siftDown(0);
+        return slot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return scores.length;
+    }
+
+    /**
+     * Slots of the kept entries, best first.
+     */
+    public int[] sortedSlots() {
+        // heap sort of a copy: pop the worst entry into the back of the result until empty
+        double[] heapScores = scores.clone();
+        long[] heapKeys = keys.clone();
+        int[] heapSlots = slots.clone();
+        int[] order = new int[size];
+        for (int n = size; n > 0; n--) {
+            order[n - 1] = heapSlots[0];
+            heapScores[0] = heapScores[n - 1];
+            heapKeys[0] = heapKeys[n - 1];
+            heapSlots[0] = heapSlots[n - 1];
+            siftDown(heapScores, heapKeys, heapSlots, null, n - 1, 0);
+        }
+        return order;
+    }
+
+    /**
+     * Score of the entry in the payload slot.
+     */
+    public double scoreOf(int slot) {
+        return scores[positionOf(slot)];
+    }
+
+    /**
+     * Tie-break key of the entry in the payload slot.
+     */
+    public long keyOf(int slot) {
+        return keys[positionOf(slot)];
+    }
+
+    /**
+     * Score at heap position 0..size-1, in no particular order; for walking every entry.
+     */
+    public double scoreAt(int position) {
+        return scores[position];
+    }
+
+    /**
+     * Tie-break key at heap position 0..size-1.
+     */
+    public long keyAt(int position) {
+        return keys[position];
+    }
+
+    /**
+     * Payload slot at heap position 0..size-1.
+     */
+    public int slotAt(int position) {
+        return slots[position];
+    }
+
+    private static boolean better(double score, long key, double otherScore, long otherKey) {
+        return score > otherScore || (score == otherScore && key < otherKey);
+    }
+
+    private int positionOf(int slot) {
+        if (slot < 0 || slot >= size) {
+            throw new IllegalArgumentException("No entry in slot " + slot);
+        }
+        return positions[slot];
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (!better(scores[parent], keys[parent], scores[i], keys[i])) {
+                return;
+            }
+            swap(scores, keys, slots, positions, i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        siftDown(scores, keys, slots, positions, size, i);
+    }
+
+    // sifts towards the leaves of the heap of the first n entries; positions may be null
+    private static void siftDown(double[] scores, long[] keys, int[] slots, int[] positions, int n, int i) {
+        while (true) {
+            int worst = i;
+            int left = 2 * i + 1;
+            int right = left + 1;
+            if (left < n && better(scores[worst], keys[worst], scores[left], keys[left])) {
+                worst = left;
+            }
+            if (right < n && better(scores[worst], keys[worst], scores[right], keys[right])) {
+                worst = right;
+            }
+            if (worst == i) {
+                return;
+            }
+            swap(scores, keys, slots, positions, i, worst);
+            i = worst;
+        }
+    }
+
+    private static void swap(double[] scores, long[] keys, int[] slots, int[] positions, int a, int b) {
+        double score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+        long key = keys[a];
+        keys[a] = keys[b];
+        keys[b] = key;
+        int slot = slots[a];
+        slots[a] = slots[b];
+        slots[b] = slot;
+        if (positions != null) {
+            positions[slots[a]] = a;
+            positions[slots[b]] = b;
+        }
+    }
+}
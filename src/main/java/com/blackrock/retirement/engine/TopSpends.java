@@ -0,0 +1,65 @@
+package com.blackrock.retirement.engine;
+
+/**
+ * The k highest-scoring spends seen so far, such as the largest amounts or the largest
+ * remanents, with their dates, amounts and remanents in primitive arrays indexed by
+ * {@link TopKHeap} slot. Ties go to the earlier timestamp, so merges in any grouping keep the
+ * same spends.
+ */
+public final class TopSpends {
+
+    private final TopKHeap heap;
+    private final String[] dates;
+    private final long[] amounts;
+    private final long[] remanents;
+
+    public TopSpends(int k) {
+        this.heap = new TopKHeap(k);
+        this.dates = new String[k];
+        this.amounts = new long[k];
+        this.remanents = new long[k];
+    }
+
+    /**
+     * Offers a spend ranked by score (in paise); the timestamp breaks ties.
+     */
+    public void offer(long score, long timestamp, String date, long amountPaise, long remanentPaise) {
+        int slot = heap.offer(score, timestamp);
+        if (slot >= 0) {
+            dates[slot] = date;
+            amounts[slot] = amountPaise;
+            remanents[slot] = remanentPaise;
+        }
+    }
+
+    /**
+     * Offers every spend of the other list into this one.
+     */
+    public void merge(TopSpends other) {
+        TopKHeap from = other.heap;
+        for (int position = 0; position < from.size(); position++) {
+            int slot = from.slotAt(position);
+            offer((long) from.scoreAt(position), from.keyAt(position),
+                    other.dates[slot], other.amounts[slot], other.remanents[slot]);
+        }
+    }
+
+    /**
+     * Slots of the kept spends, highest score first.
+     */
+    public int[] sortedSlots() {
+        return heap.sortedSlots();
+    }
+
+    public String date(int slot) {
+        return dates[slot];
+    }
+
+    public long amountPaise(int slot) {
+        return amounts[slot];
+    }
+
+    public long remanentPaise(int slot) {
+        return remanents[slot];
+    }
+}
@@ -0,0 +1,229 @@
+package com.blackrock.retirement.engine;
+
+import com.blackrock.retirement.model.Transaction;
+
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Columnar (struct-of-arrays) representation of a list of transactions.
+ *
+ * The engine works on primitive columns instead of one boxed Transaction object per row:
+ * timestamps are epoch seconds, amounts/ceilings/remanents are whole {@link Paise}, and row
+ * validity is a bitset. Transaction POJOs are only read when the batch is built and created
+ * again when results are written back out as JSON; that is the only place rupee doubles are
+ * converted, and input amounts are rounded to the paisa there.
+ *
+ * Absent (null) numeric fields are stored as {@link #NO_VALUE}; check hasAmount, hasCeiling
+ * or hasRemanent before comparing a column value.
+ */
+public final class TransactionBatch {
+
+    /** Returned by {@link #dateKey} for null or non fixed-width dates. */
+    public static final long NO_DATE_KEY = TimestampCodec.NOT_FIXED_WIDTH;
+
+    /** Column value of an absent (null) amount, ceiling or remanent. */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int SECOND_LENGTH = 19;
+
+    private final int size;
+    private final String[] dates;
+    private final long[] timestamps;
+    private final long[] amounts;
+    private final long[] ceilings;
+    private final long[] remanents;
+    private final BitSet valid;
+    private final String[] messages;
+    private final BitSet fixedWidth;
+    private boolean sortedByTimestamp = true;
+
+    private TransactionBatch(int size) {
+        this.size = size;
+        this.dates = new String[size];
+        this.timestamps = new long[size];
+        this.amounts = new long[size];
+        this.ceilings = new long[size];
+        this.remanents = new long[size];
+        this.valid = new BitSet(size);
+        this.valid.set(0, size);
+        this.messages = new String[size];
+        this.fixedWidth = new BitSet(size);
+    }
+
+    /**
+     * Copies the transactions into columns. Every row starts out valid, except one with an
+     * amount, ceiling or remanent too large to hold in paise.
+     * Dates are decoded with the allocation-free fast path only; rows whose date needs the
+     * slow path (or is malformed) are parsed lazily by {@link #timestamp(int)}.
+     */
+    public static TransactionBatch of(List<Transaction> transactions) {
+        int n = (transactions == null) ? 0 : transactions.size();
+        TransactionBatch batch = new TransactionBatch(n);
+        long previous = Long.MIN_VALUE;
+
+        for (int i = 0; i < n; i++) {
+            Transaction txn = transactions.get(i);
+            long ts = TimestampCodec.tryParse(txn.getDate());
+            batch.dates[i] = txn.getDate();
+            batch.timestamps[i] = ts;
+            if (ts != TimestampCodec.NOT_FIXED_WIDTH) {
+                batch.fixedWidth.set(i);
+                if (ts < previous) {
+                    batch.sortedByTimestamp = false;
+                }
+                previous = ts;
+            }
+            batch.amounts[i] = batch.toColumn(i, txn.getAmount(), "Amount");
+            batch.ceilings[i] = batch.toColumn(i, txn.getCeiling(), "Ceiling");
+            batch.remanents[i] = batch.toColumn(i, txn.getRemanent(), "Remanent");
+        }
+        return batch;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String date(int row) {
+        return dates[row];
+    }
+
+    /**
+     * Epoch-second timestamp of the row, parsing the original string when the fast path
+     * could not. Malformed dates throw the same exception as TimestampCodec.parse.
+     */
+    public long timestamp(int row) {
+        long ts = timestamps[row];
+        if (ts == TimestampCodec.NOT_FIXED_WIDTH) {
+            ts = TimestampCodec.parse(dates[row]);
+            timestamps[row] = ts;
+        }
+        return ts;
+    }
+
+    /**
+     * Key identifying the row's date string for duplicate detection: the fixed-width timestamp
+     * shifted left, with the low bit telling the "HH:mm" and "HH:mm:ss" forms apart, so two
+     * rows share a key exactly when their date strings are equal. Returns {@link #NO_DATE_KEY}
+     * for null dates and dates that are not plain fixed width.
+     */
+    public long dateKey(int row) {
+        if (!fixedWidth.get(row)) {
+            return NO_DATE_KEY;
+        }
+        return (timestamps[row] << 1) | (dates[row].length() == SECOND_LENGTH ? 1 : 0);
+    }
+
+    /**
+     * True when the fixed-width dates appear in non-decreasing timestamp order.
+     */
+    public boolean isSortedByTimestamp() {
+        return sortedByTimestamp;
+    }
+
+    public boolean hasAmount(int row) {
+        return amounts[row] != NO_VALUE;
+    }
+
+    /**
+     * Amount in paise, or {@link #NO_VALUE} when absent.
+     */
+    public long amountPaise(int row) {
+        return amounts[row];
+    }
+
+    public long amountPaiseOrZero(int row) {
+        return hasAmount(row) ? amounts[row] : 0;
+    }
+
+    public Double amountOrNull(int row) {
+        return fromColumn(amounts[row]);
+    }
+
+    public boolean hasCeiling(int row) {
+        return ceilings[row] != NO_VALUE;
+    }
+
+    public long ceilingPaise(int row) {
+        return ceilings[row];
+    }
+
+    public Double ceilingOrNull(int row) {
+        return fromColumn(ceilings[row]);
+    }
+
+    public void setCeilingPaise(int row, long ceiling) {
+        ceilings[row] = ceiling;
+    }
+
+    public boolean hasRemanent(int row) {
+        return remanents[row] != NO_VALUE;
+    }
+
+    public long remanentPaise(int row) {
+        return remanents[row];
+    }
+
+    public Double remanentOrNull(int row) {
+        return fromColumn(remanents[row]);
+    }
+
+    public void setRemanentPaise(int row, long remanent) {
+        remanents[row] = remanent;
+    }
+
+    public boolean isValid(int row) {
+        return valid.get(row);
+    }
+
+    /**
+     * Marks the row invalid with a reason (may be null when no message is reported).
+     */
+    public void reject(int row, String message) {
+        valid.clear(row);
+        messages[row] = message;
+    }
+
+    public String message(int row) {
+        return messages[row];
+    }
+
+    public int validCount() {
+        return valid.cardinality();
+    }
+
+    /**
+     * Index of the next valid row at or after fromRow, or -1 if there is none.
+     */
+    public int nextValid(int fromRow) {
+        int row = valid.nextSetBit(fromRow);
+        return (row < size) ? row : -1;
+    }
+
+    /**
+     * Index of the next invalid row at or after fromRow, or -1 if there is none.
+     */
+    public int nextInvalid(int fromRow) {
+        int row = valid.nextClearBit(fromRow);
+        return (row < size) ? row : -1;
+    }
+
+    // a value beyond Paise.MAX_PAISE rejects the row and is stored clamped to that limit,
+    // so it can neither pass for NO_VALUE nor overflow later arithmetic
+    private long toColumn(int row, Double value, String field) {
+        if (value == null || value.isNaN()) {
+            return NO_VALUE;
+        }
+        try {
+            return Paise.of(value);
+        } catch (ArithmeticException e) {
+            reject(row, field + " is out of range");
+            return (value < 0) ? -Paise.MAX_PAISE : Paise.MAX_PAISE;
+        }
+    }
+
+    private static Double fromColumn(long value) {
+        return (value == NO_VALUE) ? null : Paise.toRupees(value);
+    }
+}
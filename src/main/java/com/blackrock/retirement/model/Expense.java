@@ -6,7 +6,7 @@ package com.blackrock.retirement.model;
 public class Expense {
 
     private String timestamp;
-    private double amount;
+    private Double amount;
 
     public Expense() {
     }
@@ -24,11 +24,14 @@ public class Expense {
         this.timestamp = timestamp;
     }
 
-    public double getAmount() {
+    /**
+     * The amount in rupees, or null when the request left it out.
+     */
+    public Double getAmount() {
         return amount;
     }
 
-    public void setAmount(double amount) {
+    public void setAmount(Double amount) {
         this.amount = amount;
     }
 }
@@ -0,0 +1,65 @@
+package com.blackrock.retirement.model;
+
+/**
+ * An investment instrument that period savings can be projected onto.
+ * Bound from retirement.instruments.&lt;name&gt;.annual-rate / .volatility / .tax-benefit.
+ */
+public class Instrument {
+
+    private String name;
+    private double annualRate;
+    private double volatility;
+    private boolean taxBenefit;
+
+    public Instrument() {
+    }
+
+    public Instrument(String name, double annualRate, boolean taxBenefit) {
+        this(name, annualRate, 0, taxBenefit);
+    }
+
+    public Instrument(String name, double annualRate, double volatility, boolean taxBenefit) {
+        this.name = name;
+        this.annualRate = annualRate;
+        this.volatility = volatility;
+        this.taxBenefit = taxBenefit;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getAnnualRate() {
+        return annualRate;
+    }
+
+    public void setAnnualRate(double annualRate) {
+        this.annualRate = annualRate;
+    }
+
+    /**
+     * Standard deviation of the yearly return, used by the Monte Carlo projection (0 = deterministic).
+     */
+    public double getVolatility() {
+        return volatility;
+    }
+
+    public void setVolatility(double volatility) {
+        this.volatility = volatility;
+    }
+
+    /**
+     * Whether contributions qualify for the Section 80CCD tax deduction (NPS).
+     */
+    public boolean isTaxBenefit() {
+        return taxBenefit;
+    }
+
+    public void setTaxBenefit(boolean taxBenefit) {
+        this.taxBenefit = taxBenefit;
+    }
+}
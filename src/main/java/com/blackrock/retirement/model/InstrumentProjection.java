@@ -0,0 +1,67 @@
+package com.blackrock.retirement.model;
+
+import java.util.List;
+
+/**
+ * Projected savings for one configured instrument in a comparison.
+ */
+public class InstrumentProjection {
+
+    private String name;
+    private double annualRate;
+    private List<SavingsByDate> savings;
+    private double totalProfit;
+    private double totalTaxBenefit;
+    private double effectiveGain;
+
+    public InstrumentProjection() {
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public double getAnnualRate() {
+        return annualRate;
+    }
+
+    public void setAnnualRate(double annualRate) {
+        this.annualRate = annualRate;
+    }
+
+    public List<SavingsByDate> getSavings() {
+        return savings;
+    }
+
+    public void setSavings(List<SavingsByDate> savings) {
+        this.savings = savings;
+    }
+
+    public double getTotalProfit() {
+        return totalProfit;
+    }
+
+    public void setTotalProfit(double totalProfit) {
+        this.totalProfit = totalProfit;
+    }
+
+    public double getTotalTaxBenefit() {
+        return totalTaxBenefit;
+    }
+
+    public void setTotalTaxBenefit(double totalTaxBenefit) {
+        this.totalTaxBenefit = totalTaxBenefit;
+    }
+
+    public double getEffectiveGain() {
+        return effectiveGain;
+    }
+
+    public void setEffectiveGain(double effectiveGain) {
+        this.effectiveGain = effectiveGain;
+    }
+}
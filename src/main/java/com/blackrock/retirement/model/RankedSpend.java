@@ -0,0 +1,45 @@
+package com.blackrock.retirement.model;
+
+/**
+ * One transaction in a top-k list of the transaction summary, with its amount and the
+ * remanent it leaves after rounding up to the next 100.
+ */
+public class RankedSpend {
+
+    private String date;
+    private double amount;
+    private double remanent;
+
+    public RankedSpend() {
+    }
+
+    public RankedSpend(String date, double amount, double remanent) {
+        this.date = date;
+        this.amount = amount;
+        this.remanent = remanent;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public double getRemanent() {
+        return remanent;
+    }
+
+    public void setRemanent(double remanent) {
+        this.remanent = remanent;
+    }
+}
@@ -0,0 +1,75 @@
+package com.blackrock.retirement.model;
+
+/**
+ * Simulated savings outcome for a single k-period range: the amount saved and the
+ * 5th, 50th and 95th percentile of the inflation-adjusted profit.
+ */
+public class SavingsPercentiles {
+
+    private String start;
+    private String end;
+    private double amount;
+    private double taxBenefit;
+    private double profitP5;
+    private double profitP50;
+    private double profitP95;
+
+    public SavingsPercentiles() {
+    }
+
+    public String getStart() {
+        return start;
+    }
+
+    public void setStart(String start) {
+        this.start = start;
+    }
+
+    public String getEnd() {
+        return end;
+    }
+
+    public void setEnd(String end) {
+        this.end = end;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public double getTaxBenefit() {
+        return taxBenefit;
+    }
+
+    public void setTaxBenefit(double taxBenefit) {
+        this.taxBenefit = taxBenefit;
+    }
+
+    public double getProfitP5() {
+        return profitP5;
+    }
+
+    public void setProfitP5(double profitP5) {
+        this.profitP5 = profitP5;
+    }
+
+    public double getProfitP50() {
+        return profitP50;
+    }
+
+    public void setProfitP50(double profitP50) {
+        this.profitP50 = profitP50;
+    }
+
+    public double getProfitP95() {
+        return profitP95;
+    }
+
+    public void setProfitP95(double profitP95) {
+        this.profitP95 = profitP95;
+    }
+}
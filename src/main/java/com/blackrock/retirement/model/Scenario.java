@@ -0,0 +1,44 @@
+package com.blackrock.retirement.model;
+
+/**
+ * One what-if combination of investor profile values for the scenario-batch endpoint.
+ */
+public class Scenario {
+
+    private int age;
+    private double wage;
+    private double inflation;
+
+    public Scenario() {
+    }
+
+    public Scenario(int age, double wage, double inflation) {
+        this.age = age;
+        this.wage = wage;
+        this.inflation = inflation;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public double getWage() {
+        return wage;
+    }
+
+    public void setWage(double wage) {
+        this.wage = wage;
+    }
+
+    public double getInflation() {
+        return inflation;
+    }
+
+    public void setInflation(double inflation) {
+        this.inflation = inflation;
+    }
+}
@@ -0,0 +1,56 @@
+package com.blackrock.retirement.model;
+
+import java.util.List;
+
+/**
+ * The per-period savings breakdown for a single scenario.
+ */
+public class ScenarioResult {
+
+    private int age;
+    private double wage;
+    private double inflation;
+    private List<SavingsByDate> savingsByDates;
+
+    public ScenarioResult() {
+    }
+
+    public ScenarioResult(Scenario scenario, List<SavingsByDate> savingsByDates) {
+        this.age = scenario.getAge();
+        this.wage = scenario.getWage();
+        this.inflation = scenario.getInflation();
+        this.savingsByDates = savingsByDates;
+    }
+
+    public int getAge() {
+        return age;
+    }
+
+    public void setAge(int age) {
+        this.age = age;
+    }
+
+    public double getWage() {
+        return wage;
+    }
+
+    public void setWage(double wage) {
+        this.wage = wage;
+    }
+
+    public double getInflation() {
+        return inflation;
+    }
+
+    public void setInflation(double inflation) {
+        this.inflation = inflation;
+    }
+
+    public List<SavingsByDate> getSavingsByDates() {
+        return savingsByDates;
+    }
+
+    public void setSavingsByDates(List<SavingsByDate> savingsByDates) {
+        this.savingsByDates = savingsByDates;
+    }
+}
@@ -0,0 +1,55 @@
+package com.blackrock.retirement.model;
+
+/**
+ * Spending in one time bucket (a day, week or month) of the transaction summary.
+ * Start is the first day of the bucket, or the month for monthly buckets.
+ */
+public class SpendBucket {
+
+    private String start;
+    private long count;
+    private double spent;
+    private double savings;
+
+    public SpendBucket() {
+    }
+
+    public SpendBucket(String start, long count, double spent, double savings) {
+        this.start = start;
+        this.count = count;
+        this.spent = spent;
+        this.savings = savings;
+    }
+
+    public String getStart() {
+        return start;
+    }
+
+    public void setStart(String start) {
+        this.start = start;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public double getSpent() {
+        return spent;
+    }
+
+    public void setSpent(double spent) {
+        this.spent = spent;
+    }
+
+    public double getSavings() {
+        return savings;
+    }
+
+    public void setSavings(double savings) {
+        this.savings = savings;
+    }
+}
@@ -0,0 +1,66 @@
+package com.blackrock.retirement.model;
+
+/**
+ * A flagged spending anomaly in the transaction summary: a spike (one transaction far above
+ * the recent level) or an unusual day (a daily total far from the usual one).
+ * Score is the z-score that flagged it; expected is the level it was compared against.
+ */
+public class SpendingAnomaly {
+
+    private String type;
+    private String date;
+    private double amount;
+    private double expected;
+    private double score;
+
+    public SpendingAnomaly() {
+    }
+
+    public SpendingAnomaly(String type, String date, double amount, double expected, double score) {
+        this.type = type;
+        this.date = date;
+        this.amount = amount;
+        this.expected = expected;
+        this.score = score;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public String getDate() {
+        return date;
+    }
+
+    public void setDate(String date) {
+        this.date = date;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public double getExpected() {
+        return expected;
+    }
+
+    public void setExpected(double expected) {
+        this.expected = expected;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    public void setScore(double score) {
+        this.score = score;
+    }
+}
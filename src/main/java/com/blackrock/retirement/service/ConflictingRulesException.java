@@ -0,0 +1,16 @@
+package com.blackrock.retirement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request sends both a rule set ID and inline q/p/k periods, which would otherwise
+ * have the inline periods silently ignored.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class ConflictingRulesException extends RuntimeException {
+
+    public ConflictingRulesException(String ruleSetId) {
+        super("Send either ruleSetId or inline q/p/k periods, not both (ruleSetId: " + ruleSetId + ")");
+    }
+}
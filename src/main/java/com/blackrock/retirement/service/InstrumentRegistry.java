@@ -0,0 +1,104 @@
+package com.blackrock.retirement.service;
+
+import com.blackrock.retirement.model.Instrument;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The instruments returns can be projected onto.
+ *
+ * NPS and the NIFTY 50 index fund are always available; their rates can be overridden and
+ * further instruments added under retirement.instruments.&lt;name&gt;, for example:
+ *   retirement.instruments.gold.annual-rate=0.09
+ *   retirement.instruments.gold.volatility=0.15
+ *   retirement.instruments.gold.tax-benefit=false
+ */
+@Service
+public class InstrumentRegistry {
+
+    public static final String NPS = "nps";
+    public static final String INDEX = "index";
+
+    private static final double NPS_RATE = 0.0711;
+    private static final double INDEX_RATE = 0.1449;
+    private static final double INDEX_VOLATILITY = 0.18;
+
+    private static final String PREFIX = "retirement.instruments";
+
+    private final Map<String, Instrument> instruments = new LinkedHashMap<>();
+
+    /**
+     * Registry with only the built-in NPS and index instruments.
+     */
+    public InstrumentRegistry() {
+        this(Collections.emptyMap());
+    }
+
+    @Autowired
+    public InstrumentRegistry(Environment environment) {
+        this(bind(Binder.get(environment)));
+    }
+
+    /**
+     * Registry with the built-in instruments plus the given ones, which replace built-ins of the same name.
+     */
+    public InstrumentRegistry(Map<String, Instrument> configured) {
+        for (Instrument builtIn : builtIns()) {
+            instruments.put(builtIn.getName(), builtIn);
+        }
+
+        for (Map.Entry<String, Instrument> entry : configured.entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            Instrument instrument = entry.getValue();
+            instruments.put(name, new Instrument(name, instrument.getAnnualRate(), instrument.getVolatility(),
+                    instrument.isTaxBenefit()));
+        }
+    }
+
+    /**
+     * Looks up an instrument by name (case-insensitive).
+     */
+    public Instrument get(String name) {
+        Instrument instrument = (name != null) ? instruments.get(name.toLowerCase(Locale.ROOT)) : null;
+        if (instrument == null) {
+            throw new UnknownInstrumentException(name);
+        }
+        return instrument;
+    }
+
+    /**
+     * All instruments: NPS, index, then configured ones in configuration order.
+     */
+    public List<Instrument> all() {
+        return new ArrayList<>(instruments.values());
+    }
+
+    private static List<Instrument> builtIns() {
+        return List.of(new Instrument(NPS, NPS_RATE, true), new Instrument(INDEX, INDEX_RATE, INDEX_VOLATILITY, false));
+    }
+
+    private static Map<String, Instrument> bind(Binder binder) {
+        Map<String, Instrument> configured = new LinkedHashMap<>();
+
+        // built-ins are bound onto their defaults, so overriding only the rate keeps the tax flag
+        for (Instrument builtIn : builtIns()) {
+            configured.put(builtIn.getName(),
+                    binder.bind(PREFIX + "." + builtIn.getName(), Bindable.ofInstance(builtIn)).orElse(builtIn));
+        }
+        binder.bind(PREFIX, Bindable.mapOf(String.class, Instrument.class))
+                .orElse(Collections.emptyMap())
+                .forEach((name, instrument) -> configured.putIfAbsent(name.toLowerCase(Locale.ROOT), instrument));
+
+        return configured;
+    }
+}
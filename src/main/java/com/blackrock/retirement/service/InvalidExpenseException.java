@@ -0,0 +1,25 @@
+package com.blackrock.retirement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when an expense to parse has a missing or malformed timestamp or amount.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidExpenseException extends RuntimeException {
+
+    private final int index;
+
+    public InvalidExpenseException(int index, String message) {
+        super("Expense " + index + ": " + message);
+        this.index = index;
+    }
+
+    /**
+     * Position of the expense in the request, from 0.
+     */
+    public int getIndex() {
+        return index;
+    }
+}
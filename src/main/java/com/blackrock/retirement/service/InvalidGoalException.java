@@ -0,0 +1,15 @@
+package com.blackrock.retirement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a goal-seek request names an unknown solveFor or a k-period that does not exist.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidGoalException extends RuntimeException {
+
+    public InvalidGoalException(String message) {
+        super(message);
+    }
+}
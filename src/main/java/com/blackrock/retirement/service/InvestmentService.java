@@ -1,33 +1,71 @@
 package com.blackrock.retirement.service;
 
 import com.blackrock.retirement.dto.CompareResponse;
+import com.blackrock.retirement.dto.GoalSeekResponse;
+import com.blackrock.retirement.dto.MonteCarloResponse;
 import com.blackrock.retirement.dto.ReturnsResponse;
+import com.blackrock.retirement.dto.ScenarioResponse;
+import com.blackrock.retirement.engine.DuplicateDetector;
+import com.blackrock.retirement.engine.GoalSeek;
+import com.blackrock.retirement.engine.KPeriodIndex;
+import com.blackrock.retirement.engine.MonteCarloProjection;
+import com.blackrock.retirement.engine.Paise;
+import com.blackrock.retirement.engine.PPeriodIndex;
+import com.blackrock.retirement.engine.PrefixSumTimeline;
+import com.blackrock.retirement.engine.ProjectionTimeline;
+import com.blackrock.retirement.engine.QPeriodIndex;
+import com.blackrock.retirement.engine.TaxSchedule;
+import com.blackrock.retirement.engine.TemporalRules;
+import com.blackrock.retirement.engine.TransactionBatch;
 import com.blackrock.retirement.model.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.temporal.ChronoField;
+import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.DoubleUnaryOperator;
 
 @Service
 public class InvestmentService {
 
-    private static final double NPS_RATE = 0.0711;
-    private static final double INDEX_RATE = 0.1449;
     private static final int RETIREMENT_AGE = 60;
     private static final int MINIMUM_INVESTMENT_YEARS = 5;
 
-    private static final DateTimeFormatter FLEXIBLE_FORMATTER = new DateTimeFormatterBuilder()
-            .appendPattern("yyyy-MM-dd HH:mm")
-            .optionalStart()
-            .appendPattern(":ss")
-            .optionalEnd()
-            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
-            .toFormatter();
+    // Section 80CCD: NPS deduction is capped at 10% of annual income and 2,00,000
+    private static final double NPS_DEDUCTION_INCOME_SHARE = 0.10;
+    private static final double NPS_DEDUCTION_LIMIT = 200000;
+
+    // below this many k-periods a projection is too cheap to be worth handing to another thread
+    private static final int PARALLEL_PROJECTION_MIN_PERIODS = 64;
+
+    private static final int DEFAULT_SIMULATIONS = 100000;
+    private static final int MAX_SIMULATIONS = 1000000;
+    private static final long DEFAULT_SEED = 42L;
+
+    private static final String GOAL_EXTRA = "extra";
+    private static final String GOAL_FIXED = "fixed";
+
+    // goal seek stops once the bracket is a hundredth of a paisa wide
+    private static final double GOAL_TOLERANCE = 1e-4;
+
+    private final InstrumentRegistry instrumentRegistry;
+    private final TaxRegimeRegistry taxRegimeRegistry;
+
+    public InvestmentService() {
+        this(new InstrumentRegistry());
+    }
+
+    public InvestmentService(InstrumentRegistry instrumentRegistry) {
+        this(instrumentRegistry, new TaxRegimeRegistry());
+    }
+
+    @Autowired
+    public InvestmentService(InstrumentRegistry instrumentRegistry, TaxRegimeRegistry taxRegimeRegistry) {
+        this.instrumentRegistry = instrumentRegistry;
+        this.taxRegimeRegistry = taxRegimeRegistry;
+    }
 
     /**
      * Calculates returns for NPS (National Pension Scheme).
@@ -37,8 +75,24 @@ public class InvestmentService {
                                                 List<QPeriod> qPeriods, List<PPeriod> pPeriods,
                                                 List<KPeriod> kPeriods,
                                                 List<Transaction> transactions) {
-        return calculateReturns(age, monthlyWage, inflation, qPeriods, pPeriods,
-                kPeriods, transactions, NPS_RATE, true);
+        return calculateNpsReturns(age, monthlyWage, inflation,
+                TemporalRules.compile(qPeriods, pPeriods, kPeriods), transactions);
+    }
+
+    public ReturnsResponse calculateNpsReturns(int age, double monthlyWage, double inflation,
+                                                TemporalRules rules, List<Transaction> transactions) {
+        return calculateNpsReturns(age, monthlyWage, inflation, rules, transactions, null, false);
+    }
+
+    /**
+     * NPS returns under the named tax regime (null for the configured default). With timeWeighted
+     * each remanent compounds from its own date instead of every k-period over the same years.
+     */
+    public ReturnsResponse calculateNpsReturns(int age, double monthlyWage, double inflation,
+                                                TemporalRules rules, List<Transaction> transactions,
+                                                String taxRegime, boolean timeWeighted) {
+        return calculateReturns(age, monthlyWage, inflation, rules, transactions, timeWeighted,
+                instrumentRegistry.get(InstrumentRegistry.NPS), taxRegimeRegistry.get(taxRegime));
     }
 
     /**
@@ -49,8 +103,20 @@ public class InvestmentService {
                                                   List<QPeriod> qPeriods, List<PPeriod> pPeriods,
                                                   List<KPeriod> kPeriods,
                                                   List<Transaction> transactions) {
-        return calculateReturns(age, monthlyWage, inflation, qPeriods, pPeriods,
-                kPeriods, transactions, INDEX_RATE, false);
+        return calculateIndexReturns(age, monthlyWage, inflation,
+                TemporalRules.compile(qPeriods, pPeriods, kPeriods), transactions);
+    }
+
+    public ReturnsResponse calculateIndexReturns(int age, double monthlyWage, double inflation,
+                                                  TemporalRules rules, List<Transaction> transactions) {
+        return calculateIndexReturns(age, monthlyWage, inflation, rules, transactions, null, false);
+    }
+
+    public ReturnsResponse calculateIndexReturns(int age, double monthlyWage, double inflation,
+                                                  TemporalRules rules, List<Transaction> transactions,
+                                                  String taxRegime, boolean timeWeighted) {
+        return calculateReturns(age, monthlyWage, inflation, rules, transactions, timeWeighted,
+                instrumentRegistry.get(InstrumentRegistry.INDEX), taxRegimeRegistry.get(taxRegime));
     }
 
     /**
@@ -62,49 +128,69 @@ public class InvestmentService {
                                            List<QPeriod> qPeriods, List<PPeriod> pPeriods,
                                            List<KPeriod> kPeriods,
                                            List<Transaction> transactions) {
+        return compareReturns(age, monthlyWage, inflation,
+                TemporalRules.compile(qPeriods, pPeriods, kPeriods), transactions);
+    }
 
-        ReturnsResponse npsResult = calculateNpsReturns(age, monthlyWage, inflation,
-                qPeriods, pPeriods, kPeriods, transactions);
-        ReturnsResponse indexResult = calculateIndexReturns(age, monthlyWage, inflation,
-                qPeriods, pPeriods, kPeriods, transactions);
+    public CompareResponse compareReturns(int age, double monthlyWage, double inflation,
+                                           TemporalRules rules, List<Transaction> transactions) {
+        return compareReturns(age, monthlyWage, inflation, rules, transactions, null, false);
+    }
+
+    public CompareResponse compareReturns(int age, double monthlyWage, double inflation,
+                                           TemporalRules rules, List<Transaction> transactions,
+                                           String taxRegime, boolean timeWeighted) {
+        TaxSchedule taxSchedule = taxRegimeRegistry.get(taxRegime);
+
+        // one transaction pass shared by every instrument
+        PeriodSavings savings = aggregate(rules, transactions, timeWeighted);
+        List<Instrument> instruments = instrumentRegistry.all();
+        List<List<SavingsByDate>> projections = projectAll(savings, age, monthlyWage, inflation, instruments,
+                taxSchedule);
+
+        List<SavingsByDate> npsSavings = null;
+        List<SavingsByDate> indexSavings = null;
+        List<InstrumentProjection> otherInstruments = new ArrayList<>();
+        for (int i = 0; i < instruments.size(); i++) {
+            Instrument instrument = instruments.get(i);
+            if (InstrumentRegistry.NPS.equals(instrument.getName())) {
+                npsSavings = projections.get(i);
+            } else if (InstrumentRegistry.INDEX.equals(instrument.getName())) {
+                indexSavings = projections.get(i);
+            } else {
+                otherInstruments.add(toProjection(instrument, projections.get(i)));
+            }
+        }
 
         CompareResponse response = new CompareResponse();
-        response.setTotalTransactionAmount(npsResult.getTotalTransactionAmount());
-        response.setTotalCeiling(npsResult.getTotalCeiling());
+        response.setTotalTransactionAmount(Paise.toRupees(savings.getTotalAmountPaise()));
+        response.setTotalCeiling(Paise.toRupees(savings.getTotalCeilingPaise()));
 
         // calculate total investable (sum of remanent across k-periods)
-        double totalInvestable = 0;
-        if (npsResult.getSavingsByDates() != null) {
-            for (SavingsByDate s : npsResult.getSavingsByDates()) {
-                totalInvestable += (s.getAmount() != null) ? s.getAmount() : 0;
-            }
+        long totalInvestable = 0;
+        for (int i = 0; i < savings.getKPeriods().size(); i++) {
+            totalInvestable += savings.getPeriodPaise(i);
         }
-        response.setTotalInvestable(roundToTwo(totalInvestable));
+        response.setTotalInvestable(Paise.toRupees(totalInvestable));
 
         // NPS totals
-        response.setNpsSavings(npsResult.getSavingsByDates());
-        double npsTotalProfit = 0;
-        double npsTotalTaxBenefit = 0;
-        if (npsResult.getSavingsByDates() != null) {
-            for (SavingsByDate s : npsResult.getSavingsByDates()) {
-                npsTotalProfit += (s.getProfit() != null) ? s.getProfit() : 0;
-                npsTotalTaxBenefit += (s.getTaxBenefit() != null) ? s.getTaxBenefit() : 0;
-            }
-        }
-        response.setNpsTotalProfit(roundToTwo(npsTotalProfit));
-        response.setNpsTotalTaxBenefit(roundToTwo(npsTotalTaxBenefit));
-        response.setNpsEffectiveGain(roundToTwo(npsTotalProfit + npsTotalTaxBenefit));
+        response.setNpsSavings(npsSavings);
+        double npsTotalProfit = totalProfit(npsSavings);
+        double npsTotalTaxBenefit = totalTaxBenefit(npsSavings);
+        response.setNpsTotalProfit(Paise.round(npsTotalProfit));
+        response.setNpsTotalTaxBenefit(Paise.round(npsTotalTaxBenefit));
+        response.setNpsEffectiveGain(Paise.round(npsTotalProfit + npsTotalTaxBenefit));
 
         // Index totals
-        response.setIndexSavings(indexResult.getSavingsByDates());
-        double indexTotalProfit = 0;
-        if (indexResult.getSavingsByDates() != null) {
-            for (SavingsByDate s : indexResult.getSavingsByDates()) {
-                indexTotalProfit += (s.getProfit() != null) ? s.getProfit() : 0;
-            }
+        response.setIndexSavings(indexSavings);
+        double indexTotalProfit = totalProfit(indexSavings);
+        response.setIndexTotalProfit(Paise.round(indexTotalProfit));
+        response.setIndexEffectiveGain(Paise.round(indexTotalProfit));
+
+        // any further configured instruments
+        if (!otherInstruments.isEmpty()) {
+            response.setOtherInstruments(otherInstruments);
         }
-        response.setIndexTotalProfit(roundToTwo(indexTotalProfit));
-        response.setIndexEffectiveGain(roundToTwo(indexTotalProfit));
 
         // generate recommendation
         generateRecommendation(response, age, monthlyWage, npsTotalProfit, npsTotalTaxBenefit, indexTotalProfit);
@@ -112,6 +198,65 @@ public class InvestmentService {
         return response;
     }
 
+    /**
+     * Projects the same period sums onto several instruments. The projections are independent,
+     * so with enough k-periods they run concurrently on the common ForkJoinPool.
+     * Results are in the order of the instruments.
+     */
+    private List<List<SavingsByDate>> projectAll(PeriodSavings savings, int age, double monthlyWage,
+                                                 double inflation, List<Instrument> instruments,
+                                                 TaxSchedule taxSchedule) {
+        List<List<SavingsByDate>> projections = new ArrayList<>(instruments.size());
+
+        if (instruments.size() < 2 || savings.getKPeriods().size() < PARALLEL_PROJECTION_MIN_PERIODS) {
+            for (Instrument instrument : instruments) {
+                projections.add(project(savings, age, monthlyWage, inflation, instrument, taxSchedule));
+            }
+            return projections;
+        }
+
+        List<CompletableFuture<List<SavingsByDate>>> futures = new ArrayList<>(instruments.size());
+        for (Instrument instrument : instruments) {
+            futures.add(CompletableFuture.supplyAsync(
+                    () -> project(savings, age, monthlyWage, inflation, instrument, taxSchedule)));
+        }
+        for (CompletableFuture<List<SavingsByDate>> future : futures) {
+            projections.add(future.join());
+        }
+        return projections;
+    }
+
+    private InstrumentProjection toProjection(Instrument instrument, List<SavingsByDate> savings) {
+        double profit = totalProfit(savings);
+        double taxBenefit = totalTaxBenefit(savings);
+
+        InstrumentProjection projection = new InstrumentProjection();
+        projection.setName(instrument.getName());
+        projection.setAnnualRate(instrument.getAnnualRate());
+        projection.setSavings(savings);
+        projection.setTotalProfit(Paise.round(profit));
+        projection.setTotalTaxBenefit(Paise.round(taxBenefit));
+        projection.setEffectiveGain(Paise.round(profit + taxBenefit));
+        return projection;
+    }
+
+    // per-period values are already whole paise, so their totals are summed exactly
+    private double totalProfit(List<SavingsByDate> savings) {
+        long total = 0;
+        for (SavingsByDate s : savings) {
+            total += (s.getProfit() != null) ? Paise.of(s.getProfit()) : 0;
+        }
+        return Paise.toRupees(total);
+    }
+
+    private double totalTaxBenefit(List<SavingsByDate> savings) {
+        long total = 0;
+        for (SavingsByDate s : savings) {
+            total += (s.getTaxBenefit() != null) ? Paise.of(s.getTaxBenefit()) : 0;
+        }
+        return Paise.toRupees(total);
+    }
+
     /**
      * Generates a personalized recommendation based on the user's profile.
      * Considers age (risk tolerance), income (tax bracket), and return comparison.
@@ -171,11 +316,11 @@ public class InvestmentService {
         String recommendation;
         if (npsEffective > indexEffective) {
             recommendation = "NPS is more beneficial for your profile (effective gain: ₹"
-                    + roundToTwo(npsEffective) + " vs ₹" + roundToTwo(indexEffective)
+                    + Paise.round(npsEffective) + " vs ₹" + Paise.round(indexEffective)
                     + "). The tax benefit makes NPS the winner despite lower market returns.";
         } else {
             recommendation = "Index Fund generates higher returns for your profile (₹"
-                    + roundToTwo(indexEffective) + " vs ₹" + roundToTwo(npsEffective)
+                    + Paise.round(indexEffective) + " vs ₹" + Paise.round(npsEffective)
                     + "). However, consider NPS allocation for tax savings.";
         }
 
@@ -186,247 +331,561 @@ public class InvestmentService {
         response.setReasoning(reasoning);
     }
 
+    /**
+     * Evaluates many (age, wage, inflation) scenarios against one transaction history.
+     * Transactions are processed and summed per k-period once; each scenario then only
+     * projects the K period sums, so the cost is O(N + S * K) instead of O(S * N * K).
+     */
+    public ScenarioResponse evaluateScenarios(TemporalRules rules, List<Transaction> transactions,
+                                              String instrument, List<Scenario> scenarios) {
+        return evaluateScenarios(rules, transactions, instrument, null, false, scenarios);
+    }
+
+    public ScenarioResponse evaluateScenarios(TemporalRules rules, List<Transaction> transactions,
+                                              String instrument, String taxRegime, boolean timeWeighted,
+                                              List<Scenario> scenarios) {
+        Instrument target = instrumentRegistry.get(instrument);
+        TaxSchedule taxSchedule = taxRegimeRegistry.get(taxRegime);
+
+        PeriodSavings savings = aggregate(rules, transactions, timeWeighted);
+
+        List<ScenarioResult> results = new ArrayList<>();
+        if (scenarios != null) {
+            for (Scenario scenario : scenarios) {
+                List<SavingsByDate> savingsByDates = project(savings, scenario.getAge(), scenario.getWage(),
+                        scenario.getInflation(), target, taxSchedule);
+                results.add(new ScenarioResult(scenario, savingsByDates));
+            }
+        }
+
+        ScenarioResponse response = new ScenarioResponse();
+        response.setInstrument(target.getName());
+        response.setTotalTransactionAmount(Paise.toRupees(savings.getTotalAmountPaise()));
+        response.setTotalCeiling(Paise.toRupees(savings.getTotalCeilingPaise()));
+        response.setScenarios(results);
+        return response;
+    }
+
+    /**
+     * Monte Carlo variant of the returns calculation: instead of compounding at the fixed
+     * annual rate, simulates yearly returns with the instrument's volatility and reports the
+     * 5th/50th/95th percentile profit per k-period.
+     * Every k-period is held for the same number of years, so a period's real value is its
+     * amount times one shared growth factor; the paths are simulated once and the growth
+     * percentiles applied to every period. Simulations are capped at 1,000,000; the same seed
+     * always gives the same result.
+     */
+    public MonteCarloResponse simulateReturns(int age, double monthlyWage, double inflation,
+                                              TemporalRules rules, List<Transaction> transactions,
+                                              String instrument, Integer simulations, Long seed) {
+        return simulateReturns(age, monthlyWage, inflation, rules, transactions, instrument, null, simulations, seed);
+    }
+
+    public MonteCarloResponse simulateReturns(int age, double monthlyWage, double inflation,
+                                              TemporalRules rules, List<Transaction> transactions,
+                                              String instrument, String taxRegime,
+                                              Integer simulations, Long seed) {
+        Instrument target = instrumentRegistry.get(instrument);
+        TaxSchedule taxSchedule = taxRegimeRegistry.get(taxRegime);
+        int paths = (simulations == null) ? DEFAULT_SIMULATIONS : Math.max(1, Math.min(simulations, MAX_SIMULATIONS));
+        long pathSeed = (seed == null) ? DEFAULT_SEED : seed;
+
+        PeriodSavings savings = aggregate(rules, transactions, false);
+
+        int years = yearsToRetirement(age);
+        double[] growth = MonteCarloProjection.growthQuantiles(
+                target.getAnnualRate(), target.getVolatility(), years, paths, pathSeed, 0.05, 0.50, 0.95);
+        double inflationFactor = Math.pow(1 + inflation / 100.0, years);
+        TaxSchedule.DeductionSavings taxSavings = target.isTaxBenefit()
+                ? npsDeductionSavings(taxSchedule, monthlyWage * 12) : null;
+
+        List<SavingsPercentiles> savingsByDates = new ArrayList<>();
+        List<KPeriod> kPeriods = savings.getKPeriods();
+        for (int i = 0; i < kPeriods.size(); i++) {
+            double periodAmount = Paise.toRupees(savings.getPeriodPaise(i));
+
+            // profit is linear in the growth factor; a negative amount flips the percentile order
+            double low = periodAmount * (growth[0] / inflationFactor) - periodAmount;
+            double high = periodAmount * (growth[2] / inflationFactor) - periodAmount;
+
+            SavingsPercentiles saving = new SavingsPercentiles();
+            saving.setStart(kPeriods.get(i).getStart());
+            saving.setEnd(kPeriods.get(i).getEnd());
+            saving.setAmount(periodAmount);
+            saving.setTaxBenefit(taxSavings != null ? Paise.round(taxSavings.saving(periodAmount)) : 0);
+            saving.setProfitP5(Paise.round(Math.min(low, high)));
+            saving.setProfitP50(Paise.round(periodAmount * (growth[1] / inflationFactor) - periodAmount));
+            saving.setProfitP95(Paise.round(Math.max(low, high)));
+            savingsByDates.add(saving);
+        }
+
+        MonteCarloResponse response = new MonteCarloResponse();
+        response.setInstrument(target.getName());
+        response.setSimulations(paths);
+        response.setSeed(pathSeed);
+        response.setTotalTransactionAmount(Paise.toRupees(savings.getTotalAmountPaise()));
+        response.setTotalCeiling(Paise.toRupees(savings.getTotalCeilingPaise()));
+        response.setSavingsByDates(savingsByDates);
+        return response;
+    }
+
+    /**
+     * Goal seek: the per-transaction p-period extra ("extra"), or q-period fixed amount ("fixed"),
+     * over one k-period that brings the period's inflation-adjusted value at retirement (amount
+     * plus profit, plus the tax benefit when includeTaxBenefit) up to the target.
+     *
+     * The transactions are processed once and reduced to three sums over the period: current
+     * remanents, p-period extras and transaction count, each compounded from its own date when
+     * timeWeighted. The value is linear in the unknown, so it is solved in closed form; only the
+     * NPS tax benefit, piecewise linear in the amount, needs a bracketed root search.
+     */
+    public GoalSeekResponse seekGoal(int age, double monthlyWage, double inflation, TemporalRules rules,
+                                     List<Transaction> transactions, String instrument, String taxRegime,
+                                     boolean timeWeighted, double target, String solveFor, int period,
+                                     boolean includeTaxBenefit) {
+        if (!GOAL_EXTRA.equals(solveFor) && !GOAL_FIXED.equals(solveFor)) {
+            throw new InvalidGoalException("solveFor must be 'extra' or 'fixed'");
+        }
+        List<KPeriod> kPeriods = rules.getKPeriods();
+        if (period < 0 || period >= kPeriods.size()) {
+            throw new InvalidGoalException("No k-period at index " + period);
+        }
+        Instrument investment = instrumentRegistry.get(instrument);
+        TaxSchedule taxSchedule = taxRegimeRegistry.get(taxRegime);
+        boolean fixed = GOAL_FIXED.equals(solveFor);
+
+        // step 1: process the transactions once, keeping each valid row's remanent and p extra
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        processTransactions(batch, rules);
+        filterValidTransactions(batch);
+
+        PPeriodIndex pIndex = rules.getPIndex();
+        int validCount = batch.validCount();
+        long[] timestamps = new long[validCount];
+        long[] remanents = new long[validCount];
+        long[] extras = new long[validCount];
+        long[] ones = new long[validCount];
+        int count = 0;
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
+            timestamps[count] = batch.timestamp(i);
+            remanents[count] = batch.remanentPaise(i);
+            extras[count] = pIndex.extraAt(timestamps[count]);
+            ones[count] = 1;
+            count++;
+        }
+
+        // step 2: reduce the goal period to value = (base + perUnit * x) / inflation
+        long start = rules.getKIndex().startAt(period);
+        long end = rules.getKIndex().endAt(period);
+        PrefixSumTimeline remanentTimeline = PrefixSumTimeline.of(timestamps, remanents, count);
+        PrefixSumTimeline extraTimeline = PrefixSumTimeline.of(timestamps, extras, count);
+        PrefixSumTimeline countTimeline = PrefixSumTimeline.of(timestamps, ones, count);
+
+        long currentPaise = remanentTimeline.sumBetween(start, end);
+        long basePaise = fixed ? extraTimeline.sumBetween(start, end) : currentPaise;
+        int inPeriod = (int) countTimeline.sumBetween(start, end);
+
+        int years = yearsToRetirement(age);
+        double inflationFactor = Math.pow(1 + inflation / 100.0, years);
+        double current;
+        double base;
+        double perUnit;
+        if (timeWeighted && count > 0) {
+            long retirement = remanentTimeline.lastTimestamp() + years * PrefixSumTimeline.YEAR_SECONDS;
+            double growth = 1 + investment.getAnnualRate();
+            current = remanentTimeline.compounded(retirement, growth).sumBetween(start, end) / Paise.PER_RUPEE;
+            base = fixed
+                    ? extraTimeline.compounded(retirement, growth).sumBetween(start, end) / Paise.PER_RUPEE
+                    : current;
+            perUnit = countTimeline.compounded(retirement, growth).sumBetween(start, end);
+        } else {
+            double growth = Math.pow(1 + investment.getAnnualRate(), years);
+            current = Paise.toRupees(currentPaise) * growth;
+            base = Paise.toRupees(basePaise) * growth;
+            perUnit = inPeriod * growth;
+        }
+
+        TaxSchedule.DeductionSavings taxSavings = (includeTaxBenefit && investment.isTaxBenefit())
+                ? npsDeductionSavings(taxSchedule, monthlyWage * 12) : null;
+        double baseAmount = Paise.toRupees(basePaise);
+        DoubleUnaryOperator value = x -> (base + perUnit * x) / inflationFactor
+                + ((taxSavings != null) ? taxSavings.saving(baseAmount + inPeriod * x) : 0);
+
+        // step 3: closed form for the linear projection
+        double required = GoalSeek.linear(base / inflationFactor, perUnit / inflationFactor, target);
+        String method = "closed-form";
+
+        // step 4: the tax saving lies between zero and its capped value, which brackets the root
+        if (taxSavings != null && !Double.isNaN(required)) {
+            double maxSaving = taxSavings.saving(Double.POSITIVE_INFINITY);
+            double lo = Math.max(0, GoalSeek.linear(base / inflationFactor, perUnit / inflationFactor, target - maxSaving));
+            double hi = Math.max(lo, required);
+            required = GoalSeek.increasingRoot(x -> value.applyAsDouble(x) - target, lo, hi, GOAL_TOLERANCE);
+            method = "bracketed";
+        }
+
+        GoalSeekResponse response = new GoalSeekResponse();
+        response.setInstrument(investment.getName());
+        response.setSolveFor(solveFor);
+        response.setStart(kPeriods.get(period).getStart());
+        response.setEnd(kPeriods.get(period).getEnd());
+        response.setTarget(target);
+        response.setTransactionsInPeriod(inPeriod);
+        response.setCurrentValue(Paise.round(current / inflationFactor
+                + ((taxSavings != null) ? taxSavings.saving(Paise.toRupees(currentPaise)) : 0)));
+        response.setMethod(method);
+
+        if (Double.isNaN(required)) {
+            // no transaction in the period, so no per-transaction amount moves its value
+            response.setReachable(false);
+            response.setProjectedValue(response.getCurrentValue());
+            return response;
+        }
+
+        // round up to the paisa so the rounded amount still reaches the target
+        long requiredPaise = Math.max(0, (long) Math.ceil(required * Paise.PER_RUPEE - 1e-6));
+        double requiredAmount = Paise.toRupees(requiredPaise);
+        response.setReachable(true);
+        response.setRequiredAmount(requiredAmount);
+        response.setProjectedValue(Paise.round(value.applyAsDouble(requiredAmount)));
+        return response;
+    }
+
+    /**
+     * Balance timeline of every k-period on each named instrument (all configured ones when none
+     * are named), in yearly or monthly steps to retirement. Instruments are resolved and the
+     * transactions aggregated here, so bad requests fail before anything is streamed; the
+     * returned projection then generates each series lazily while writing it.
+     */
+    public TimelineProjection projectTimeline(int age, double inflation, TemporalRules rules,
+                                              List<Transaction> transactions, List<String> instruments,
+                                              boolean timeWeighted, boolean monthly) {
+        List<Instrument> targets = new ArrayList<>();
+        if (instruments == null || instruments.isEmpty()) {
+            targets.addAll(instrumentRegistry.all());
+        } else {
+            for (String name : instruments) {
+                targets.add(instrumentRegistry.get(name));
+            }
+        }
+        PeriodSavings savings = aggregate(rules, transactions, timeWeighted);
+        return new TimelineProjection(savings, targets, yearsToRetirement(age), inflation / 100.0, monthly);
+    }
+
+    /**
+     * Projects already aggregated savings onto the named instrument, for callers that keep
+     * their own running totals (such as portfolio sessions) instead of resending transactions.
+     */
+    public ReturnsResponse projectReturns(PeriodSavings savings, int age, double monthlyWage, double inflation,
+                                          String instrument, String taxRegime) {
+        return toReturnsResponse(savings, age, monthlyWage, inflation,
+                instrumentRegistry.get(instrument), taxRegimeRegistry.get(taxRegime));
+    }
+
     private ReturnsResponse calculateReturns(int age, double monthlyWage, double inflation,
-                                              List<QPeriod> qPeriods, List<PPeriod> pPeriods,
-                                              List<KPeriod> kPeriods,
-                                              List<Transaction> transactions,
-                                              double annualRate, boolean isNps) {
+                                              TemporalRules rules,
+                                              List<Transaction> transactions, boolean timeWeighted,
+                                              Instrument instrument, TaxSchedule taxSchedule) {
+        PeriodSavings savings = aggregate(rules, transactions, timeWeighted);
+        return toReturnsResponse(savings, age, monthlyWage, inflation, instrument, taxSchedule);
+    }
 
-        if (qPeriods == null) qPeriods = Collections.emptyList();
-        if (pPeriods == null) pPeriods = Collections.emptyList();
-        if (kPeriods == null) kPeriods = Collections.emptyList();
+    private ReturnsResponse toReturnsResponse(PeriodSavings savings, int age, double monthlyWage, double inflation,
+                                              Instrument instrument, TaxSchedule taxSchedule) {
+        ReturnsResponse response = new ReturnsResponse();
+        response.setTotalTransactionAmount(Paise.toRupees(savings.getTotalAmountPaise()));
+        response.setTotalCeiling(Paise.toRupees(savings.getTotalCeilingPaise()));
+        response.setSavingsByDates(project(savings, age, monthlyWage, inflation, instrument, taxSchedule));
 
-        double annualIncome = monthlyWage * 12;
-        int yearsToRetirement = (age < RETIREMENT_AGE)
-                ? (RETIREMENT_AGE - age)
-                : MINIMUM_INVESTMENT_YEARS;
+        return response;
+    }
 
+    /**
+     * Runs the transaction pass: processes and filters the transactions, then sums the
+     * remanents per k-period. Depends only on the transactions and rules, not on the investor.
+     * When timeWeighted, the remanent timeline is kept so each projection can compound it per date.
+     */
+    private PeriodSavings aggregate(TemporalRules rules, List<Transaction> transactions, boolean timeWeighted) {
         // step 1: process each transaction - calculate ceiling, remanent, apply q and p
-        List<ProcessedTransaction> processed = processTransactions(transactions, qPeriods, pPeriods);
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        processTransactions(batch, rules);
 
         // filter out invalid transactions (negative amount, duplicates)
-        List<ProcessedTransaction> validProcessed = filterValidTransactions(processed);
+        filterValidTransactions(batch);
+
+        // compute totals from valid transactions, collecting remanents by timestamp on the way
+        long totalAmount = 0;
+        long totalCeiling = 0;
+        int validCount = batch.validCount();
+        long[] timestamps = new long[validCount];
+        long[] remanents = new long[validCount];
+        int count = 0;
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
+            totalAmount += batch.amountPaiseOrZero(i);
+            totalCeiling += batch.ceilingPaise(i);
+            timestamps[count] = batch.timestamp(i);
+            remanents[count] = batch.remanentPaise(i);
+            count++;
+        }
 
-        // compute totals from valid transactions
-        double totalAmount = 0;
-        double totalCeiling = 0;
-        for (ProcessedTransaction pt : validProcessed) {
-            totalAmount += pt.amount;
-            totalCeiling += pt.ceiling;
+        // step 4: group by k-periods
+        // transactions are sorted once into a prefix-sum timeline, so each k-period sum is
+        // two binary searches and a subtraction instead of a scan over every transaction
+        PrefixSumTimeline timeline = PrefixSumTimeline.of(timestamps, remanents, count);
+        long[] periodAmounts = rules.getKIndex().sumByPeriod(timeline);
+
+        if (timeWeighted) {
+            return new PeriodSavings(totalAmount, totalCeiling, rules.getKPeriods(), periodAmounts,
+                    timeline, rules.getKIndex());
         }
+        return new PeriodSavings(totalAmount, totalCeiling, rules.getKPeriods(), periodAmounts);
+    }
 
-        // step 4: group by k-periods and calculate returns
-        List<SavingsByDate> savingsByDates = new ArrayList<>();
+    /**
+     * Projects the per-period sums onto one instrument for one investor profile:
+     * compounding, inflation and tax benefit.
+     */
+    private List<SavingsByDate> project(PeriodSavings savings, int age, double monthlyWage, double inflation,
+                                        Instrument instrument, TaxSchedule taxSchedule) {
+        double annualRate = instrument.getAnnualRate();
+        List<KPeriod> kPeriods = savings.getKPeriods();
+        int yearsToRetirement = yearsToRetirement(age);
 
-        for (KPeriod kPeriod : kPeriods) {
-            LocalDateTime kStart = parseDateTime(kPeriod.getStart());
-            LocalDateTime kEnd = parseDateTime(kPeriod.getEnd());
+        // the income is the same for every k-period, so its tax deltas are computed once
+        TaxSchedule.DeductionSavings taxSavings = instrument.isTaxBenefit()
+                ? npsDeductionSavings(taxSchedule, monthlyWage * 12) : null;
 
-            // sum up remanent for transactions in this k-period
-            double periodAmount = 0;
-            for (ProcessedTransaction pt : validProcessed) {
-                LocalDateTime txnDate = parseDateTime(pt.date);
-                if (!txnDate.isBefore(kStart) && !txnDate.isAfter(kEnd)) {
-                    periodAmount += pt.remanent;
-                }
-            }
+        // time-weighted: every remanent compounds from its own date, in one sweep for all periods
+        double[] compoundedAmounts = savings.isTimeWeighted()
+                ? savings.compoundedAmounts(1 + annualRate, yearsToRetirement) : null;
+
+        List<SavingsByDate> savingsByDates = new ArrayList<>();
+
+        for (int i = 0; i < kPeriods.size(); i++) {
+            KPeriod kPeriod = kPeriods.get(i);
+            double periodAmount = Paise.toRupees(savings.getPeriodPaise(i));
 
             // step 5: calculate compound interest
-            double futureValue = periodAmount * Math.pow(1 + annualRate, yearsToRetirement);
+            double futureValue = (compoundedAmounts != null)
+                    ? compoundedAmounts[i]
+                    : periodAmount * Math.pow(1 + annualRate, yearsToRetirement);
 
             // adjust for inflation
             double inflationRate = inflation / 100.0;
             double realValue = futureValue / Math.pow(1 + inflationRate, yearsToRetirement);
 
             // profit is the gain over the principal (inflation-adjusted return minus invested amount)
-            double profit = roundToTwo(realValue - periodAmount);
+            double profit = Paise.round(realValue - periodAmount);
 
-            // calculate tax benefit for NPS
+            // calculate tax benefit for NPS-like instruments
             double taxBenefit = 0;
-            if (isNps) {
-                taxBenefit = calculateTaxBenefit(periodAmount, annualIncome);
+            if (taxSavings != null) {
+                taxBenefit = taxSavings.saving(periodAmount);
             }
 
             SavingsByDate saving = new SavingsByDate();
             saving.setStart(kPeriod.getStart());
             saving.setEnd(kPeriod.getEnd());
-            saving.setAmount(roundToTwo(periodAmount));
+            saving.setAmount(periodAmount);
             saving.setProfit(profit);
-            saving.setTaxBenefit(roundToTwo(taxBenefit));
+            saving.setTaxBenefit(Paise.round(taxBenefit));
 
             savingsByDates.add(saving);
         }
 
-        ReturnsResponse response = new ReturnsResponse();
-        response.setTotalTransactionAmount(roundToTwo(totalAmount));
-        response.setTotalCeiling(roundToTwo(totalCeiling));
-        response.setSavingsByDates(savingsByDates);
+        return savingsByDates;
+    }
 
-        return response;
+    private int yearsToRetirement(int age) {
+        return (age < RETIREMENT_AGE)
+                ? (RETIREMENT_AGE - age)
+                : MINIMUM_INVESTMENT_YEARS;
     }
 
     /**
-     * Process raw transactions: compute ceiling, remanent, apply q and p rules.
+     * Process raw transactions in place: compute ceiling, remanent, apply q and p rules.
      */
-    private List<ProcessedTransaction> processTransactions(List<Transaction> transactions,
-                                                            List<QPeriod> qPeriods,
-                                                            List<PPeriod> pPeriods) {
-        List<ProcessedTransaction> result = new ArrayList<>();
-
-        for (Transaction txn : transactions) {
-            ProcessedTransaction pt = new ProcessedTransaction();
-            pt.date = txn.getDate();
-            pt.amount = (txn.getAmount() != null) ? txn.getAmount() : 0;
-            pt.ceiling = Math.ceil(pt.amount / 100.0) * 100;
-            pt.remanent = pt.ceiling - pt.amount;
-            pt.isValid = true;
-            pt.isDuplicate = false;
+    void processTransactions(TransactionBatch batch, TemporalRules rules) {
+        QPeriodIndex qIndex = rules.getQIndex();
+        PPeriodIndex pIndex = rules.getPIndex();
+
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
+            long amount = batch.amountPaiseOrZero(i);
+            long ceiling = Paise.ceilToHundredRupees(amount);
+            long remanent = ceiling - amount;
+            batch.setCeilingPaise(i, ceiling);
+            batch.setRemanentPaise(i, remanent);
 
             // check for negative amounts
-            if (pt.amount < 0) {
-                pt.isValid = false;
-                result.add(pt);
+            if (amount < 0) {
+                batch.reject(i, null);
                 continue;
             }
 
-            LocalDateTime txnDate = parseDateTime(pt.date);
+            long timestamp = batch.timestamp(i);
 
             // apply q-period rules
-            pt.remanent = applyQPeriods(txnDate, pt.remanent, qPeriods);
+            remanent = qIndex.apply(timestamp, remanent);
 
             // apply p-period rules
-            pt.remanent = applyPPeriods(txnDate, pt.remanent, pPeriods);
+            remanent = pIndex.apply(timestamp, remanent);
 
-            result.add(pt);
+            batch.setRemanentPaise(i, remanent);
         }
-
-        return result;
     }
 
     /**
-     * Filter out invalid (negative) and duplicate transactions.
+     * Reject duplicate transactions; negative ones were already rejected while processing.
      */
-    private List<ProcessedTransaction> filterValidTransactions(List<ProcessedTransaction> transactions) {
-        List<ProcessedTransaction> valid = new ArrayList<>();
-        Set<String> seenDates = new HashSet<>();
-
-        for (ProcessedTransaction pt : transactions) {
-            if (!pt.isValid) continue;
-            if (pt.date != null && seenDates.contains(pt.date)) continue;
-
-            seenDates.add(pt.date);
-            valid.add(pt);
-        }
-
-        return valid;
+    private void filterValidTransactions(TransactionBatch batch) {
+        rejectDuplicates(batch, DuplicateDetector.forBatch(batch));
     }
 
-    private double applyQPeriods(LocalDateTime txnDate, double remanent, List<QPeriod> qPeriods) {
-        QPeriod bestMatch = null;
-        LocalDateTime bestStart = null;
-        int bestIndex = -1;
-
-        for (int i = 0; i < qPeriods.size(); i++) {
-            QPeriod q = qPeriods.get(i);
-            LocalDateTime start = parseDateTime(q.getStart());
-            LocalDateTime end = parseDateTime(q.getEnd());
-
-            if (!txnDate.isBefore(start) && !txnDate.isAfter(end)) {
-                if (bestMatch == null || start.isAfter(bestStart)
-                        || (start.isEqual(bestStart) && i < bestIndex)) {
-                    bestMatch = q;
-                    bestStart = start;
-                    bestIndex = i;
-                }
+    /**
+     * Rejects valid rows whose date was already seen, by this batch or by earlier ones sharing the detector.
+     */
+    void rejectDuplicates(TransactionBatch batch, DuplicateDetector seenDates) {
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
+            if (seenDates.contains(batch, i)) {
+                batch.reject(i, null);
+                continue;
             }
+            seenDates.add(batch, i);
         }
-
-        if (bestMatch != null) {
-            return bestMatch.getFixed();
-        }
-        return remanent;
     }
 
-    private double applyPPeriods(LocalDateTime txnDate, double remanent, List<PPeriod> pPeriods) {
-        double totalExtra = 0;
-        for (PPeriod p : pPeriods) {
-            LocalDateTime start = parseDateTime(p.getStart());
-            LocalDateTime end = parseDateTime(p.getEnd());
-
-            if (!txnDate.isBefore(start) && !txnDate.isAfter(end)) {
-                totalExtra += p.getExtra();
-            }
-        }
-        return remanent + totalExtra;
+    /**
+     * Tax saved per invested amount for an NPS investor with the given annual income.
+     * The deduction is min of: invested, 10% of annual income, 2,00,000.
+     */
+    private TaxSchedule.DeductionSavings npsDeductionSavings(TaxSchedule taxSchedule, double annualIncome) {
+        double deductionCap = Math.min(NPS_DEDUCTION_INCOME_SHARE * annualIncome, NPS_DEDUCTION_LIMIT);
+        return taxSchedule.deductionSavings(annualIncome, deductionCap);
     }
 
     /**
-     * Calculates the tax benefit from NPS investment.
-     * Uses simplified Indian tax slabs.
-     *
-     * Tax slabs:
-     *   0 to 7,00,000: 0%
-     *   7,00,001 to 10,00,000: 10%
-     *   10,00,001 to 12,00,000: 15%
-     *   12,00,001 to 15,00,000: 20%
-     *   Above 15,00,000: 30%
+     * Aggregated savings ready to be written out as balance timelines, one JSON object per line:
+     * {"instrument", "start", "end", "amount", "points": [{"year", "month", "balance", "realBalance"}]},
+     * with "month" only in monthly mode. Points are produced by a {@link ProjectionTimeline} as
+     * they are written, so memory does not grow with the number of years, months or periods.
      */
-    private double calculateTaxBenefit(double invested, double annualIncome) {
-        // NPS deduction is min of: invested, 10% of annual income, 2,00,000
-        double npsDeduction = Math.min(invested, Math.min(0.10 * annualIncome, 200000));
-
-        double taxWithoutDeduction = calculateTax(annualIncome);
-        double taxWithDeduction = calculateTax(annualIncome - npsDeduction);
+    public static class TimelineProjection {
+        private final PeriodSavings savings;
+        private final List<Instrument> instruments;
+        private final int years;
+        private final double inflationRate;
+        private final boolean monthly;
+
+        private TimelineProjection(PeriodSavings savings, List<Instrument> instruments, int years,
+                                   double inflationRate, boolean monthly) {
+            this.savings = savings;
+            this.instruments = instruments;
+            this.years = years;
+            this.inflationRate = inflationRate;
+            this.monthly = monthly;
+        }
 
-        return taxWithoutDeduction - taxWithDeduction;
+        public void write(JsonGenerator generator) throws IOException {
+            List<KPeriod> kPeriods = savings.getKPeriods();
+            for (Instrument instrument : instruments) {
+                double annualRate = instrument.getAnnualRate();
+
+                // time-weighted: each period starts from its remanents compounded to the latest transaction
+                double[] principals = savings.isTimeWeighted()
+                        ? savings.compoundedAmounts(1 + annualRate, 0) : null;
+
+                for (int i = 0; i < kPeriods.size(); i++) {
+                    double amount = Paise.toRupees(savings.getPeriodPaise(i));
+                    double principal = (principals != null) ? principals[i] : amount;
+                    ProjectionTimeline timeline = new ProjectionTimeline(principal, annualRate, inflationRate, years, monthly);
+
+                    generator.writeStartObject();
+                    generator.writeStringField("instrument", instrument.getName());
+                    generator.writeStringField("start", kPeriods.get(i).getStart());
+                    generator.writeStringField("end", kPeriods.get(i).getEnd());
+                    generator.writeNumberField("amount", amount);
+                    generator.writeArrayFieldStart("points");
+                    while (timeline.next()) {
+                        generator.writeStartObject();
+                        generator.writeNumberField("year", timeline.year());
+                        if (monthly) {
+                            generator.writeNumberField("month", timeline.month());
+                        }
+                        generator.writeNumberField("balance", Paise.round(timeline.balance()));
+                        generator.writeNumberField("realBalance", Paise.round(timeline.realBalance()));
+                        generator.writeEndObject();
+                    }
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                    generator.writeRaw('\n');
+                    generator.flush();
+                }
+            }
+        }
     }
 
     /**
-     * Calculates income tax using simplified slabs.
+     * Totals and per-k-period remanent sums, in paise, from one pass over the transactions.
+     * Time-weighted savings also keep the remanent timeline, to compound each remanent from its date.
      */
-    private double calculateTax(double income) {
-        if (income <= 0) return 0;
-
-        double tax = 0;
-
-        if (income > 1500000) {
-            tax += (income - 1500000) * 0.30;
-            income = 1500000;
+    public static class PeriodSavings {
+        private final long totalAmount;
+        private final long totalCeiling;
+        private final List<KPeriod> kPeriods;
+        private final long[] periodAmounts;
+        private final PrefixSumTimeline timeline;
+        private final KPeriodIndex kIndex;
+
+        public PeriodSavings(long totalAmount, long totalCeiling, List<KPeriod> kPeriods, long[] periodAmounts) {
+            this(totalAmount, totalCeiling, kPeriods, periodAmounts, null, null);
         }
-        if (income > 1200000) {
-            tax += (income - 1200000) * 0.20;
-            income = 1200000;
+
+        public PeriodSavings(long totalAmount, long totalCeiling, List<KPeriod> kPeriods, long[] periodAmounts,
+                             PrefixSumTimeline timeline, KPeriodIndex kIndex) {
+            this.totalAmount = totalAmount;
+            this.totalCeiling = totalCeiling;
+            this.kPeriods = kPeriods;
+            this.periodAmounts = periodAmounts;
+            this.timeline = timeline;
+            this.kIndex = kIndex;
         }
-        if (income > 1000000) {
-            tax += (income - 1000000) * 0.15;
-            income = 1000000;
+
+        public boolean isTimeWeighted() {
+            return timeline != null;
         }
-        if (income > 700000) {
-            tax += (income - 700000) * 0.10;
+
+        /**
+         * Per-k-period value at retirement, in rupees, when each remanent compounds at yearlyGrowth from its
+         * own date. The investor is taken to have yearsToRetirement left as of the latest
+         * transaction, so the newest remanents compound for exactly that many years and older
+         * ones for longer. O(N + K log N) per call; the timeline was sorted once in aggregate.
+         */
+        public double[] compoundedAmounts(double yearlyGrowth, int yearsToRetirement) {
+            if (timeline.isEmpty()) {
+                return new double[kPeriods.size()];
+            }
+            long retirement = timeline.lastTimestamp() + yearsToRetirement * PrefixSumTimeline.YEAR_SECONDS;
+            double[] amounts = kIndex.sumByPeriod(timeline.compounded(retirement, yearlyGrowth));
+            for (int i = 0; i < amounts.length; i++) {
+                amounts[i] /= Paise.PER_RUPEE;
+            }
+            return amounts;
         }
 
-        return tax;
-    }
+        public long getTotalAmountPaise() {
+            return totalAmount;
+        }
 
-    private LocalDateTime parseDateTime(String dateStr) {
-        return LocalDateTime.parse(dateStr, FLEXIBLE_FORMATTER);
-    }
+        public long getTotalCeilingPaise() {
+            return totalCeiling;
+        }
 
-    private double roundToTwo(double value) {
-        return BigDecimal.valueOf(value)
-                .setScale(2, RoundingMode.HALF_UP)
-                .doubleValue();
-    }
+        public List<KPeriod> getKPeriods() {
+            return kPeriods;
+        }
 
-    /**
-     * Internal representation of a processed transaction.
-     */
-    private static class ProcessedTransaction {
-        String date;
-        double amount;
-        double ceiling;
-        double remanent;
-        boolean isValid;
-        boolean isDuplicate;
+        public long getPeriodPaise(int index) {
+            return periodAmounts[index];
+        }
     }
 }
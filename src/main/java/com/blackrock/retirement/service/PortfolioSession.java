@@ -0,0 +1,42 @@
+package com.blackrock.retirement.service;
+
+import com.blackrock.retirement.engine.DuplicateDetector;
+import com.blackrock.retirement.engine.KPeriodTotals;
+import com.blackrock.retirement.engine.TemporalRules;
+
+/**
+ * State of one portfolio session: its compiled rules, the transaction dates seen so far and
+ * the running totals. Not thread-safe; PortfolioSessionRegistry guards it with a stripe lock.
+ */
+final class PortfolioSession {
+
+    // object headers, fields and the rules reference
+    private static final long BASE_BYTES = 256;
+
+    final TemporalRules rules;
+    final KPeriodTotals kTotals;
+    final DuplicateDetector seenDates;
+
+    // running totals in paise
+    long totalAmount;
+    long totalCeiling;
+    int transactionCount;
+    int validCount;
+
+    // bytes currently charged to the registry budget
+    long weight;
+    volatile long lastAccess;
+
+    PortfolioSession(TemporalRules rules, int expectedTransactions) {
+        this.rules = rules;
+        this.kTotals = KPeriodTotals.of(rules.getKIndex());
+        this.seenDates = DuplicateDetector.hashed(expectedTransactions);
+    }
+
+    /**
+     * Approximate heap footprint of the session state.
+     */
+    long estimatedBytes() {
+        return BASE_BYTES + kTotals.estimatedBytes() + seenDates.estimatedBytes();
+    }
+}
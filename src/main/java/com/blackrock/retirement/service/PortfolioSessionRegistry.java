@@ -0,0 +1,232 @@
+package com.blackrock.retirement.service;
+
+import com.blackrock.retirement.dto.ReturnsResponse;
+import com.blackrock.retirement.dto.SessionRequest;
+import com.blackrock.retirement.dto.SessionResponse;
+import com.blackrock.retirement.dto.SessionReturnsRequest;
+import com.blackrock.retirement.engine.Paise;
+import com.blackrock.retirement.engine.TemporalRules;
+import com.blackrock.retirement.engine.TransactionBatch;
+import com.blackrock.retirement.model.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Stateful portfolio sessions: a client sends its rules and transaction history once, then
+ * appends new transactions as deltas and asks for returns without resending anything.
+ *
+ * Each session keeps its totals incrementally: an append processes only the new transactions
+ * (ceiling, remanent, q and p rules, duplicate dates against everything seen before) and adds
+ * their remanents to a Fenwick tree of k-period totals, so returns on a session cost
+ * O(K log K) whatever the history length.
+ *
+ * Sessions are guarded by a fixed set of striped read/write locks rather than one lock each,
+ * so appends to different sessions run in parallel while returns on a session only wait for
+ * its appends. The sessions share a memory budget; when it is exceeded, the least recently
+ * used sessions are evicted.
+ */
+@Service
+public class PortfolioSessionRegistry {
+
+    private static final int STRIPES = 64;
+
+    private final InvestmentService investmentService;
+    private final RuleSetRegistry ruleSetRegistry;
+    private final long maxBytes;
+
+    private final Map<String, PortfolioSession> sessions = new ConcurrentHashMap<>();
+    private final ReentrantReadWriteLock[] stripes = new ReentrantReadWriteLock[STRIPES];
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private final Object evictionLock = new Object();
+
+    public PortfolioSessionRegistry(InvestmentService investmentService, RuleSetRegistry ruleSetRegistry,
+                                    @Value("${retirement.sessions.max-bytes:67108864}") long maxBytes) {
+        this.investmentService = investmentService;
+        this.ruleSetRegistry = ruleSetRegistry;
+        this.maxBytes = maxBytes;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantReadWriteLock();
+        }
+    }
+
+    /**
+     * Starts a session from rules and an initial history, returning its state and new ID.
+     */
+    public SessionResponse create(SessionRequest request) {
+        TemporalRules rules = ruleSetRegistry.resolve(
+                request.getRuleSetId(), request.getQ(), request.getP(), request.getK());
+        List<Transaction> transactions = orEmpty(request.getTransactions());
+
+        // not shared until it is in the map, so no lock is needed yet
+        PortfolioSession session = new PortfolioSession(rules, transactions.size());
+        int rejected = appendTo(session, transactions);
+        session.weight = session.estimatedBytes();
+        session.lastAccess = clock.incrementAndGet();
+
+        String sessionId = UUID.randomUUID().toString();
+        SessionResponse response = toResponse(sessionId, session, transactions.size(), rejected);
+        sessions.put(sessionId, session);
+        bytes.addAndGet(session.weight);
+
+        evictOverBudget(sessionId);
+        return response;
+    }
+
+    /**
+     * Adds transactions to a session; only the new transactions are processed.
+     */
+    public SessionResponse append(String sessionId, List<Transaction> transactions) {
+        List<Transaction> delta = orEmpty(transactions);
+        SessionResponse response;
+
+        Lock lock = stripe(sessionId).writeLock();
+        lock.lock();
+        try {
+            PortfolioSession session = live(sessionId);
+            int rejected = appendTo(session, delta);
+
+            long weight = session.estimatedBytes();
+            bytes.addAndGet(weight - session.weight);
+            session.weight = weight;
+            session.lastAccess = clock.incrementAndGet();
+
+            response = toResponse(sessionId, session, delta.size(), rejected);
+        } finally {
+            lock.unlock();
+        }
+
+        // outside the stripe lock: eviction takes other stripes' locks
+        evictOverBudget(sessionId);
+        return response;
+    }
+
+    /**
+     * Returns on the session's current totals for one instrument and investor profile.
+     */
+    public ReturnsResponse returns(String sessionId, SessionReturnsRequest request) {
+        InvestmentService.PeriodSavings savings;
+
+        Lock lock = stripe(sessionId).readLock();
+        lock.lock();
+        try {
+            PortfolioSession session = live(sessionId);
+            savings = new InvestmentService.PeriodSavings(session.totalAmount, session.totalCeiling,
+                    session.rules.getKPeriods(), session.kTotals.sumByPeriod());
+            session.lastAccess = clock.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+
+        // the projection only needs the snapshot, so it runs without holding the lock
+        return investmentService.projectReturns(savings, request.getAge(), request.getWage(),
+                request.getInflation(), request.getInstrument(), request.getTaxRegime());
+    }
+
+    public boolean remove(String sessionId) {
+        Lock lock = stripe(sessionId).writeLock();
+        lock.lock();
+        try {
+            PortfolioSession session = sessions.remove(sessionId);
+            if (session == null) {
+                return false;
+            }
+            bytes.addAndGet(-session.weight);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Estimated memory held by all sessions.
+     */
+    public long bytes() {
+        return bytes.get();
+    }
+
+    // step 1: process the delta; step 2: reject duplicates against the whole history;
+    // step 3: fold the valid rows into the running totals
+    private int appendTo(PortfolioSession session, List<Transaction> transactions) {
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        investmentService.processTransactions(batch, session.rules);
+        investmentService.rejectDuplicates(batch, session.seenDates);
+
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
+            session.totalAmount += batch.amountPaiseOrZero(i);
+            session.totalCeiling += batch.ceilingPaise(i);
+            session.kTotals.add(batch.timestamp(i), batch.remanentPaise(i));
+        }
+        session.transactionCount += batch.size();
+        session.validCount += batch.validCount();
+        return batch.size() - batch.validCount();
+    }
+
+    private PortfolioSession live(String sessionId) {
+        PortfolioSession session = sessions.get(sessionId);
+        if (session == null) {
+            throw new UnknownSessionException(sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * Evicts least recently used sessions, other than the one just touched, until the
+     * estimated total is back within the budget.
+     */
+    private void evictOverBudget(String keep) {
+        if (bytes.get() <= maxBytes) {
+            return;
+        }
+        synchronized (evictionLock) {
+            while (bytes.get() > maxBytes) {
+                String eldest = null;
+                long oldest = Long.MAX_VALUE;
+                for (Map.Entry<String, PortfolioSession> entry : sessions.entrySet()) {
+                    if (!entry.getKey().equals(keep) && entry.getValue().lastAccess < oldest) {
+                        eldest = entry.getKey();
+                        oldest = entry.getValue().lastAccess;
+                    }
+                }
+                if (eldest == null) {
+                    return;
+                }
+                remove(eldest);
+            }
+        }
+    }
+
+    private ReentrantReadWriteLock stripe(String sessionId) {
+        int h = sessionId.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    private static SessionResponse toResponse(String sessionId, PortfolioSession session, int appended, int rejected) {
+        SessionResponse response = new SessionResponse();
+        response.setSessionId(sessionId);
+        response.setTransactionCount(session.transactionCount);
+        response.setValidCount(session.validCount);
+        response.setAppended(appended);
+        response.setRejected(rejected);
+        response.setTotalTransactionAmount(Paise.toRupees(session.totalAmount));
+        response.setTotalCeiling(Paise.toRupees(session.totalCeiling));
+        return response;
+    }
+
+    private static List<Transaction> orEmpty(List<Transaction> transactions) {
+        return (transactions != null) ? transactions : Collections.emptyList();
+    }
+}
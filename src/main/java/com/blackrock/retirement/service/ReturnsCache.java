@@ -0,0 +1,203 @@
+package com.blackrock.retirement.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Caches /returns results by a content hash of the request, so clients retrying or refreshing
+ * the same payload get the stored result instead of a recomputation.
+ *
+ * The key is a SHA-256 over the endpoint name and the request DTO serialized back to JSON, so
+ * whitespace and field order in the original body do not matter; it doubles as the ETag. The
+ * cache is bounded both by entry count and by the total serialized size of the stored results,
+ * evicting the least recently used first. Concurrent requests for the same key are coalesced:
+ * one computes, the others wait for its result. Failed computations are not cached.
+ */
+@Service
+public class ReturnsCache {
+
+    private final ObjectMapper objectMapper;
+    private final int maxEntries;
+    private final long maxBytes;
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private long bytes;
+
+    @Autowired
+    public ReturnsCache(ObjectMapper objectMapper,
+                        @Value("${retirement.returns-cache.max-entries:1024}") int maxEntries,
+                        @Value("${retirement.returns-cache.max-bytes:33554432}") long maxBytes) {
+        this.objectMapper = objectMapper;
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Content key of a request to the given endpoint.
+     */
+    public String key(String endpoint, Object request) {
+        MessageDigest digest = sha256();
+        digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+
+        // stream the JSON straight into the digest, large payloads are never buffered
+        try (OutputStream out = new DigestOutputStream(OutputStream.nullOutputStream(), digest)) {
+            objectMapper.writeValue(out, request);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not hash request", e);
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    public boolean contains(String key) {
+        synchronized (entries) {
+            return entries.get(key) != null;
+        }
+    }
+
+    /**
+     * Returns the cached result for the key, computing it if absent. While a computation for
+     * the key is running, other callers wait for it rather than starting their own.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getOrCompute(String key, Supplier<T> compute) {
+        Object cached = lookup(key);
+        if (cached != null) {
+            return (T) cached;
+        }
+
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            return (T) await(running);
+        }
+
+        try {
+            // another caller may have finished between the lookup and claiming the key
+            Object result = lookup(key);
+            if (result == null) {
+                result = compute.get();
+                store(key, result);
+            }
+            mine.complete(result);
+            return (T) result;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Total serialized size of the cached results.
+     */
+    public long bytes() {
+        synchronized (entries) {
+            return bytes;
+        }
+    }
+
+    private Object lookup(String key) {
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            return (entry != null) ? entry.value : null;
+        }
+    }
+
+    private void store(String key, Object value) {
+        long weight = serializedSize(value);
+        if (maxEntries <= 0 || weight > maxBytes) {
+            return;
+        }
+
+        synchronized (entries) {
+            Entry previous = entries.put(key, new Entry(value, weight));
+            bytes += weight - ((previous != null) ? previous.weight : 0);
+
+            // evict least recently used entries until both bounds hold
+            Iterator<Entry> eldest = entries.values().iterator();
+            while ((entries.size() > maxEntries || bytes > maxBytes) && eldest.hasNext()) {
+                bytes -= eldest.next().weight;
+                eldest.remove();
+            }
+        }
+    }
+
+    private long serializedSize(Object value) {
+        long[] count = new long[1];
+        OutputStream counter = new OutputStream() {
+            @Override
+            public void write(int b) {
+                count[0]++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                count[0] += len;
+            }
+        };
+        try {
+            objectMapper.writeValue(counter, value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not size result", e);
+        }
+        return count[0];
+    }
+
+    private static Object await(CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static final class Entry {
+        private final Object value;
+        private final long weight;
+
+        private Entry(Object value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.blackrock.retirement.service;
+
+import com.blackrock.retirement.engine.TemporalRules;
+import com.blackrock.retirement.model.KPeriod;
+import com.blackrock.retirement.model.PPeriod;
+import com.blackrock.retirement.model.QPeriod;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps named, precompiled q/p/k rule sets in memory so clients can register a large
+ * savings policy once and refer to it by ID on every filter and returns call.
+ *
+ * IDs are derived from the rule content, so registering the same rules twice returns
+ * the same ID. The cache is bounded and evicts the least recently used rule set.
+ */
+@Service
+public class RuleSetRegistry {
+
+    private final Map<String, TemporalRules> ruleSets;
+
+    public RuleSetRegistry(@Value("${retirement.rulesets.max-entries:256}") int maxEntries) {
+        this.ruleSets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TemporalRules> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Compiles and stores a rule set, returning its ID.
+     */
+    public String register(List<QPeriod> qPeriods, List<PPeriod> pPeriods, List<KPeriod> kPeriods) {
+        String id = contentId(qPeriods, pPeriods, kPeriods);
+
+        synchronized (ruleSets) {
+            if (ruleSets.get(id) != null) {
+                return id;
+            }
+        }
+
+        // compile outside the lock, large rule sets take a while
+        TemporalRules rules = TemporalRules.compile(qPeriods, pPeriods, kPeriods);
+
+        synchronized (ruleSets) {
+            ruleSets.putIfAbsent(id, rules);
+        }
+        return id;
+    }
+
+    /**
+     * Returns the compiled rules for an ID, or throws if it is unknown or has been evicted.
+     */
+    public TemporalRules get(String ruleSetId) {
+        TemporalRules rules;
+        synchronized (ruleSets) {
+            rules = ruleSets.get(ruleSetId);
+        }
+        if (rules == null) {
+            throw new UnknownRuleSetException(ruleSetId);
+        }
+        return rules;
+    }
+
+    /**
+     * Uses the registered rule set when an ID is given, otherwise compiles the inline periods.
+     * Throws ConflictingRulesException when both an ID and inline periods are given.
+     */
+    public TemporalRules resolve(String ruleSetId, List<QPeriod> qPeriods,
+                                 List<PPeriod> pPeriods, List<KPeriod> kPeriods) {
+        if (ruleSetId != null) {
+            if (!isEmpty(qPeriods) || !isEmpty(pPeriods) || !isEmpty(kPeriods)) {
+                throw new ConflictingRulesException(ruleSetId);
+            }
+            return get(ruleSetId);
+        }
+        return TemporalRules.compile(qPeriods, pPeriods, kPeriods);
+    }
+
+    public boolean remove(String ruleSetId) {
+        synchronized (ruleSets) {
+            return ruleSets.remove(ruleSetId) != null;
+        }
+    }
+
+    public int size() {
+        synchronized (ruleSets) {
+            return ruleSets.size();
+        }
+    }
+
+    /**
+     * SHA-256 over a canonical text form of the periods, in list order
+     * (order matters for q-period tie-breaks and k-period output).
+     */
+    private String contentId(List<QPeriod> qPeriods, List<PPeriod> pPeriods, List<KPeriod> kPeriods) {
+        StringBuilder canonical = new StringBuilder();
+        if (qPeriods != null) {
+            for (QPeriod q : qPeriods) {
+                canonical.append("q|").append(q.getFixed()).append('|')
+                        .append(q.getStart()).append('|').append(q.getEnd()).append('\n');
+            }
+        }
+        if (pPeriods != null) {
+            for (PPeriod p : pPeriods) {
+                canonical.append("p|").append(p.getExtra()).append('|')
+                        .append(p.getStart()).append('|').append(p.getEnd()).append('\n');
+            }
+        }
+        if (kPeriods != null) {
+            for (KPeriod k : kPeriods) {
+                canonical.append("k|").append(k.getStart()).append('|').append(k.getEnd()).append('\n');
+            }
+        }
+
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static boolean isEmpty(List<?> periods) {
+        return periods == null || periods.isEmpty();
+    }
+}
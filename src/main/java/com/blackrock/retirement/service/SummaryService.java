@@ -1,15 +1,28 @@
 package com.blackrock.retirement.service;
 
 import com.blackrock.retirement.dto.SummaryResponse;
+import com.blackrock.retirement.engine.DuplicateDetector;
+import com.blackrock.retirement.engine.Paise;
+import com.blackrock.retirement.engine.ParallelRows;
+import com.blackrock.retirement.engine.SpendingAccumulator;
+import com.blackrock.retirement.engine.SpendingAnomalies;
+import com.blackrock.retirement.engine.SpendingAnomalyDetector;
+import com.blackrock.retirement.engine.TimeBuckets;
+import com.blackrock.retirement.engine.TimestampCodec;
+import com.blackrock.retirement.engine.TopKHeap;
+import com.blackrock.retirement.engine.TopSpends;
+import com.blackrock.retirement.engine.TransactionBatch;
+import com.blackrock.retirement.model.RankedSpend;
+import com.blackrock.retirement.model.SpendBucket;
+import com.blackrock.retirement.model.SpendingAnomaly;
 import com.blackrock.retirement.model.Transaction;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
+import java.util.function.LongFunction;
 
 /**
  * Provides spending pattern insights and savings potential analysis.
@@ -18,14 +31,96 @@ import java.util.Set;
 @Service
 public class SummaryService {
 
+    // amounts must stay below 5 * 10^5 rupees
+    private static final long AMOUNT_LIMIT_PAISE = 500000 * Paise.PER_RUPEE;
+
+    // monthly projection when the dated transactions span less than a month
+    private static final double ASSUMED_TRANSACTIONS_PER_MONTH = 30;
+    private static final double DAYS_PER_MONTH = 365.25 / 12;
+    private static final long SECONDS_PER_DAY = 86400;
+
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 50000;
+
+    // each top-k list is copied into every per-chunk accumulator, so k stays small
+    private static final int MAX_TOP_K = 1000;
+
+    // batches with at least this many rows are accumulated on the ForkJoinPool
+    private final int parallelThreshold;
+
+    // entries in each top-k list
+    private final int topK;
+
+    public SummaryService() {
+        this(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    public SummaryService(int parallelThreshold) {
+        this(parallelThreshold, SpendingAccumulator.DEFAULT_TOP_K);
+    }
+
+    @Autowired
+    public SummaryService(@Value("${retirement.summary.parallel-threshold:50000}") int parallelThreshold,
+                          @Value("${retirement.summary.top-k:5}") int topK) {
+        if (topK < 0 || topK > MAX_TOP_K) {
+            throw new IllegalArgumentException("retirement.summary.top-k must be between 0 and " + MAX_TOP_K);
+        }
+        this.parallelThreshold = parallelThreshold;
+        this.topK = topK;
+    }
+
     /**
      * Analyzes a list of transactions to produce spending insights,
      * savings potential, and an investment readiness score.
      */
     public SummaryResponse analyzeSummary(List<Transaction> transactions) {
-        SummaryResponse response = new SummaryResponse();
+        return summarize(accumulate(transactions));
+    }
 
+    /**
+     * Classifies the transactions and folds them into one accumulator, across the ForkJoinPool
+     * for large inputs. Accumulators of separate batches can be merged and then summarized;
+     * duplicate dates are only detected within a batch.
+     */
+    public SpendingAccumulator accumulate(List<Transaction> transactions) {
         if (transactions == null || transactions.isEmpty()) {
+            return new SpendingAccumulator(topK);
+        }
+
+        // step 1: classify in input order, since the first of duplicate dates is the valid one,
+        // and run the order-dependent anomaly detectors on the valid rows as they are found
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        DuplicateDetector seenDates = DuplicateDetector.forBatch(batch);
+        SpendingAnomalyDetector detector = new SpendingAnomalyDetector(SpendingAccumulator.MAX_ANOMALIES);
+
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
+            if (batch.hasAmount(i) && batch.amountPaise(i) < 0) {
+                batch.reject(i, null);
+            } else if (seenDates.contains(batch, i)) {
+                batch.reject(i, null);
+            } else if (batch.hasAmount(i) && batch.amountPaise(i) >= AMOUNT_LIMIT_PAISE) {
+                batch.reject(i, null);
+            } else {
+                seenDates.add(batch, i);
+                detector.observe(batch.amountPaiseOrZero(i), batch.date(i), SpendingAccumulator.timestampOf(batch, i));
+            }
+        }
+
+        // step 2: one accumulator per chunk, merged in row order
+        boolean parallel = batch.size() >= parallelThreshold;
+        SpendingAccumulator stats = ParallelRows.reduce(batch.size(), parallel,
+                (from, to) -> new SpendingAccumulator(topK).addRows(batch, from, to),
+                SpendingAccumulator::merge);
+        stats.getAnomalies().merge(detector.finish());
+        return stats;
+    }
+
+    /**
+     * Builds the insights, readiness score and tips from accumulated statistics.
+     */
+    public SummaryResponse summarize(SpendingAccumulator stats) {
+        SummaryResponse response = new SummaryResponse();
+
+        if (stats.getTotalCount() == 0) {
             response.setTotalTransactions(0);
             response.setValidTransactions(0);
             response.setInvalidTransactions(0);
@@ -35,110 +130,161 @@ public class SummaryService {
             return response;
         }
 
-        // separate valid and invalid
-        List<Transaction> validTxns = new ArrayList<>();
-        List<Transaction> invalidTxns = new ArrayList<>();
-        Set<String> seenDates = new HashSet<>();
+        int validCount = stats.getValidCount();
+        int invalidCount = stats.getInvalidCount();
 
-        for (Transaction txn : transactions) {
-            boolean isInvalid = false;
+        response.setTotalTransactions(stats.getTotalCount());
+        response.setValidTransactions(validCount);
+        response.setInvalidTransactions(invalidCount);
 
-            if (txn.getAmount() != null && txn.getAmount() < 0) {
-                isInvalid = true;
-            } else if (txn.getDate() != null && seenDates.contains(txn.getDate())) {
-                isInvalid = true;
-            } else if (txn.getAmount() != null && txn.getAmount() >= 500000) {
-                isInvalid = true;
-            }
-
-            if (isInvalid) {
-                invalidTxns.add(txn);
-            } else {
-                if (txn.getDate() != null) seenDates.add(txn.getDate());
-                validTxns.add(txn);
-            }
-        }
-
-        response.setTotalTransactions(transactions.size());
-        response.setValidTransactions(validTxns.size());
-        response.setInvalidTransactions(invalidTxns.size());
-
-        if (validTxns.isEmpty()) {
+        if (validCount == 0) {
             response.setInvestmentReadinessScore(0);
             response.setInvestmentReadinessLabel("Not ready");
             response.setTips(List.of("All your transactions are invalid. Check for negative amounts or duplicates."));
             return response;
         }
 
-        // spending analysis on valid transactions
-        double totalSpent = 0;
-        double highest = Double.MIN_VALUE;
-        double lowest = Double.MAX_VALUE;
-        String highestDate = "";
-        String lowestDate = "";
-        double totalSavingsPotential = 0;
-
-        for (Transaction txn : validTxns) {
-            double amount = txn.getAmount() != null ? txn.getAmount() : 0;
-            double ceiling = Math.ceil(amount / 100.0) * 100;
-            double remanent = ceiling - amount;
-
-            totalSpent += amount;
-            totalSavingsPotential += remanent;
-
-            if (amount > highest) {
-                highest = amount;
-                highestDate = txn.getDate();
-            }
-            if (amount < lowest) {
-                lowest = amount;
-                lowestDate = txn.getDate();
+        double totalSpent = Paise.toRupees(stats.getTotalSpentPaise());
+        double totalSavingsPotential = Paise.toRupees(stats.getTotalSavingsPaise());
+        double avgSpend = totalSpent / validCount;
+        double avgSavings = totalSavingsPotential / validCount;
+
+        // project monthly savings from the observed transaction rate; a shorter span than a
+        // month says little about it (five spends on one day are not 152 a month)
+        double transactionsPerMonth = ASSUMED_TRANSACTIONS_PER_MONTH;
+        if (stats.getTimedCount() > 0) {
+            long spanDays = TimestampCodec.epochDay(stats.getLastTimestamp())
+                    - TimestampCodec.epochDay(stats.getFirstTimestamp()) + 1;
+            if (spanDays >= DAYS_PER_MONTH) {
+                transactionsPerMonth = stats.getTimedCount() * DAYS_PER_MONTH / spanDays;
+                response.setObservedTransactionsPerMonth(Paise.round(transactionsPerMonth));
             }
         }
-
-        double avgSpend = totalSpent / validTxns.size();
-        double avgSavings = totalSavingsPotential / validTxns.size();
-
-        // estimate monthly savings (assume ~30 transactions per month for daily expenses)
-        double monthlySavings = roundToTwo(avgSavings * 30);
-        double annualSavings = roundToTwo(monthlySavings * 12);
-
-        response.setTotalSpent(roundToTwo(totalSpent));
-        response.setAverageSpend(roundToTwo(avgSpend));
-        response.setHighestSpend(roundToTwo(highest));
-        response.setLowestSpend(roundToTwo(lowest));
-        response.setHighestSpendDate(highestDate);
-        response.setLowestSpendDate(lowestDate);
-        response.setTotalSavingsPotential(roundToTwo(totalSavingsPotential));
-        response.setAverageSavingsPerTransaction(roundToTwo(avgSavings));
+        double monthlySavings = Paise.round(avgSavings * transactionsPerMonth);
+        double annualSavings = Paise.round(monthlySavings * 12);
+
+        response.setTotalSpent(totalSpent);
+        response.setAverageSpend(Paise.round(avgSpend));
+        response.setHighestSpend(Paise.toRupees(stats.getHighestPaise()));
+        response.setLowestSpend(Paise.toRupees(stats.getLowestPaise()));
+        response.setHighestSpendDate(stats.getHighestDate());
+        response.setLowestSpendDate(stats.getLowestDate());
+        response.setLargestExpenses(toRankedSpends(stats.getLargestSpends()));
+        response.setTopSavingsContributors(toRankedSpends(stats.getLargestRemanents()));
+        response.setTopSpendDays(topSpendDays(stats.getDays(), stats.getTopK()));
+        response.setMedianSpend(roundedRupees(stats.amountQuantile(0.5)));
+        response.setP90Spend(roundedRupees(stats.amountQuantile(0.9)));
+        response.setP99Spend(roundedRupees(stats.amountQuantile(0.99)));
+        response.setMedianRemanent(roundedRupees(stats.remanentQuantile(0.5)));
+        response.setP90Remanent(roundedRupees(stats.remanentQuantile(0.9)));
+        response.setP99Remanent(roundedRupees(stats.remanentQuantile(0.99)));
+        response.setTotalSavingsPotential(totalSavingsPotential);
+        response.setAverageSavingsPerTransaction(Paise.round(avgSavings));
         response.setMonthlySavingsEstimate(monthlySavings);
         response.setAnnualSavingsProjection(annualSavings);
 
+        // spending over time, from the same pass
+        response.setDailySpend(toBuckets(stats.getDays(),
+                day -> TimestampCodec.format(day * SECONDS_PER_DAY).substring(0, 10)));
+        response.setWeeklySpend(toBuckets(stats.getWeeks(),
+                week -> TimestampCodec.format(SpendingAccumulator.weekStartDay(week) * SECONDS_PER_DAY).substring(0, 10)));
+        response.setMonthlySpend(toBuckets(stats.getMonths(),
+                month -> String.format("%04d-%02d", 1970 + Math.floorDiv(month, 12), Math.floorMod(month, 12) + 1)));
+        long[][] heatmap = new long[7][24];
+        for (int day = 0; day < 7; day++) {
+            for (int hour = 0; hour < 24; hour++) {
+                heatmap[day][hour] = stats.heatmapCount(day, hour);
+            }
+        }
+        response.setHourWeekdayHeatmap(heatmap);
+
+        SpendingAnomalies anomalies = stats.getAnomalies();
+        List<SpendingAnomaly> flagged = new ArrayList<>();
+        for (int slot : anomalies.sortedSlots()) {
+            String type = (anomalies.kind(slot) == SpendingAnomalies.SPIKE) ? "spike" : "unusual-day";
+            flagged.add(new SpendingAnomaly(type, anomalies.date(slot), Paise.toRupees(anomalies.amountPaise(slot)),
+                    roundedRupees(anomalies.expectedPaise(slot)), Paise.round(anomalies.score(slot))));
+        }
+        response.setAnomalies(flagged);
+
         // calculate investment readiness score
-        int score = calculateReadinessScore(validTxns, invalidTxns, avgSavings, totalSpent);
+        int score = calculateReadinessScore(validCount, invalidCount, avgSavings, totalSpent);
         response.setInvestmentReadinessScore(score);
         response.setInvestmentReadinessLabel(getReadinessLabel(score));
 
         // generate personalized tips
-        response.setTips(generateTips(score, avgSavings, totalSpent, validTxns.size(), invalidTxns.size()));
+        response.setTips(generateTips(score, avgSavings, totalSpent, validCount, invalidCount));
 
         return response;
     }
 
-    private int calculateReadinessScore(List<Transaction> valid, List<Transaction> invalid,
+    // non-empty buckets in time order, or null when the series spans too long to keep
+    private List<SpendBucket> toBuckets(TimeBuckets buckets, LongFunction<String> label) {
+        if (buckets.isOverflowed()) {
+            return null;
+        }
+        List<SpendBucket> list = new ArrayList<>();
+        for (int i = 0; i < buckets.span(); i++) {
+            if (buckets.count(i) > 0) {
+                list.add(new SpendBucket(label.apply(buckets.firstBucket() + i), buckets.count(i),
+                        Paise.toRupees(buckets.spentPaise(i)), Paise.toRupees(buckets.savingsPaise(i))));
+            }
+        }
+        return list;
+    }
+
+    private List<RankedSpend> toRankedSpends(TopSpends spends) {
+        List<RankedSpend> list = new ArrayList<>();
+        for (int slot : spends.sortedSlots()) {
+            list.add(new RankedSpend(spends.date(slot), Paise.toRupees(spends.amountPaise(slot)),
+                    Paise.toRupees(spends.remanentPaise(slot))));
+        }
+        return list;
+    }
+
+    // day totals are only final once merged, so the heap runs over the daily buckets, O(D log k)
+    private List<SpendBucket> topSpendDays(TimeBuckets days, int k) {
+        if (days.isOverflowed()) {
+            return null;
+        }
+        TopKHeap heap = new TopKHeap(k);
+        int[] offsets = new int[k];
+        for (int i = 0; i < days.span(); i++) {
+            if (days.count(i) > 0) {
+                int slot = heap.offer(days.spentPaise(i), i);
+                if (slot >= 0) {
+                    offsets[slot] = i;
+                }
+            }
+        }
+        List<SpendBucket> list = new ArrayList<>();
+        for (int slot : heap.sortedSlots()) {
+            int i = offsets[slot];
+            list.add(new SpendBucket(TimestampCodec.format((days.firstBucket() + i) * SECONDS_PER_DAY).substring(0, 10),
+                    days.count(i), Paise.toRupees(days.spentPaise(i)), Paise.toRupees(days.savingsPaise(i))));
+        }
+        return list;
+    }
+
+    // sketch estimates and running levels are fractional paise
+    private double roundedRupees(double paise) {
+        return Paise.round(paise / Paise.PER_RUPEE);
+    }
+
+    private int calculateReadinessScore(int validCount, int invalidCount,
                                          double avgSavings, double totalSpent) {
         int score = 50; // base score
 
         // consistency bonus: more valid transactions = more consistent saver
-        double validRatio = (double) valid.size() / (valid.size() + invalid.size());
+        double validRatio = (double) validCount / (validCount + invalidCount);
         score += (int) (validRatio * 20);
 
         // savings ratio bonus
-        double savingsRatio = (totalSpent > 0) ? avgSavings / (totalSpent / valid.size()) : 0;
+        double savingsRatio = (totalSpent > 0) ? avgSavings / (totalSpent / validCount) : 0;
         score += (int) (Math.min(savingsRatio, 0.5) * 40);
 
         // penalty for too few transactions (not enough data)
-        if (valid.size() < 3) score -= 15;
+        if (validCount < 3) score -= 15;
 
         return Math.max(0, Math.min(100, score));
     }
@@ -181,10 +327,4 @@ public class SummaryService {
 
         return tips;
     }
-
-    private double roundToTwo(double value) {
-        return BigDecimal.valueOf(value)
-                .setScale(2, RoundingMode.HALF_UP)
-                .doubleValue();
-    }
 }
@@ -0,0 +1,100 @@
+package com.blackrock.retirement.service;
+
+import com.blackrock.retirement.engine.TaxSchedule;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The income tax regimes the NPS tax benefit can be computed under, compiled once at startup.
+ *
+ * The built-in "simplified" regime keeps the original slabs. Further regimes (or slab revisions)
+ * are configured under retirement.tax.regimes.&lt;name&gt; as comma-separated start:rate pairs,
+ * and retirement.tax.default-regime picks the one used when a request names none, for example:
+ *   retirement.tax.regimes.old=250000:0.05,500000:0.20,1000000:0.30
+ *   retirement.tax.default-regime=simplified
+ */
+@Service
+public class TaxRegimeRegistry {
+
+    public static final String SIMPLIFIED = "simplified";
+
+    private static final String SIMPLIFIED_SLABS = "700000:0.10,1000000:0.15,1200000:0.20,1500000:0.30";
+
+    private static final String PREFIX = "retirement.tax";
+
+    private final Map<String, TaxSchedule> regimes = new LinkedHashMap<>();
+    private final TaxSchedule defaultRegime;
+
+    /**
+     * Registry with only the built-in simplified regime.
+     */
+    public TaxRegimeRegistry() {
+        this(Collections.emptyMap(), SIMPLIFIED);
+    }
+
+    @Autowired
+    public TaxRegimeRegistry(Environment environment) {
+        this(Binder.get(environment).bind(PREFIX + ".regimes", Bindable.mapOf(String.class, String.class))
+                        .orElse(Collections.emptyMap()),
+                environment.getProperty(PREFIX + ".default-regime", SIMPLIFIED));
+    }
+
+    /**
+     * Registry with the built-in regime plus the given slab tables, keyed by regime name.
+     * Throws IllegalArgumentException for a malformed table.
+     */
+    public TaxRegimeRegistry(Map<String, String> configured, String defaultRegime) {
+        regimes.put(SIMPLIFIED, compile(SIMPLIFIED, SIMPLIFIED_SLABS));
+        for (Map.Entry<String, String> entry : configured.entrySet()) {
+            String name = entry.getKey().toLowerCase(Locale.ROOT);
+            regimes.put(name, compile(name, entry.getValue()));
+        }
+        this.defaultRegime = get(defaultRegime);
+    }
+
+    /**
+     * Looks up a regime by name (case-insensitive); null selects the default regime.
+     */
+    public TaxSchedule get(String name) {
+        if (name == null) {
+            return defaultRegime;
+        }
+        TaxSchedule schedule = regimes.get(name.toLowerCase(Locale.ROOT));
+        if (schedule == null) {
+            throw new UnknownTaxRegimeException(name);
+        }
+        return schedule;
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(regimes.keySet());
+    }
+
+    private static TaxSchedule compile(String name, String slabs) {
+        String[] pairs = slabs.split(",");
+        double[] starts = new double[pairs.length];
+        double[] rates = new double[pairs.length];
+        try {
+            for (int i = 0; i < pairs.length; i++) {
+                String[] parts = pairs[i].trim().split(":");
+                if (parts.length != 2) {
+                    throw new IllegalArgumentException("expected start:rate but was '" + pairs[i].trim() + "'");
+                }
+                starts[i] = Double.parseDouble(parts[0].trim());
+                rates[i] = Double.parseDouble(parts[1].trim());
+            }
+            return TaxSchedule.compile(starts, rates);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid slabs for tax regime " + name + ": " + e.getMessage(), e);
+        }
+    }
+}
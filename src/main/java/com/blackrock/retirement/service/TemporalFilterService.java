@@ -1,24 +1,37 @@
 package com.blackrock.retirement.service;
 
+import com.blackrock.retirement.engine.DuplicateDetector;
+import com.blackrock.retirement.engine.KPeriodIndex;
+import com.blackrock.retirement.engine.PPeriodIndex;
+import com.blackrock.retirement.engine.Paise;
+import com.blackrock.retirement.engine.ParallelRows;
+import com.blackrock.retirement.engine.QPeriodIndex;
+import com.blackrock.retirement.engine.SpendingAccumulator;
+import com.blackrock.retirement.engine.TemporalRules;
+import com.blackrock.retirement.engine.TransactionBatch;
 import com.blackrock.retirement.model.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.temporal.ChronoField;
 import java.util.*;
 
 @Service
 public class TemporalFilterService {
 
-    private static final DateTimeFormatter FLEXIBLE_FORMATTER = new DateTimeFormatterBuilder()
-            .appendPattern("yyyy-MM-dd HH:mm")
-            .optionalStart()
-            .appendPattern(":ss")
-            .optionalEnd()
-            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
-            .toFormatter();
+    private static final int DEFAULT_PARALLEL_THRESHOLD = 50000;
+
+    // batches with at least this many rows are evaluated on the ForkJoinPool
+    private final int parallelThreshold;
+
+    public TemporalFilterService() {
+        this(DEFAULT_PARALLEL_THRESHOLD);
+    }
+
+    @Autowired
+    public TemporalFilterService(@Value("${retirement.filter.parallel-threshold:50000}") int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
 
     /**
      * Applies temporal constraints (q, p, k) to a list of transactions.
@@ -28,144 +41,159 @@ public class TemporalFilterService {
      *   3. Apply p-period rules (extra amount addition)
      *   4. Check against k-periods (grouping)
      *
-     * Also filters out invalid (negative amount, duplicates).
+     * Also filters out invalid (negative amount, missing or malformed date, duplicates).
      */
     public FilterResult filterTransactions(List<Transaction> transactions,
                                            List<QPeriod> qPeriods,
                                            List<PPeriod> pPeriods,
                                            List<KPeriod> kPeriods,
                                            double wage) {
+        // compile q, p and k periods once per request instead of re-scanning them for every transaction
+        return filterTransactions(transactions, TemporalRules.compile(qPeriods, pPeriods, kPeriods), wage);
+    }
 
-        List<Transaction> valid = new ArrayList<>();
-        List<Transaction> invalid = new ArrayList<>();
-        Set<String> seenDates = new LinkedHashSet<>();
+    /**
+     * Applies precompiled temporal rules to a list of transactions.
+     * Used directly when the rules come from a registered rule set.
+     */
+    public FilterResult filterTransactions(List<Transaction> transactions, TemporalRules rules, double wage) {
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        BitSet inKPeriod = filterBatch(batch, rules);
+        return toFilterResult(batch, inKPeriod);
+    }
 
-        if (qPeriods == null) qPeriods = Collections.emptyList();
-        if (pPeriods == null) pPeriods = Collections.emptyList();
-        if (kPeriods == null) kPeriods = Collections.emptyList();
+    /**
+     * Filters one chunk of a larger stream (NDJSON bulk input).
+     * The duplicate detector is shared across chunks so duplicates are caught over the whole stream.
+     * Returns the chunk in input order; invalid transactions carry their message.
+     */
+    public List<Transaction> filterChunk(List<Transaction> transactions, TemporalRules rules, DuplicateDetector seenDates) {
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        BitSet inKPeriod = filterBatch(batch, rules, seenDates);
 
-        for (Transaction txn : transactions) {
-            String dateStr = txn.getDate();
-            Double amount = txn.getAmount();
+        List<Transaction> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            rows.add(toTransaction(batch, i, inKPeriod));
+        }
+        return rows;
+    }
+
+    /**
+     * Runs the filter over a columnar batch in place: invalid rows are rejected, valid rows get
+     * their ceiling and adjusted remanent. Returns the rows that fall inside a k-period.
+     */
+    public BitSet filterBatch(TransactionBatch batch, TemporalRules rules) {
+        return filterBatch(batch, rules, DuplicateDetector.forBatch(batch));
+    }
 
+    /**
+     * Same as filterBatch, with the duplicate detector supplied by the caller.
+     */
+    public BitSet filterBatch(TransactionBatch batch, TemporalRules rules, DuplicateDetector seenDates) {
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
             // validate: negative amount
-            if (amount != null && amount < 0) {
-                Transaction inv = new Transaction();
-                inv.setDate(dateStr);
-                inv.setAmount(amount);
-                inv.setMessage("Negative amounts are not allowed");
-                invalid.add(inv);
+            if (batch.hasAmount(i) && batch.amountPaise(i) < 0) {
+                batch.reject(i, "Negative amounts are not allowed");
+                continue;
+            }
+
+            // validate: a date the periods can be checked against; decoding it here also spares
+            // the parallel evaluation below from failing part-way through on a bad row
+            if (SpendingAccumulator.timestampOf(batch, i) == SpendingAccumulator.NO_TIMESTAMP) {
+                batch.reject(i, "Missing or malformed date");
                 continue;
             }
 
             // validate: duplicate
-            if (dateStr != null && seenDates.contains(dateStr)) {
-                Transaction inv = new Transaction();
-                inv.setDate(dateStr);
-                inv.setAmount(amount);
-                inv.setMessage("Duplicate transaction");
-                invalid.add(inv);
+            if (seenDates.contains(batch, i)) {
+                batch.reject(i, "Duplicate transaction");
                 continue;
             }
 
-            seenDates.add(dateStr);
+            seenDates.add(batch, i);
+        }
 
-            // step 1: calculate ceiling and remanent
-            double amt = (amount != null) ? amount : 0;
-            double ceiling = Math.ceil(amt / 100.0) * 100;
-            double remanent = ceiling - amt;
+        // validation above runs in input order so the first occurrence of a date always wins;
+        // the per-row rule evaluation below is independent per row and may run in parallel
+        long[] inKPeriodWords = new long[(batch.size() + 63) >>> 6];
+        ParallelRows.forEach(batch.size(), batch.size() >= parallelThreshold,
+                (from, to) -> evaluateRange(batch, rules, from, to, inKPeriodWords));
 
-            LocalDateTime txnDateTime = parseDateTime(dateStr);
+        return BitSet.valueOf(inKPeriodWords);
+    }
+
+    /**
+     * Computes ceiling and adjusted remanent for the valid rows in [from, to).
+     */
+    private void evaluateRange(TransactionBatch batch, TemporalRules rules, int from, int to, long[] inKPeriodWords) {
+        QPeriodIndex qIndex = rules.getQIndex();
+        PPeriodIndex pIndex = rules.getPIndex();
+        KPeriodIndex kIndex = rules.getKIndex();
+
+        for (int i = batch.nextValid(from); i >= 0 && i < to; i = batch.nextValid(i + 1)) {
+            // step 1: calculate ceiling and remanent, in paise
+            long amt = batch.amountPaiseOrZero(i);
+            long ceiling = Paise.ceilToHundredRupees(amt);
+            long remanent = ceiling - amt;
+
+            long txnTimestamp = batch.timestamp(i);
 
             // step 2: apply q-period rules (fixed amount override)
-            remanent = applyQPeriods(txnDateTime, remanent, qPeriods);
+            remanent = qIndex.apply(txnTimestamp, remanent);
 
             // step 3: apply p-period rules (extra amount addition)
-            remanent = applyPPeriods(txnDateTime, remanent, pPeriods);
+            remanent = pIndex.apply(txnTimestamp, remanent);
 
             // step 4: check if in any k-period
-            boolean inKPeriod = isInAnyKPeriod(txnDateTime, kPeriods);
-
-            Transaction result = new Transaction();
-            result.setDate(dateStr);
-            result.setAmount(amt);
-            result.setCeiling(ceiling);
-            result.setRemanent(remanent);
-            result.setInKPeriod(inKPeriod);
-            valid.add(result);
-        }
-
-        return new FilterResult(valid, invalid);
-    }
-
-    /**
-     * Applies q-period rules: if a transaction falls within a q-period,
-     * the remanent is replaced with the fixed amount.
-     * If multiple q-periods match, use the one with the latest start date.
-     * If tied on start date, use the first in the list.
-     */
-    private double applyQPeriods(LocalDateTime txnDate, double remanent, List<QPeriod> qPeriods) {
-        QPeriod bestMatch = null;
-        LocalDateTime bestStart = null;
-        int bestIndex = -1;
-
-        for (int i = 0; i < qPeriods.size(); i++) {
-            QPeriod q = qPeriods.get(i);
-            LocalDateTime start = parseDateTime(q.getStart());
-            LocalDateTime end = parseDateTime(q.getEnd());
-
-            if (!txnDate.isBefore(start) && !txnDate.isAfter(end)) {
-                if (bestMatch == null || start.isAfter(bestStart)
-                        || (start.isEqual(bestStart) && i < bestIndex)) {
-                    bestMatch = q;
-                    bestStart = start;
-                    bestIndex = i;
-                }
+            if (kIndex.covers(txnTimestamp)) {
+                inKPeriodWords[i >>> 6] |= 1L << i;
             }
-        }
 
-        if (bestMatch != null) {
-            return bestMatch.getFixed();
+            batch.setCeilingPaise(i, ceiling);
+            batch.setRemanentPaise(i, remanent);
         }
-        return remanent;
     }
 
     /**
-     * Applies p-period rules: if a transaction falls within p-periods,
-     * add all matching extras to the remanent. All matching p-periods are additive.
+     * Writes a filtered batch back out as valid and invalid transaction lists, in input order.
      */
-    private double applyPPeriods(LocalDateTime txnDate, double remanent, List<PPeriod> pPeriods) {
-        double totalExtra = 0;
+    private FilterResult toFilterResult(TransactionBatch batch, BitSet inKPeriod) {
+        // build the output rows in parallel by index, then split them in input order
+        Transaction[] rows = new Transaction[batch.size()];
+        ParallelRows.forEach(batch.size(), batch.size() >= parallelThreshold, (from, to) -> {
+            for (int i = from; i < to; i++) {
+                rows[i] = toTransaction(batch, i, inKPeriod);
+            }
+        });
 
-        for (PPeriod p : pPeriods) {
-            LocalDateTime start = parseDateTime(p.getStart());
-            LocalDateTime end = parseDateTime(p.getEnd());
+        List<Transaction> valid = new ArrayList<>(batch.validCount());
+        List<Transaction> invalid = new ArrayList<>(batch.size() - batch.validCount());
 
-            if (!txnDate.isBefore(start) && !txnDate.isAfter(end)) {
-                totalExtra += p.getExtra();
+        for (int i = 0; i < rows.length; i++) {
+            if (batch.isValid(i)) {
+                valid.add(rows[i]);
+            } else {
+                invalid.add(rows[i]);
             }
         }
 
-        return remanent + totalExtra;
+        return new FilterResult(valid, invalid);
     }
 
-    /**
-     * Checks if a transaction date falls within any k-period (inclusive).
-     */
-    private boolean isInAnyKPeriod(LocalDateTime txnDate, List<KPeriod> kPeriods) {
-        for (KPeriod k : kPeriods) {
-            LocalDateTime start = parseDateTime(k.getStart());
-            LocalDateTime end = parseDateTime(k.getEnd());
-
-            if (!txnDate.isBefore(start) && !txnDate.isAfter(end)) {
-                return true;
-            }
+    private Transaction toTransaction(TransactionBatch batch, int row, BitSet inKPeriod) {
+        Transaction txn = new Transaction();
+        txn.setDate(batch.date(row));
+
+        if (batch.isValid(row)) {
+            txn.setAmount(Paise.toRupees(batch.amountPaiseOrZero(row)));
+            txn.setCeiling(Paise.toRupees(batch.ceilingPaise(row)));
+            txn.setRemanent(Paise.toRupees(batch.remanentPaise(row)));
+            txn.setInKPeriod(inKPeriod.get(row));
+        } else {
+            txn.setAmount(batch.amountOrNull(row));
+            txn.setMessage(batch.message(row));
         }
-        return false;
-    }
-
-    private LocalDateTime parseDateTime(String dateStr) {
-        return LocalDateTime.parse(dateStr, FLEXIBLE_FORMATTER);
+        return txn;
     }
 
     /**
@@ -1,53 +1,203 @@
 package com.blackrock.retirement.service;
 
+import com.blackrock.retirement.engine.Paise;
+import com.blackrock.retirement.engine.TimestampCodec;
 import com.blackrock.retirement.model.Expense;
 import com.blackrock.retirement.model.Transaction;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeFormatterBuilder;
-import java.time.temporal.ChronoField;
+import java.io.IOException;
+import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
 import java.util.List;
 
 @Service
 public class TransactionService {
 
-    private static final DateTimeFormatter INPUT_FORMATTER = new DateTimeFormatterBuilder()
-            .appendPattern("yyyy-MM-dd HH:mm")
-            .optionalStart()
-            .appendPattern(":ss")
-            .optionalEnd()
-            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
-            .toFormatter();
-
-    private static final DateTimeFormatter OUTPUT_FORMATTER =
-            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
-
     /**
      * Parses raw expenses into transactions by calculating the ceiling (next multiple of 100)
      * and the remanent (difference between ceiling and actual amount).
      * Seconds in the timestamp are truncated to produce a clean date output.
+     * Throws InvalidExpenseException for a missing or malformed timestamp or amount.
      */
     public List<Transaction> parseExpenses(List<Expense> expenses) {
+        return parseExpenses(expenses, 0);
+    }
+
+    /**
+     * parseExpenses for a chunk of a longer stream whose first expense is at firstIndex, so
+     * errors name the expense's position in the whole stream.
+     */
+    public List<Transaction> parseExpenses(List<Expense> expenses, int firstIndex) {
         List<Transaction> transactions = new ArrayList<>();
+        if (expenses == null) {
+            return transactions;
+        }
+
+        for (int i = 0; i < expenses.size(); i++) {
+            Expense expense = expenses.get(i);
+            if (expense == null) {
+                throw new InvalidExpenseException(firstIndex + i, "not an expense object");
+            }
+            transactions.add(toTransaction(firstIndex + i, expense.getTimestamp(), expense.getAmount()));
+        }
+
+        return transactions;
+    }
 
-        for (Expense expense : expenses) {
-            LocalDateTime dateTime = LocalDateTime.parse(expense.getTimestamp(), INPUT_FORMATTER);
+    /**
+     * Streaming variant of parseExpenses for large payloads.
+     * Reads {"expenses": [...]} token by token and writes {"transactions": [...]} as it goes:
+     * each expense is read, gets its ceiling and remanent, and is written out immediately,
+     * so memory stays flat regardless of how many expenses are sent.
+     * Unknown fields are skipped and values are coerced the same as when the body is bound to
+     * ParseRequest: a numeric string is an amount, and a number is a timestamp string.
+     *
+     * The response status is already sent by the time a bad expense or malformed JSON is
+     * reached, so instead of failing the stream the array is closed and a terminal
+     * "error": {"index", "message"} field is written; the transactions before it are valid.
+     */
+    public void parseExpenses(JsonParser parser, JsonGenerator generator) throws IOException {
+        generator.writeStartObject();
+        generator.writeArrayFieldStart("transactions");
 
-            // truncate seconds for the output date
-            LocalDateTime truncated = dateTime.withSecond(0);
-            String formattedDate = truncated.format(OUTPUT_FORMATTER);
+        int index = 0;
+        String error = null;
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                error = "Request body must be a JSON object";
+            }
+            while (error == null && parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken value = parser.nextToken();
 
-            double amount = expense.getAmount();
-            double ceiling = calculateCeiling(amount);
-            double remanent = ceiling - amount;
+                if (!"expenses".equals(field) || value == JsonToken.VALUE_NULL) {
+                    parser.skipChildren();
+                } else if (value != JsonToken.START_ARRAY) {
+                    error = "expenses must be an array";
+                } else {
+                    JsonToken element;
+                    while ((element = parser.nextToken()) == JsonToken.START_OBJECT) {
+                        writeTransaction(generator, readExpense(parser, index));
+                        index++;
+                    }
+                    if (element != JsonToken.END_ARRAY) {
+                        throw new InvalidExpenseException(index, "not an expense object");
+                    }
+                }
+            }
+        } catch (InvalidExpenseException e) {
+            error = e.getMessage();
+        } catch (JsonParseException e) {
+            error = "Expense " + index + ": malformed JSON: " + e.getOriginalMessage();
+        }
 
-            transactions.add(new Transaction(formattedDate, amount, ceiling, remanent));
+        generator.writeEndArray();
+        if (error != null) {
+            generator.writeObjectFieldStart("error");
+            generator.writeNumberField("index", index);
+            generator.writeStringField("message", error);
+            generator.writeEndObject();
         }
+        generator.writeEndObject();
+        generator.flush();
+    }
 
-        return transactions;
+    /**
+     * Reads one expense object (parser positioned on its START_OBJECT) into a transaction.
+     */
+    private Transaction readExpense(JsonParser parser, int index) throws IOException {
+        String timestamp = null;
+        Double amount = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+
+            if ("timestamp".equals(field)) {
+                if (value.isStructStart()) {
+                    throw new InvalidExpenseException(index, "timestamp must be a string");
+                }
+                timestamp = parser.getValueAsString();
+            } else if ("amount".equals(field)) {
+                amount = readAmount(parser, value, index);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        return toTransaction(index, timestamp, amount);
+    }
+
+    // a number, a numeric string, or null or "" for a missing amount, as Jackson binds a Double
+    private Double readAmount(JsonParser parser, JsonToken value, int index) throws IOException {
+        if (value.isNumeric()) {
+            return parser.getDoubleValue();
+        }
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (value == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if (text.isEmpty()) {
+                return null;
+            }
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException e) {
+                // reported below, like any other non-numeric amount
+            }
+        }
+        throw new InvalidExpenseException(index, "amount must be a number");
+    }
+
+    private void writeTransaction(JsonGenerator generator, Transaction txn) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("date", txn.getDate());
+        generator.writeNumberField("amount", txn.getAmount());
+        generator.writeNumberField("ceiling", txn.getCeiling());
+        generator.writeNumberField("remanent", txn.getRemanent());
+        generator.writeEndObject();
+    }
+
+    /**
+     * Checks one expense and computes its ceiling and remanent; shared by every parse path.
+     */
+    private Transaction toTransaction(int index, String timestamp, Double amount) {
+        if (timestamp == null) {
+            throw new InvalidExpenseException(index, "missing timestamp");
+        }
+        if (amount == null) {
+            throw new InvalidExpenseException(index, "missing amount");
+        }
+        String formattedDate;
+        try {
+            formattedDate = formatDate(timestamp);
+        } catch (DateTimeParseException e) {
+            throw new InvalidExpenseException(index, "malformed timestamp '" + timestamp + "'");
+        }
+
+        long amountPaise;
+        try {
+            amountPaise = Paise.of(amount);
+        } catch (ArithmeticException e) {
+            throw new InvalidExpenseException(index, "amount out of range");
+        }
+        long ceiling = Paise.ceilToHundredRupees(amountPaise);
+        return new Transaction(formattedDate, Paise.toRupees(amountPaise),
+                Paise.toRupees(ceiling), Paise.toRupees(ceiling - amountPaise));
+    }
+
+    /**
+     * Parses the expense timestamp and truncates seconds for the output date.
+     */
+    private String formatDate(String timestamp) {
+        long epochSecond = TimestampCodec.parse(timestamp);
+        return TimestampCodec.format(TimestampCodec.truncateToMinute(epochSecond));
     }
 
     /**
@@ -55,6 +205,6 @@ public class TransactionService {
      * If the amount is already a multiple of 100, it stays the same.
      */
     public double calculateCeiling(double amount) {
-        return Math.ceil(amount / 100.0) * 100;
+        return Paise.toRupees(Paise.ceilToHundredRupees(Paise.of(amount)));
     }
 }
@@ -0,0 +1,15 @@
+package com.blackrock.retirement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request names an investment instrument that is not configured.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownInstrumentException extends RuntimeException {
+
+    public UnknownInstrumentException(String instrument) {
+        super("Unknown instrument: " + instrument);
+    }
+}
@@ -0,0 +1,15 @@
+package com.blackrock.retirement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request refers to a rule set ID that was never registered or has been evicted.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UnknownRuleSetException extends RuntimeException {
+
+    public UnknownRuleSetException(String ruleSetId) {
+        super("Unknown rule set: " + ruleSetId);
+    }
+}
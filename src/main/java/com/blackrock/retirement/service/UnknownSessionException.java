@@ -0,0 +1,15 @@
+package com.blackrock.retirement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request refers to a portfolio session that never existed, was deleted or has been evicted.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class UnknownSessionException extends RuntimeException {
+
+    public UnknownSessionException(String sessionId) {
+        super("Unknown session: " + sessionId);
+    }
+}
@@ -0,0 +1,15 @@
+package com.blackrock.retirement.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when a request names a tax regime that is not configured.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class UnknownTaxRegimeException extends RuntimeException {
+
+    public UnknownTaxRegimeException(String regime) {
+        super("Unknown tax regime: " + regime);
+    }
+}
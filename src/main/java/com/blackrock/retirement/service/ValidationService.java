@@ -1,16 +1,20 @@
 package com.blackrock.retirement.service;
 
+import com.blackrock.retirement.engine.DuplicateDetector;
+import com.blackrock.retirement.engine.Paise;
+import com.blackrock.retirement.engine.TransactionBatch;
 import com.blackrock.retirement.model.Transaction;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 @Service
 public class ValidationService {
 
+    private static final long AMOUNT_LIMIT_PAISE = 500000 * Paise.PER_RUPEE;
+    private static final long CEILING_STEP_PAISE = 100 * Paise.PER_RUPEE;
+
     /**
      * Validates a list of transactions based on business rules:
      * - Amounts must be non-negative
@@ -22,56 +26,98 @@ public class ValidationService {
      * Returns two lists: valid and invalid transactions.
      */
     public ValidationResult validateTransactions(double wage, List<Transaction> transactions) {
-        List<Transaction> valid = new ArrayList<>();
-        List<Transaction> invalid = new ArrayList<>();
-        Set<String> seenDates = new HashSet<>();
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        validateBatch(wage, batch);
 
-        for (Transaction txn : transactions) {
-            String errorMessage = validateSingleTransaction(txn, wage, seenDates);
+        List<Transaction> valid = new ArrayList<>(batch.validCount());
+        List<Transaction> invalid = new ArrayList<>(batch.size() - batch.validCount());
 
-            if (errorMessage != null) {
-                Transaction invalidTxn = copyTransaction(txn);
-                invalidTxn.setMessage(errorMessage);
-                invalid.add(invalidTxn);
+        for (int i = 0; i < batch.size(); i++) {
+            Transaction copy = copyRow(batch, i);
+            if (batch.isValid(i)) {
+                valid.add(copy);
             } else {
-                seenDates.add(txn.getDate());
-                valid.add(copyTransaction(txn));
+                copy.setMessage(batch.message(i));
+                invalid.add(copy);
             }
         }
 
         return new ValidationResult(valid, invalid);
     }
 
-    private String validateSingleTransaction(Transaction txn, double wage, Set<String> seenDates) {
+    /**
+     * Validates one chunk of a larger stream (NDJSON bulk input).
+     * The duplicate detector is shared across chunks so duplicates are caught over the whole stream.
+     * Returns the chunk in input order; invalid transactions carry their message.
+     */
+    public List<Transaction> validateChunk(double wage, List<Transaction> transactions, DuplicateDetector seenDates) {
+        TransactionBatch batch = TransactionBatch.of(transactions);
+        validateBatch(wage, batch, seenDates);
+
+        List<Transaction> rows = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            Transaction copy = copyRow(batch, i);
+            if (!batch.isValid(i)) {
+                copy.setMessage(batch.message(i));
+            }
+            rows.add(copy);
+        }
+        return rows;
+    }
+
+    /**
+     * Applies the validation rules to a columnar batch, rejecting failing rows in place.
+     */
+    public void validateBatch(double wage, TransactionBatch batch) {
+        validateBatch(wage, batch, DuplicateDetector.forBatch(batch));
+    }
+
+    /**
+     * Same as validateBatch, with the duplicate detector supplied by the caller.
+     */
+    public void validateBatch(double wage, TransactionBatch batch, DuplicateDetector seenDates) {
+        // rows the batch already rejected (out-of-range values) keep their message
+        for (int i = batch.nextValid(0); i >= 0; i = batch.nextValid(i + 1)) {
+            String errorMessage = validateRow(batch, i, wage, seenDates);
+
+            if (errorMessage != null) {
+                batch.reject(i, errorMessage);
+            } else {
+                seenDates.add(batch, i);
+            }
+        }
+    }
+
+    private String validateRow(TransactionBatch batch, int row, double wage, DuplicateDetector seenDates) {
         // check for negative amounts
-        if (txn.getAmount() != null && txn.getAmount() < 0) {
+        if (batch.hasAmount(row) && batch.amountPaise(row) < 0) {
             return "Negative amounts are not allowed";
         }
 
         // check for duplicate timestamps
-        if (txn.getDate() != null && seenDates.contains(txn.getDate())) {
+        if (seenDates.contains(batch, row)) {
             return "Duplicate transaction";
         }
 
         // check amount exceeds constraint (x < 5 * 10^5)
-        if (txn.getAmount() != null && txn.getAmount() >= 500000) {
+        if (batch.hasAmount(row) && batch.amountPaise(row) >= AMOUNT_LIMIT_PAISE) {
             return "Amount exceeds maximum allowed value";
         }
 
         // real-world: ceiling must be >= amount (can't round down)
-        if (txn.getCeiling() != null && txn.getAmount() != null && txn.getCeiling() < txn.getAmount()) {
+        if (batch.hasCeiling(row) && batch.hasAmount(row) && batch.ceilingPaise(row) < batch.amountPaise(row)) {
             return "Ceiling cannot be less than amount";
         }
 
         // real-world: ceiling must be a valid multiple of 100
-        if (txn.getCeiling() != null && txn.getCeiling() % 100 != 0) {
+        if (batch.hasCeiling(row) && batch.ceilingPaise(row) % CEILING_STEP_PAISE != 0) {
             return "Ceiling must be a multiple of 100";
         }
 
         // real-world: remanent must match ceiling - amount
-        if (txn.getCeiling() != null && txn.getAmount() != null && txn.getRemanent() != null) {
-            double expectedRemanent = txn.getCeiling() - txn.getAmount();
-            if (Math.abs(txn.getRemanent() - expectedRemanent) > 0.01) {
+        if (batch.hasCeiling(row) && batch.hasAmount(row) && batch.hasRemanent(row)) {
+            long expectedRemanent = batch.ceilingPaise(row) - batch.amountPaise(row);
+            if (Math.abs(batch.remanentPaise(row) - expectedRemanent) > 1) {
                 return "Remanent does not match ceiling minus amount";
             }
         }
@@ -79,12 +125,12 @@ public class ValidationService {
         return null; // valid
     }
 
-    private Transaction copyTransaction(Transaction source) {
+    private Transaction copyRow(TransactionBatch batch, int row) {
         Transaction copy = new Transaction();
-        copy.setDate(source.getDate());
-        copy.setAmount(source.getAmount());
-        copy.setCeiling(source.getCeiling());
-        copy.setRemanent(source.getRemanent());
+        copy.setDate(batch.date(row));
+        copy.setAmount(batch.amountOrNull(row));
+        copy.setCeiling(batch.ceilingOrNull(row));
+        copy.setRemanent(batch.remanentOrNull(row));
         return copy;
     }
 
@@ -0,0 +1,131 @@
+package com.blackrock.retirement.controller;
+
+// Test type: Integration Test
+// Validation: Tests the /returns result cache ETags, its rule set lookups and the NDJSON timeline through MockMvc
+// Command: mvn test -Dtest=ReturnsControllerTest
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ReturnsControllerTest {
+
+    private static final String BASE = "/blackrock/challenge/v1";
+
+    private static final String TRANSACTIONS = "\"transactions\": ["
+            + "{\"date\": \"2024-02-15 12:30:00\", \"amount\": 150.75, \"ceiling\": 200.0, \"remanent\": 49.25},"
+            + "{\"date\": \"2024-03-10 09:00:00\", \"amount\": 620.0, \"ceiling\": 700.0, \"remanent\": 80.0}]";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("A cached result should answer a matching If-None-Match with 304 and no body")
+    void testNotModified() throws Exception {
+        String body = "{\"age\": 30, \"wage\": 50000, \"inflation\": 5.5, \"q\": [], \"p\": [],"
+                + "\"k\": [{\"start\": \"2024-01-01 00:00\", \"end\": \"2024-12-31 23:59\"}], " + TRANSACTIONS + "}";
+
+        String etag = returnsNps(body).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+
+        mvc.perform(post(BASE + "/returns:nps").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+
+        mvc.perform(post(BASE + "/returns:nps").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"someone-else\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    @DisplayName("A cached result should not outlive the rule set it was computed from")
+    void testDeletedRuleSet() throws Exception {
+        String registered = mvc.perform(post(BASE + "/rulesets:register").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"q\": [], \"p\": [{\"extra\": 17, \"start\": \"2024-01-01 00:00\","
+                                + " \"end\": \"2024-04-01 00:00\"}],"
+                                + " \"k\": [{\"start\": \"2024-01-01 00:00\", \"end\": \"2024-06-01 00:00\"}]}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String ruleSetId = objectMapper.readTree(registered).get("ruleSetId").asText();
+        String body = "{\"age\": 30, \"wage\": 50000, \"inflation\": 5.5, \"ruleSetId\": \"" + ruleSetId + "\", "
+                + TRANSACTIONS + "}";
+
+        String etag = returnsNps(body).andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(delete(BASE + "/rulesets/" + ruleSetId)).andExpect(status().isNoContent());
+
+        returnsNps(body).andExpect(status().isNotFound());
+        mvc.perform(post(BASE + "/returns:nps").contentType(MediaType.APPLICATION_JSON).content(body)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("Timeline should stream one NDJSON series per line whose last point matches /returns")
+    void testTimeline() throws Exception {
+        String periods = "\"age\": 55, \"wage\": 50000, \"inflation\": 6, \"q\": [], \"p\": [], \"k\": ["
+                + "{\"start\": \"2024-01-01 00:00\", \"end\": \"2024-12-31 23:59\"},"
+                + "{\"start\": \"2024-03-01 00:00\", \"end\": \"2024-12-31 23:59\"}], " + TRANSACTIONS;
+
+        MvcResult started = mvc.perform(post(BASE + "/returns:timeline").contentType(MediaType.APPLICATION_JSON)
+                        .content("{" + periods + ", \"instruments\": [\"nps\", \"index\"]}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult result = mvc.perform(asyncDispatch(started)).andExpect(status().isOk()).andReturn();
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+        assertEquals(4, lines.length);
+
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode series = objectMapper.readTree(lines[i]);
+            String instrument = series.get("instrument").asText();
+            JsonNode points = series.get("points");
+            // 60 - 55 years to retirement, one point a year
+            assertEquals(5, points.size());
+            assertEquals(5, points.get(4).get("year").asInt());
+
+            String returns = mvc.perform(post(BASE + "/returns:" + instrument)
+                            .contentType(MediaType.APPLICATION_JSON).content("{" + periods + "}"))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            JsonNode saving = objectMapper.readTree(returns).get("savingsByDates").get(i % 2);
+            assertEquals(saving.get("start").asText(), series.get("start").asText());
+            assertEquals(saving.get("amount").asDouble(), series.get("amount").asDouble());
+            assertEquals(saving.get("amount").asDouble() + saving.get("profit").asDouble(),
+                    points.get(4).get("realBalance").asDouble(), 1e-9, lines[i]);
+        }
+    }
+
+    private ResultActions returnsNps(String body) throws Exception {
+        return mvc.perform(post(BASE + "/returns:nps").contentType(MediaType.APPLICATION_JSON).content(body));
+    }
+}
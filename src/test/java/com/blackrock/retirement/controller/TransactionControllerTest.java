@@ -0,0 +1,237 @@
+package com.blackrock.retirement.controller;
+
+// Test type: Integration Test
+// Validation: Tests the streaming and NDJSON transaction endpoints end to end through MockMvc
+// Command: mvn test -Dtest=TransactionControllerTest
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class TransactionControllerTest {
+
+    private static final String BASE = "/blackrock/challenge/v1";
+
+    // more rows than one NDJSON chunk of 4096, so the stream spans two chunks
+    private static final int NDJSON_ROWS = 5000;
+    private static final int DUPLICATED_ROW = 10;
+    private static final int DUPLICATE_ROW = 4500;
+
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("Streaming parse should return the same transactions as the buffered parse")
+    void testStreamingParse() throws Exception {
+        String body = "{\"expenses\": ["
+                + "{\"timestamp\": \"2024-02-15 12:30:45\", \"amount\": 150.75},"
+                + "{\"timestamp\": \"2024-03-10 09:00:00\", \"amount\": 620.0}]}";
+
+        MvcResult streamed = stream(post(BASE + "/transactions:parse?stream=true")
+                .contentType(MediaType.APPLICATION_JSON).content(body));
+        String buffered = mvc.perform(post(BASE + "/transactions:parse")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(200, streamed.getResponse().getStatus());
+        assertEquals(buffered, streamed.getResponse().getContentAsString());
+        assertTrue(buffered.contains("\"remanent\":49.25"));
+    }
+
+    @Test
+    @DisplayName("Streaming parse should end a malformed element with a terminal error record")
+    void testStreamingParseMalformedElement() throws Exception {
+        String body = "{\"expenses\": ["
+                + "{\"timestamp\": \"2024-02-15 12:30:45\", \"amount\": 150.75},"
+                + "{\"timestamp\": \"2024-03-10 09:00:00\", \"amount\": 62x}]}";
+
+        String streamed = stream(post(BASE + "/transactions:parse?stream=true")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).getResponse().getContentAsString();
+
+        assertTrue(streamed.startsWith("{\"transactions\":[{\"date\":\"2024-02-15 12:30:00\""));
+        assertTrue(streamed.contains("],\"error\":{\"index\":1,\"message\":\"Expense 1: malformed JSON"));
+        assertTrue(streamed.endsWith("}}"));
+    }
+
+    @Test
+    @DisplayName("A missing amount should be rejected by the buffered, streaming and NDJSON parse alike")
+    void testMissingAmount() throws Exception {
+        String body = "{\"expenses\": ["
+                + "{\"timestamp\": \"2024-02-15 12:30:45\", \"amount\": 150.75},"
+                + "{\"timestamp\": \"2024-03-10 09:00:00\"}]}";
+
+        mvc.perform(post(BASE + "/transactions:parse")
+                        .contentType(MediaType.APPLICATION_JSON).content(body))
+                .andExpect(status().isBadRequest());
+
+        String streamed = stream(post(BASE + "/transactions:parse?stream=true")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).getResponse().getContentAsString();
+        assertTrue(streamed.endsWith("],\"error\":{\"index\":1,\"message\":\"Expense 1: missing amount\"}}"));
+
+        String ndjson = stream(post(BASE + "/transactions:parse")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"timestamp\": \"2024-02-15 12:30:45\", \"amount\": 150.75}\n"
+                        + "{\"timestamp\": \"2024-03-10 09:00:00\"}\n")).getResponse().getContentAsString();
+        assertEquals("{\"date\":\"2024-02-15 12:30:00\",\"amount\":150.75,\"ceiling\":200.0,\"remanent\":49.25}\n"
+                + "{\"error\":{\"line\":1,\"message\":\"Expense 1: missing amount\"}}\n", ndjson);
+    }
+
+    @Test
+    @DisplayName("Streaming parse should accept and reject the same bodies as the buffered parse")
+    void testStreamingParseParity() throws Exception {
+        String first = "{\"timestamp\": \"2024-02-15 12:30:45\", \"amount\": 150.75}";
+        String firstOut = "{\"transactions\":[{\"date\":\"2024-02-15 12:30:00\",\"amount\":150.75,"
+                + "\"ceiling\":200.0,\"remanent\":49.25}";
+
+        // coerced the same way: a numeric string amount, a missing or null expenses list
+        String[] accepted = {
+                "{\"expenses\": [" + first + ", {\"timestamp\": \"2024-03-10 09:00:00\", \"amount\": \" 250 \"}]}",
+                "{}",
+                "{\"expenses\": null}"
+        };
+        for (String body : accepted) {
+            String buffered = mvc.perform(post(BASE + "/transactions:parse")
+                            .contentType(MediaType.APPLICATION_JSON).content(body))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            assertEquals(buffered, streamParse(body), body);
+        }
+
+        // rejected by both: 400 when buffered, a terminal error after the valid expenses when streamed
+        String[][] rejected = {
+                {"{\"expenses\": [" + first + ", 1, " + first + "]}",
+                        ",\"error\":{\"index\":1,\"message\":\"Expense 1: not an expense object\"}}"},
+                {"{\"expenses\": [" + first + ", null]}",
+                        ",\"error\":{\"index\":1,\"message\":\"Expense 1: not an expense object\"}}"},
+                {"{\"expenses\": [" + first + ", {\"timestamp\": {\"timestamp\": \"2024-03-10 09:00:00\"},"
+                        + " \"amount\": 250}]}",
+                        ",\"error\":{\"index\":1,\"message\":\"Expense 1: timestamp must be a string\"}}"},
+                {"{\"expenses\": [" + first + ", {\"timestamp\": \"2024-03-10 09:00:00\", \"amount\": \"abc\"}]}",
+                        ",\"error\":{\"index\":1,\"message\":\"Expense 1: amount must be a number\"}}"},
+                {"{\"expenses\": [" + first + ", {\"timestamp\": \"2024-03-10 09:00:00\", \"amount\": \"\"}]}",
+                        ",\"error\":{\"index\":1,\"message\":\"Expense 1: missing amount\"}}"},
+        };
+        for (String[] c : rejected) {
+            mvc.perform(post(BASE + "/transactions:parse").contentType(MediaType.APPLICATION_JSON).content(c[0]))
+                    .andExpect(status().isBadRequest());
+            String streamed = streamParse(c[0]);
+            assertEquals(firstOut + "]" + c[1], streamed, c[0]);
+        }
+
+        String[][] badRoots = {
+                {"[]", "Request body must be a JSON object"},
+                {"{\"expenses\": {}}", "expenses must be an array"}
+        };
+        for (String[] c : badRoots) {
+            mvc.perform(post(BASE + "/transactions:parse").contentType(MediaType.APPLICATION_JSON).content(c[0]))
+                    .andExpect(status().isBadRequest());
+            assertEquals("{\"transactions\":[],\"error\":{\"index\":0,\"message\":\"" + c[1] + "\"}}",
+                    streamParse(c[0]), c[0]);
+        }
+    }
+
+    @Test
+    @DisplayName("NDJSON validator should answer one object per line in input order, with duplicates found across chunks")
+    void testValidatorNdjson() throws Exception {
+        MvcResult result = stream(post(BASE + "/transactions:validator?wage=50000")
+                .contentType(MediaType.APPLICATION_NDJSON).content(ndjsonRows()));
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        assertNdjsonRows(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("NDJSON filter should answer one object per line in input order, with duplicates found across chunks")
+    void testFilterNdjson() throws Exception {
+        MvcResult result = stream(post(BASE + "/transactions:filter")
+                .contentType(MediaType.APPLICATION_NDJSON).content(ndjsonRows()));
+
+        assertEquals(MediaType.APPLICATION_NDJSON_VALUE, result.getResponse().getContentType());
+        assertNdjsonRows(result.getResponse().getContentAsString());
+    }
+
+    @Test
+    @DisplayName("NDJSON filter should reject a row with a missing or malformed date and keep streaming")
+    void testFilterNdjsonBadDate() throws Exception {
+        String ndjson = stream(post(BASE + "/transactions:filter")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content("{\"date\": \"2023-10-12 20:15:00\", \"amount\": 250.0}\n"
+                        + "{\"date\": \"bad\", \"amount\": 120.0}\n"
+                        + "{\"amount\": 80.0}\n"
+                        + "{\"date\": \"2023-10-13 09:00:00\", \"amount\": 75.0}\n"))
+                .getResponse().getContentAsString();
+
+        String[] lines = ndjson.split("\n");
+        assertEquals(4, lines.length);
+        assertFalse(objectMapper.readTree(lines[0]).hasNonNull("message"));
+        assertEquals("Missing or malformed date", objectMapper.readTree(lines[1]).get("message").asText());
+        assertEquals("Missing or malformed date", objectMapper.readTree(lines[2]).get("message").asText());
+        assertEquals(25.0, objectMapper.readTree(lines[3]).get("remanent").asDouble());
+        assertFalse(ndjson.contains("\"error\""));
+    }
+
+    // one transaction a minute with amount row + 1, except that a row in the second chunk
+    // repeats the date of a row in the first
+    private static String ndjsonRows() {
+        LocalDateTime start = LocalDateTime.of(2024, 1, 1, 0, 0);
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < NDJSON_ROWS; i++) {
+            LocalDateTime date = start.plusMinutes(i == DUPLICATE_ROW ? DUPLICATED_ROW : i);
+            body.append("{\"date\": \"").append(date.format(DATE_FORMAT))
+                    .append("\", \"amount\": ").append(i + 1).append("}\n");
+        }
+        return body.toString();
+    }
+
+    private void assertNdjsonRows(String ndjson) throws Exception {
+        assertTrue(ndjson.endsWith("\n"));
+        String[] lines = ndjson.split("\n");
+        assertEquals(NDJSON_ROWS, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode row = objectMapper.readTree(lines[i]);
+            assertTrue(row.isObject(), "line " + i);
+            assertEquals(i + 1, row.get("amount").asDouble(), "line " + i);
+            if (i == DUPLICATE_ROW) {
+                assertEquals("Duplicate transaction", row.get("message").asText());
+            } else {
+                assertFalse(row.hasNonNull("message"), "line " + i);
+            }
+        }
+    }
+
+    private String streamParse(String body) throws Exception {
+        return stream(post(BASE + "/transactions:parse?stream=true")
+                .contentType(MediaType.APPLICATION_JSON).content(body)).getResponse().getContentAsString();
+    }
+
+    // runs a request whose body is streamed asynchronously and returns the completed result
+    private MvcResult stream(RequestBuilder request) throws Exception {
+        MvcResult started = mvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+        return mvc.perform(asyncDispatch(started)).andReturn();
+    }
+}
@@ -0,0 +1,112 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests DuplicateDetector hashed and sorted modes against a HashSet of date strings
+// Command: mvn test -Dtest=DuplicateDetectorTest
+
+import com.blackrock.retirement.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDetectorTest {
+
+    @Test
+    @DisplayName("Should tell minute and second forms of the same instant apart, like string equality")
+    void testMinuteAndSecondForms() {
+        TransactionBatch batch = batchOf("2024-01-15 10:30", "2024-01-15 10:30:00", "2024-01-15 10:30", null, null);
+        DuplicateDetector detector = DuplicateDetector.hashed(batch.size());
+
+        boolean[] duplicates = new boolean[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            duplicates[i] = detector.contains(batch, i);
+            detector.add(batch, i);
+        }
+
+        assertFalse(duplicates[0]);
+        assertFalse(duplicates[1]);
+        assertTrue(duplicates[2]);
+        // null dates are never duplicates
+        assertFalse(duplicates[3]);
+        assertFalse(duplicates[4]);
+    }
+
+    @Test
+    @DisplayName("Hashed mode should match a HashSet of date strings, including non fixed-width dates")
+    void testHashedMatchesStringSet() {
+        Random random = new Random(11);
+        List<String> dates = new ArrayList<>();
+        for (int i = 0; i < 50000; i++) {
+            int minute = random.nextInt(600);
+            String date = String.format("2024-03-%02d %02d:%02d", 1 + minute / 60, minute % 60 / 10, minute % 10);
+            int form = random.nextInt(10);
+            if (form < 4) {
+                date += ":00";
+            } else if (form == 4) {
+                // single-digit hour: valid for the flexible formatter, but not fixed width
+                date = date.replace(" 0", " ");
+            }
+            dates.add(date);
+        }
+
+        assertMatchesStringSet(batchOf(dates.toArray(new String[0])), DuplicateDetector.hashed(16));
+    }
+
+    @Test
+    @DisplayName("Sorted mode should match a HashSet of date strings on time-ordered input")
+    void testSortedMatchesStringSet() {
+        Random random = new Random(5);
+        long ts = TimestampCodec.parse("2024-01-01 00:00");
+        List<String> dates = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            ts += random.nextInt(3) * 60L;
+            String date = TimestampCodec.format(ts);
+            dates.add(random.nextBoolean() ? date : date.substring(0, 16));
+        }
+
+        TransactionBatch batch = batchOf(dates.toArray(new String[0]));
+        assertTrue(batch.isSortedByTimestamp());
+        assertMatchesStringSet(batch, DuplicateDetector.forBatch(batch));
+    }
+
+    @Test
+    @DisplayName("Sorted mode should reject input that goes back in time")
+    void testSortedRejectsUnsortedInput() {
+        TransactionBatch batch = batchOf("2024-01-15 10:30:00", "2024-01-14 10:30:00");
+        assertFalse(batch.isSortedByTimestamp());
+
+        DuplicateDetector detector = DuplicateDetector.sorted();
+        detector.add(batch, 0);
+        assertThrows(IllegalStateException.class, () -> detector.contains(batch, 1));
+    }
+
+    private static void assertMatchesStringSet(TransactionBatch batch, DuplicateDetector detector) {
+        Set<String> seen = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            String date = batch.date(i);
+            assertEquals(date != null && seen.contains(date), detector.contains(batch, i), "row " + i);
+            // skip some adds, as the services do for rows rejected by other rules
+            if (i % 7 != 3) {
+                seen.add(date);
+                detector.add(batch, i);
+            }
+        }
+    }
+
+    private static TransactionBatch batchOf(String... dates) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (String date : dates) {
+            Transaction txn = new Transaction();
+            txn.setDate(date);
+            transactions.add(txn);
+        }
+        return TransactionBatch.of(transactions);
+    }
+}
@@ -0,0 +1,44 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests GoalSeek closed-form inversion and bracketed root search on kinked functions
+// Command: mvn test -Dtest=GoalSeekTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GoalSeekTest {
+
+    @Test
+    @DisplayName("Linear goals should invert in closed form, and be unsolvable without slope")
+    void testLinear() {
+        assertEquals(4.0, GoalSeek.linear(2.0, 0.5, 4.0));
+        assertEquals(-4.0, GoalSeek.linear(2.0, 0.5, 0.0));
+        assertTrue(Double.isNaN(GoalSeek.linear(2.0, 0.0, 4.0)));
+    }
+
+    @Test
+    @DisplayName("Bracketed search should find the smallest root of increasing piecewise-linear functions")
+    void testIncreasingRoot() {
+        // a tax-like curve: slopes 0, 0.05, 0.2 and 0.3 with kinks, plus a linear part
+        TaxSchedule slabs = TaxSchedule.compile(new double[]{700000, 1000000, 1200000}, new double[]{0.05, 0.2, 0.3});
+        for (double target : new double[]{10, 5000, 123456.78, 400000}) {
+            DoubleUnaryOperator f = x -> 0.1 * x + slabs.tax(x) - target;
+            double root = GoalSeek.increasingRoot(f, 0, 1e7, 1e-6);
+            assertTrue(f.applyAsDouble(root) >= 0, "target " + target);
+            assertTrue(f.applyAsDouble(root - 1e-5) < 0, "target " + target);
+        }
+
+        // flat at the root: the leftmost point reaching zero is returned
+        DoubleUnaryOperator flat = x -> Math.min(x - 3, 0);
+        assertEquals(3.0, GoalSeek.increasingRoot(flat, 0, 10, 1e-9), 1e-8);
+
+        // already reached at lo, never reached at hi
+        assertEquals(1.0, GoalSeek.increasingRoot(x -> x, 1, 2, 1e-9));
+        assertEquals(2.0, GoalSeek.increasingRoot(x -> x - 5, 1, 2, 1e-9));
+    }
+}
@@ -0,0 +1,108 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests KPeriodIndex membership, prefix-sum k-period aggregation and compounded timelines
+// Command: mvn test -Dtest=KPeriodIndexTest
+
+import com.blackrock.retirement.model.KPeriod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KPeriodIndexTest {
+
+    @Test
+    @DisplayName("Should report membership across merged, inclusive k-periods")
+    void testCovers() {
+        KPeriodIndex index = KPeriodIndex.compile(Arrays.asList(
+                new KPeriod("2024-03-01 00:00", "2024-03-31 23:59"),
+                new KPeriod("2024-01-01 00:00", "2024-01-31 23:59"),
+                new KPeriod("2024-01-15 00:00", "2024-02-10 00:00")));
+
+        assertTrue(index.covers(TimestampCodec.parse("2024-01-01 00:00")));
+        assertTrue(index.covers(TimestampCodec.parse("2024-02-05 00:00")));
+        assertTrue(index.covers(TimestampCodec.parse("2024-02-10 00:00")));
+        assertFalse(index.covers(TimestampCodec.parse("2024-02-10 00:00:01")));
+        assertTrue(index.covers(TimestampCodec.parse("2024-03-31 23:59")));
+        assertFalse(index.covers(TimestampCodec.parse("2024-04-01 00:00")));
+    }
+
+    @Test
+    @DisplayName("Should sum each overlapping and nested k-period independently")
+    void testSumByPeriod() {
+        long[] timestamps = {
+                TimestampCodec.parse("2024-03-10 00:00"),
+                TimestampCodec.parse("2024-01-10 00:00"),
+                TimestampCodec.parse("2024-02-10 00:00"),
+                TimestampCodec.parse("2024-12-31 23:59")
+        };
+        long[] remanents = {3000, 1000, 2000, 4000};
+        PrefixSumTimeline timeline = PrefixSumTimeline.of(timestamps, remanents, timestamps.length);
+
+        KPeriodIndex index = KPeriodIndex.compile(Arrays.asList(
+                new KPeriod("2024-01-01 00:00", "2024-12-31 23:59"),
+                new KPeriod("2024-02-01 00:00", "2024-02-29 23:59"),
+                new KPeriod("2024-01-10 00:00", "2024-03-10 00:00"),
+                new KPeriod("2025-01-01 00:00", "2025-12-31 23:59")));
+
+        long[] sums = index.sumByPeriod(timeline);
+
+        assertEquals(10000L, sums[0]);
+        assertEquals(2000L, sums[1]);
+        // both boundaries inclusive
+        assertEquals(6000L, sums[2]);
+        assertEquals(0L, sums[3]);
+    }
+
+    @Test
+    @DisplayName("Should return zero for a k-period whose start is after its end")
+    void testInvertedPeriod() {
+        long[] timestamps = {TimestampCodec.parse("2024-01-10 00:00")};
+        PrefixSumTimeline timeline = PrefixSumTimeline.of(timestamps, new long[]{1000}, 1);
+
+        KPeriodIndex index = KPeriodIndex.compile(Collections.singletonList(
+                new KPeriod("2024-12-31 00:00", "2024-01-01 00:00")));
+
+        assertEquals(0L, index.sumByPeriod(timeline)[0]);
+        assertFalse(index.covers(timestamps[0]));
+    }
+
+    @Test
+    @DisplayName("Compounded timeline sums should match compounding each value with Math.pow")
+    void testCompoundedMatchesPerValuePow() {
+        Random random = new Random(17);
+        long first = TimestampCodec.parse("2015-01-01 00:00");
+        int n = 5000;
+        long[] timestamps = new long[n];
+        long[] remanents = new long[n];
+        for (int i = 0; i < n; i++) {
+            // ten years of history, with some timestamps shared
+            timestamps[i] = first + random.nextInt(3650 * 24) * 3600L;
+            remanents[i] = random.nextInt(10000);
+        }
+        PrefixSumTimeline timeline = PrefixSumTimeline.of(timestamps, remanents, n);
+        long valuation = timeline.lastTimestamp() + 30 * PrefixSumTimeline.YEAR_SECONDS;
+
+        KPeriodIndex index = KPeriodIndex.compile(Arrays.asList(
+                new KPeriod("2015-01-01 00:00", "2024-12-31 23:59"),
+                new KPeriod("2018-03-01 00:00", "2018-03-31 23:59"),
+                new KPeriod("2030-01-01 00:00", "2030-12-31 23:59")));
+        double[] sums = index.sumByPeriod(timeline.compounded(valuation, 1.1449));
+
+        for (int k = 0; k < index.size(); k++) {
+            double expected = 0;
+            for (int i = 0; i < n; i++) {
+                if (timestamps[i] >= index.startAt(k) && timestamps[i] <= index.endAt(k)) {
+                    expected += remanents[i] * Math.pow(1.1449, (double) (valuation - timestamps[i]) / PrefixSumTimeline.YEAR_SECONDS);
+                }
+            }
+            assertEquals(expected, sums[k], Math.abs(expected) * 1e-9, "period " + k);
+        }
+        assertEquals(0.0, sums[2]);
+    }
+}
@@ -0,0 +1,47 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests KPeriodTotals incremental Fenwick totals against prefix-sum aggregation
+// Command: mvn test -Dtest=KPeriodTotalsTest
+
+import com.blackrock.retirement.model.KPeriod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KPeriodTotalsTest {
+
+    @Test
+    @DisplayName("Incremental totals should match prefix-sum aggregation for overlapping, nested and inverted periods")
+    void testMatchesPrefixSums() {
+        KPeriodIndex index = KPeriodIndex.compile(Arrays.asList(
+                new KPeriod("2024-01-01 00:00", "2024-12-31 23:59"),
+                new KPeriod("2024-02-01 00:00", "2024-02-29 23:59"),
+                new KPeriod("2024-01-10 00:00", "2024-03-10 00:00"),
+                new KPeriod("2024-03-10 00:00", "2024-03-10 00:00"),
+                new KPeriod("2024-12-31 00:00", "2024-01-01 00:00")));
+        KPeriodTotals totals = KPeriodTotals.of(index);
+
+        Random random = new Random(21);
+        long from = TimestampCodec.parse("2023-12-01 00:00");
+        int n = 20000;
+        long[] timestamps = new long[n];
+        long[] values = new long[n];
+        for (int i = 0; i < n; i++) {
+            // whole minutes, so period boundaries are hit exactly; some fall outside every period
+            timestamps[i] = from + random.nextInt(60 * 24 * 420) * 60L;
+            values[i] = random.nextInt(10000);
+            totals.add(timestamps[i], values[i]);
+
+            if (i % 5000 == 4999) {
+                long[] expected = index.sumByPeriod(PrefixSumTimeline.of(timestamps, values, i + 1));
+                assertArrayEquals(expected, totals.sumByPeriod());
+            }
+        }
+        assertEquals(0L, totals.sumByPeriod()[4]);
+    }
+}
@@ -0,0 +1,38 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests MonteCarloProjection determinism, percentile ordering and the deterministic case
+// Command: mvn test -Dtest=MonteCarloProjectionTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MonteCarloProjectionTest {
+
+    @Test
+    @DisplayName("Zero volatility should give plain compounding at every percentile")
+    void testZeroVolatility() {
+        double[] growth = MonteCarloProjection.growthQuantiles(0.0711, 0, 30, 1000, 1L, 0.05, 0.5, 0.95);
+
+        double expected = Math.pow(1.0711, 30);
+        assertEquals(expected, growth[0]);
+        assertEquals(expected, growth[1]);
+        assertEquals(expected, growth[2]);
+    }
+
+    @Test
+    @DisplayName("Same seed should reproduce the same percentiles, ordered p5 < p50 < p95")
+    void testSeededPercentiles() {
+        double[] first = MonteCarloProjection.growthQuantiles(0.1449, 0.18, 30, 200000, 7L, 0.05, 0.5, 0.95);
+        double[] second = MonteCarloProjection.growthQuantiles(0.1449, 0.18, 30, 200000, 7L, 0.05, 0.5, 0.95);
+
+        assertArrayEquals(first, second);
+        assertTrue(first[0] < first[1] && first[1] < first[2]);
+
+        // median growth is close to exp(years * E[log(1 + r)])
+        double logMean = Math.log(1.1449) - 0.18 * 0.18 / (2 * 1.1449 * 1.1449);
+        assertEquals(Math.exp(30 * logMean), first[1], 0.03 * first[1]);
+    }
+}
@@ -0,0 +1,97 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests PPeriodIndex sweep-line segments - overlapping extras, inclusive boundaries
+// Command: mvn test -Dtest=PPeriodIndexTest
+
+import com.blackrock.retirement.model.PPeriod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PPeriodIndexTest {
+
+    @Test
+    @DisplayName("Should return zero extra outside every p-period")
+    void testNoMatch() {
+        PPeriodIndex index = PPeriodIndex.compile(Collections.singletonList(
+                new PPeriod(25.0, "2024-01-01 00:00", "2024-01-31 23:59")));
+
+        assertEquals(0L, index.extraAt(TimestampCodec.parse("2024-02-01 00:00")));
+        assertEquals(4925L, index.apply(TimestampCodec.parse("2023-12-31 23:59"), 4925));
+    }
+
+    @Test
+    @DisplayName("Should sum extras of all overlapping p-periods")
+    void testOverlappingExtras() {
+        PPeriodIndex index = PPeriodIndex.compile(Arrays.asList(
+                new PPeriod(10.0, "2024-01-01 00:00", "2024-03-31 23:59"),
+                new PPeriod(20.0, "2024-02-01 00:00", "2024-02-29 23:59"),
+                new PPeriod(5.0, "2024-02-15 00:00", "2024-04-30 23:59")));
+
+        assertEquals(1000L, index.extraAt(TimestampCodec.parse("2024-01-15 00:00")));
+        assertEquals(3000L, index.extraAt(TimestampCodec.parse("2024-02-10 00:00")));
+        assertEquals(3500L, index.extraAt(TimestampCodec.parse("2024-02-20 00:00")));
+        assertEquals(1500L, index.extraAt(TimestampCodec.parse("2024-03-10 00:00")));
+        assertEquals(500L, index.extraAt(TimestampCodec.parse("2024-04-10 00:00")));
+    }
+
+    @Test
+    @DisplayName("Should treat both boundaries as inclusive")
+    void testInclusiveBoundaries() {
+        PPeriodIndex index = PPeriodIndex.compile(Arrays.asList(
+                new PPeriod(10.0, "2024-01-01 00:00", "2024-01-10 00:00"),
+                new PPeriod(20.0, "2024-01-10 00:00", "2024-01-20 00:00")));
+
+        assertEquals(1000L, index.extraAt(TimestampCodec.parse("2024-01-01 00:00")));
+        // shared boundary second belongs to both periods
+        assertEquals(3000L, index.extraAt(TimestampCodec.parse("2024-01-10 00:00")));
+        assertEquals(2000L, index.extraAt(TimestampCodec.parse("2024-01-10 00:00:01")));
+        assertEquals(2000L, index.extraAt(TimestampCodec.parse("2024-01-20 00:00")));
+        assertEquals(0L, index.extraAt(TimestampCodec.parse("2024-01-20 00:00:01")));
+    }
+
+    @Test
+    @DisplayName("Should match a linear scan on random overlapping periods")
+    void testMatchesLinearScan() {
+        Random random = new Random(7);
+        long base = TimestampCodec.parse("2024-01-01 00:00");
+
+        List<PPeriod> periods = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            long start = base + random.nextInt(1000) * 60L;
+            long end = start + random.nextInt(300) * 60L;
+            periods.add(new PPeriod(1 + random.nextInt(50), format(start), format(end)));
+        }
+
+        PPeriodIndex index = PPeriodIndex.compile(periods);
+
+        for (int t = 0; t < 2000; t++) {
+            long ts = base + random.nextInt(1400) * 60L;
+
+            long expected = 0;
+            for (PPeriod p : periods) {
+                if (ts >= TimestampCodec.parse(p.getStart()) && ts <= TimestampCodec.parse(p.getEnd())) {
+                    expected += Paise.of(p.getExtra());
+                }
+            }
+
+            assertEquals(expected, index.extraAt(ts), "timestamp " + format(ts));
+        }
+    }
+
+    private static String format(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    }
+}
@@ -0,0 +1,95 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests Paise rounding against BigDecimal HALF_UP, range checks and the ceiling to the next 100 rupees
+// Command: mvn test -Dtest=PaiseTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaiseTest {
+
+    @Test
+    @DisplayName("Rounding should match BigDecimal HALF_UP, including ties the double sits just below")
+    void testMatchesBigDecimalHalfUp() {
+        double[] ties = {1.005, 2.675, 0.125, -1.005, 1.115, 150.755, 0.0, -0.0};
+        for (double value : ties) {
+            assertEquals(bigDecimalRound(value), Paise.round(value), "value " + value);
+        }
+
+        Random random = new Random(3);
+        for (int i = 0; i < 100000; i++) {
+            // three-decimal rupee amounts, a quarter of them exact ties
+            double value = (random.nextInt(200_000_000) - 100_000_000) / 1000.0;
+            assertEquals(bigDecimalRound(value), Paise.round(value), "value " + value);
+
+            double wide = random.nextGaussian() * 1e7;
+            assertEquals(bigDecimalRound(wide), Paise.round(wide), "value " + wide);
+        }
+    }
+
+    @Test
+    @DisplayName("Rounding should match BigDecimal HALF_UP for doubles a few ulps either side of a tie")
+    void testNearTies() {
+        assertEquals(69548985L, Paise.of(695489.8549999994));
+        assertEquals(69548986L, Paise.of(695489.855));
+
+        Random random = new Random(11);
+        for (int i = 0; i < 100000; i++) {
+            // a three-decimal tie anywhere up to 2 * 10^11 rupees, moved up to 8 ulps either way
+            double value = (random.nextLong(20_000_000_000_000L) * 10 + 5) / 1000.0;
+            if (random.nextBoolean()) {
+                value = -value;
+            }
+            int ulps = random.nextInt(17) - 8;
+            for (int step = 0; step < Math.abs(ulps); step++) {
+                value = (ulps > 0) ? Math.nextUp(value) : Math.nextDown(value);
+            }
+            assertEquals(bigDecimalPaise(value), Paise.of(value), "value " + value);
+        }
+    }
+
+    @Test
+    @DisplayName("Amounts that do not fit in paise should be rejected rather than saturated")
+    void testOutOfRange() {
+        assertEquals(90_000_000_000_000_000L, Paise.of(9e14));
+        assertEquals(-90_000_000_000_000_000L, Paise.of(-9e14));
+        assertThrows(ArithmeticException.class, () -> Paise.of(1e20));
+        assertThrows(ArithmeticException.class, () -> Paise.of(-1e20));
+        assertThrows(ArithmeticException.class, () -> Paise.of(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> Paise.of(Double.NEGATIVE_INFINITY));
+        assertEquals(1e20, Paise.round(1e20));
+
+        assertEquals(922337203685480000L, Paise.ceilToHundredRupees(Paise.MAX_PAISE * 10));
+        assertThrows(ArithmeticException.class, () -> Paise.ceilToHundredRupees(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("Ceiling should round up to the next 100 rupees and keep exact multiples")
+    void testCeilToHundredRupees() {
+        assertEquals(20000L, Paise.ceilToHundredRupees(Paise.of(150.75)));
+        assertEquals(10000L, Paise.ceilToHundredRupees(Paise.of(50.0)));
+        assertEquals(10000L, Paise.ceilToHundredRupees(Paise.of(100.0)));
+        assertEquals(30000L, Paise.ceilToHundredRupees(Paise.of(200.01)));
+        assertEquals(0L, Paise.ceilToHundredRupees(0));
+        assertEquals(0L, Paise.ceilToHundredRupees(Paise.of(-50.0)));
+
+        // remanents are exact: 200 - 150.7 is not 49.3 in doubles
+        assertEquals(4930L, Paise.ceilToHundredRupees(Paise.of(150.7)) - Paise.of(150.7));
+        assertEquals(49.3, Paise.toRupees(4930));
+    }
+
+    private static long bigDecimalPaise(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    private static double bigDecimalRound(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP).doubleValue();
+    }
+}
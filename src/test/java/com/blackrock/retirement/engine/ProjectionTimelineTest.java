@@ -0,0 +1,53 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests ProjectionTimeline yearly/monthly steps against direct compounding
+// Command: mvn test -Dtest=ProjectionTimelineTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectionTimelineTest {
+
+    @Test
+    @DisplayName("Yearly steps should match compounding each year directly, ending on the full-term value")
+    void testYearlySteps() {
+        ProjectionTimeline timeline = new ProjectionTimeline(145.0, 0.0711, 0.055, 31, false);
+        int steps = 0;
+        while (timeline.next()) {
+            steps++;
+            assertEquals(steps, timeline.year());
+            assertEquals(12, timeline.month());
+            assertEquals(145.0 * Math.pow(1.0711, steps), timeline.balance(), 1e-9);
+        }
+        assertEquals(31, steps);
+        assertEquals(145.0 * Math.pow(1.0711, 31) / Math.pow(1.055, 31), timeline.realBalance());
+        assertFalse(timeline.next());
+    }
+
+    @Test
+    @DisplayName("Monthly steps should compound fractional years and agree with yearly steps at year ends")
+    void testMonthlySteps() {
+        ProjectionTimeline monthly = new ProjectionTimeline(1000.0, 0.1449, 0.06, 25, true);
+        ProjectionTimeline yearly = new ProjectionTimeline(1000.0, 0.1449, 0.06, 25, false);
+        int steps = 0;
+        while (monthly.next()) {
+            steps++;
+            assertEquals((steps - 1) / 12 + 1, monthly.year());
+            assertEquals((steps - 1) % 12 + 1, monthly.month());
+            double years = steps / 12.0;
+            assertEquals(1000.0 * Math.pow(1.1449, years), monthly.balance(), 1e-9 * monthly.balance());
+            assertEquals(1000.0 * Math.pow(1.1449 / 1.06, years), monthly.realBalance(), 1e-9 * monthly.realBalance());
+
+            if (monthly.month() == 12) {
+                assertTrue(yearly.next());
+                assertEquals(yearly.balance(), monthly.balance());
+                assertEquals(yearly.realBalance(), monthly.realBalance());
+            }
+        }
+        assertEquals(300, steps);
+        assertFalse(yearly.next());
+    }
+}
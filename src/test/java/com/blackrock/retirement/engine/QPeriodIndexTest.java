@@ -0,0 +1,107 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests QPeriodIndex winner timeline - latest start wins, ties go to the earliest index
+// Command: mvn test -Dtest=QPeriodIndexTest
+
+import com.blackrock.retirement.model.QPeriod;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QPeriodIndexTest {
+
+    @Test
+    @DisplayName("Should keep remanent when no q-period covers the timestamp")
+    void testNoMatch() {
+        QPeriodIndex index = QPeriodIndex.compile(Collections.singletonList(
+                new QPeriod(10.0, "2024-01-01 00:00", "2024-01-31 23:59")));
+
+        assertEquals(4925L, index.apply(TimestampCodec.parse("2024-02-01 00:00"), 4925));
+        assertEquals(4925L, index.apply(TimestampCodec.parse("2023-12-31 23:59"), 4925));
+    }
+
+    @Test
+    @DisplayName("Should treat both boundaries as inclusive")
+    void testInclusiveBoundaries() {
+        QPeriodIndex index = QPeriodIndex.compile(Collections.singletonList(
+                new QPeriod(10.0, "2024-01-01 00:00", "2024-01-31 23:59")));
+
+        assertEquals(1000L, index.apply(TimestampCodec.parse("2024-01-01 00:00"), 4925));
+        assertEquals(1000L, index.apply(TimestampCodec.parse("2024-01-31 23:59"), 4925));
+        assertEquals(4925L, index.apply(TimestampCodec.parse("2024-01-31 23:59:01"), 4925));
+    }
+
+    @Test
+    @DisplayName("Should prefer the earliest list index when starts are equal")
+    void testEqualStartTieBreak() {
+        QPeriodIndex index = QPeriodIndex.compile(Arrays.asList(
+                new QPeriod(10.0, "2024-01-01 00:00", "2024-01-10 00:00"),
+                new QPeriod(20.0, "2024-01-01 00:00", "2024-01-31 00:00")));
+
+        assertEquals(1000L, index.apply(TimestampCodec.parse("2024-01-05 00:00"), 0));
+        // first period has ended, the second one takes over
+        assertEquals(2000L, index.apply(TimestampCodec.parse("2024-01-20 00:00"), 0));
+    }
+
+    @Test
+    @DisplayName("Should fall back to the enclosing period once a nested one ends")
+    void testNestedPeriods() {
+        QPeriodIndex index = QPeriodIndex.compile(Arrays.asList(
+                new QPeriod(10.0, "2024-01-01 00:00", "2024-12-31 00:00"),
+                new QPeriod(20.0, "2024-03-01 00:00", "2024-03-31 00:00")));
+
+        assertEquals(1000L, index.apply(TimestampCodec.parse("2024-02-15 00:00"), 0));
+        assertEquals(2000L, index.apply(TimestampCodec.parse("2024-03-15 00:00"), 0));
+        assertEquals(1000L, index.apply(TimestampCodec.parse("2024-04-15 00:00"), 0));
+    }
+
+    @Test
+    @DisplayName("Should match a linear scan on random overlapping periods")
+    void testMatchesLinearScan() {
+        Random random = new Random(42);
+        long base = TimestampCodec.parse("2024-01-01 00:00");
+
+        List<QPeriod> periods = new ArrayList<>();
+        List<long[]> ranges = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long start = base + random.nextInt(1000) * 60L;
+            long end = start + random.nextInt(300) * 60L;
+            periods.add(new QPeriod(i, format(start), format(end)));
+            ranges.add(new long[]{start, end});
+        }
+
+        QPeriodIndex index = QPeriodIndex.compile(periods);
+
+        for (int t = 0; t < 2000; t++) {
+            long ts = base + random.nextInt(1400) * 60L;
+
+            long expected = -1;
+            long bestStart = Long.MIN_VALUE;
+            for (int i = 0; i < ranges.size(); i++) {
+                long[] r = ranges.get(i);
+                if (ts >= r[0] && ts <= r[1] && r[0] > bestStart) {
+                    bestStart = r[0];
+                    expected = Paise.of(periods.get(i).getFixed());
+                }
+            }
+
+            assertEquals(expected, index.apply(ts, -1), "timestamp " + format(ts));
+        }
+    }
+
+    private static String format(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)
+                .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+    }
+}
@@ -0,0 +1,69 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests QuantileSketch relative error on heavy-tailed data and exact merging
+// Command: mvn test -Dtest=QuantileSketchTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantileSketchTest {
+
+    private static final double[] QUANTILES = {0.0, 0.01, 0.25, 0.5, 0.75, 0.9, 0.99, 0.999, 1.0};
+
+    @Test
+    @DisplayName("Quantiles of heavy-tailed values should be within alpha of the exact sorted values")
+    void testRelativeErrorBound() {
+        Random random = new Random(17);
+        int n = 200000;
+        long[] values = new long[n];
+        QuantileSketch sketch = new QuantileSketch(0.01, 50_000_000L);
+        for (int i = 0; i < n; i++) {
+            // log-normal spends around 200 rupees with a long tail, and some zeros
+            values[i] = (i % 50 == 0) ? 0 : Math.min(50_000_000L, Math.round(Math.exp(9.9 + 1.5 * random.nextGaussian())));
+            sketch.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        assertEquals(n, sketch.count());
+        for (double q : QUANTILES) {
+            long exact = values[(int) (q * (n - 1))];
+            double estimate = sketch.quantile(q);
+            assertEquals(exact, estimate, 0.01 * exact * (1 + 1e-9), "quantile " + q);
+        }
+        assertTrue(Double.isNaN(new QuantileSketch(0.01, 100).quantile(0.5)));
+    }
+
+    @Test
+    @DisplayName("Merged sketches should answer exactly like one sketch over all values")
+    void testMergeIsExact() {
+        Random random = new Random(23);
+        QuantileSketch whole = new QuantileSketch(0.01, 10000);
+        QuantileSketch[] parts = new QuantileSketch[4];
+        for (int p = 0; p < parts.length; p++) {
+            parts[p] = new QuantileSketch(0.01, 10000);
+        }
+        for (int i = 0; i < 40000; i++) {
+            long value = random.nextInt(10000);
+            whole.add(value);
+            parts[random.nextInt(parts.length)].add(value);
+        }
+
+        QuantileSketch leftFirst = new QuantileSketch(0.01, 10000);
+        leftFirst.merge(parts[0]);
+        leftFirst.merge(parts[1]);
+        parts[2].merge(parts[3]);
+        leftFirst.merge(parts[2]);
+
+        assertEquals(whole.count(), leftFirst.count());
+        for (double q : QUANTILES) {
+            assertEquals(whole.quantile(q), leftFirst.quantile(q), "quantile " + q);
+        }
+        assertThrows(IllegalArgumentException.class, () -> whole.merge(new QuantileSketch(0.02, 10000)));
+    }
+}
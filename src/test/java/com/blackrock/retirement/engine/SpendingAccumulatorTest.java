@@ -0,0 +1,85 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests SpendingAccumulator single-pass statistics and that merging split runs matches one pass
+// Command: mvn test -Dtest=SpendingAccumulatorTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingAccumulatorTest {
+
+    @Test
+    @DisplayName("Should track totals, savings and the first highest and lowest spend")
+    void testSinglePass() {
+        SpendingAccumulator stats = new SpendingAccumulator();
+        stats.add(Paise.of(150.7), "2024-01-01 10:00:00");
+        stats.add(Paise.of(400.0), "2024-01-02 10:00:00");
+        stats.add(Paise.of(400.0), "2024-01-03 10:00:00");
+        stats.add(Paise.of(20.0), "2024-01-04 10:00:00");
+        stats.reject();
+
+        assertEquals(4, stats.getValidCount());
+        assertEquals(1, stats.getInvalidCount());
+        assertEquals(Paise.of(970.7), stats.getTotalSpentPaise());
+        // 49.30 + 0 + 0 + 80
+        assertEquals(Paise.of(129.3), stats.getTotalSavingsPaise());
+        assertEquals(Paise.of(400.0), stats.getHighestPaise());
+        assertEquals("2024-01-02 10:00:00", stats.getHighestDate());
+        assertEquals(Paise.of(20.0), stats.getLowestPaise());
+        assertEquals("2024-01-04 10:00:00", stats.getLowestDate());
+    }
+
+    @Test
+    @DisplayName("Merging consecutive runs in any grouping should match a single pass")
+    void testMergeMatchesSinglePass() {
+        Random random = new Random(11);
+        int n = 1000;
+        long[] amounts = new long[n];
+        boolean[] valid = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            // few distinct amounts so ties on highest and lowest are common
+            amounts[i] = random.nextInt(20) * 2500L;
+            valid[i] = random.nextInt(8) != 0;
+        }
+
+        SpendingAccumulator whole = fold(amounts, valid, 0, n);
+        for (int trial = 0; trial < 50; trial++) {
+            int a = random.nextInt(n + 1);
+            int b = a + random.nextInt(n - a + 1);
+            SpendingAccumulator leftFirst = fold(amounts, valid, 0, a)
+                    .merge(fold(amounts, valid, a, b)).merge(fold(amounts, valid, b, n));
+            SpendingAccumulator rightFirst = fold(amounts, valid, 0, a)
+                    .merge(fold(amounts, valid, a, b).merge(fold(amounts, valid, b, n)));
+            assertSame(whole, leftFirst);
+            assertSame(whole, rightFirst);
+        }
+    }
+
+    private static SpendingAccumulator fold(long[] amounts, boolean[] valid, int from, int to) {
+        SpendingAccumulator stats = new SpendingAccumulator();
+        for (int i = from; i < to; i++) {
+            if (valid[i]) {
+                stats.add(amounts[i], "row " + i);
+            } else {
+                stats.reject();
+            }
+        }
+        return stats;
+    }
+
+    private static void assertSame(SpendingAccumulator expected, SpendingAccumulator actual) {
+        assertEquals(expected.getValidCount(), actual.getValidCount());
+        assertEquals(expected.getInvalidCount(), actual.getInvalidCount());
+        assertEquals(expected.getTotalSpentPaise(), actual.getTotalSpentPaise());
+        assertEquals(expected.getTotalSavingsPaise(), actual.getTotalSavingsPaise());
+        assertEquals(expected.getHighestPaise(), actual.getHighestPaise());
+        assertEquals(expected.getHighestDate(), actual.getHighestDate());
+        assertEquals(expected.getLowestPaise(), actual.getLowestPaise());
+        assertEquals(expected.getLowestDate(), actual.getLowestDate());
+    }
+}
@@ -0,0 +1,82 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests SpendingAnomalyDetector spike and unusual-day flags and the bounded anomaly list
+// Command: mvn test -Dtest=SpendingAnomalyDetectorTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpendingAnomalyDetectorTest {
+
+    private static final long DAY = 86400;
+    private static final long START = TimestampCodec.parse("2024-01-01 00:00:00");
+
+    @Test
+    @DisplayName("Should flag a spend far above the recent level and nothing in steady spending")
+    void testSpike() {
+        Random random = new Random(43);
+        SpendingAnomalyDetector detector = new SpendingAnomalyDetector(5);
+        for (int i = 0; i < 200; i++) {
+            // one spend a day around 300 rupees, with a 5000-rupee spend on day 120
+            long amount = (i == 120) ? Paise.of(5000) : Paise.of(300 + 40 * random.nextGaussian());
+            long ts = START + i * DAY + 12 * 3600;
+            detector.observe(amount, TimestampCodec.format(ts), ts);
+        }
+
+        SpendingAnomalies anomalies = detector.finish();
+        int[] slots = anomalies.sortedSlots();
+        assertTrue(slots.length >= 1);
+        assertEquals(SpendingAnomalies.SPIKE, anomalies.kind(slots[0]));
+        assertEquals("2024-04-30 12:00:00", anomalies.date(slots[0]));
+        assertEquals(Paise.of(5000), anomalies.amountPaise(slots[0]));
+        assertEquals(Paise.of(300), anomalies.expectedPaise(slots[0]), Paise.of(60));
+        assertTrue(anomalies.score(slots[0]) > SpendingAnomalyDetector.SPIKE_Z);
+    }
+
+    @Test
+    @DisplayName("Should flag an unusual daily total with a robust z-score and keep only the top anomalies")
+    void testUnusualDayAndBound() {
+        Random random = new Random(47);
+        SpendingAnomalyDetector detector = new SpendingAnomalyDetector(3);
+        for (int day = 0; day < 60; day++) {
+            // five spends a day of about 100 rupees; day 40 has fifty of them
+            int spends = (day == 40) ? 50 : 5;
+            for (int s = 0; s < spends; s++) {
+                long ts = START + day * DAY + 3600 + s * 60;
+                detector.observe(Paise.of(100 + 5 * random.nextGaussian()), TimestampCodec.format(ts), ts);
+            }
+        }
+
+        SpendingAnomalies anomalies = detector.finish();
+        int[] slots = anomalies.sortedSlots();
+        assertTrue(slots.length <= 3);
+        boolean dayFlagged = false;
+        for (int slot : slots) {
+            if (anomalies.kind(slot) == SpendingAnomalies.UNUSUAL_DAY) {
+                assertEquals("2024-02-10", anomalies.date(slot));
+                assertTrue(anomalies.amountPaise(slot) > Paise.of(4500));
+                dayFlagged = true;
+            }
+        }
+        assertTrue(dayFlagged);
+    }
+
+    @Test
+    @DisplayName("Should flag nothing in near-constant spending")
+    void testNearConstantSpending() {
+        SpendingAnomalyDetector detector = new SpendingAnomalyDetector(5);
+        for (int day = 0; day < 100; day++) {
+            // 499.00 nearly every day, with the odd 499.01 or 499.02
+            long amount = Paise.of(499) + ((day % 17 == 0) ? 2 : (day % 11 == 0) ? 1 : 0);
+            long ts = START + day * DAY + 9 * 3600;
+            detector.observe(amount, TimestampCodec.format(ts), ts);
+        }
+
+        assertEquals(0, detector.finish().sortedSlots().length);
+    }
+}
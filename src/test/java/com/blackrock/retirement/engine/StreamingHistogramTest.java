@@ -0,0 +1,57 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests StreamingHistogram quantile error bound and merging
+// Command: mvn test -Dtest=StreamingHistogramTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingHistogramTest {
+
+    @Test
+    @DisplayName("Quantiles should be within one bin width of the exact sample quantiles")
+    void testQuantileErrorBound() {
+        Random random = new Random(3);
+        double[] values = new double[100000];
+        StreamingHistogram histogram = new StreamingHistogram(-5, 5, 1000);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextGaussian();
+            histogram.add(values[i]);
+        }
+        Arrays.sort(values);
+
+        double binWidth = 10.0 / 1000;
+        for (double q : new double[]{0.05, 0.5, 0.95, 0.99}) {
+            double exact = values[(int) (q * values.length) - 1];
+            assertEquals(exact, histogram.quantile(q), binWidth, "quantile " + q);
+        }
+        assertEquals(values.length, histogram.count());
+    }
+
+    @Test
+    @DisplayName("Merged histograms should equal one histogram fed all values")
+    void testMerge() {
+        StreamingHistogram all = new StreamingHistogram(0, 100, 64);
+        StreamingHistogram left = new StreamingHistogram(0, 100, 64);
+        StreamingHistogram right = new StreamingHistogram(0, 100, 64);
+        for (int i = 0; i < 1000; i++) {
+            double value = (i * 37) % 120 - 10;   // includes values outside the range
+            all.add(value);
+            (i % 3 == 0 ? left : right).add(value);
+        }
+
+        left.merge(right);
+
+        assertEquals(all.count(), left.count());
+        for (double q = 0.01; q < 1; q += 0.07) {
+            assertEquals(all.quantile(q), left.quantile(q));
+        }
+        assertThrows(IllegalArgumentException.class, () -> left.merge(new StreamingHistogram(0, 50, 64)));
+    }
+}
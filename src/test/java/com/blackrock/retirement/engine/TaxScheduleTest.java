@@ -0,0 +1,75 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests TaxSchedule against a branching slab calculation and its cached deduction deltas
+// Command: mvn test -Dtest=TaxScheduleTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxScheduleTest {
+
+    private static final TaxSchedule SIMPLIFIED = TaxSchedule.compile(
+            new double[]{700000, 1000000, 1200000, 1500000},
+            new double[]{0.10, 0.15, 0.20, 0.30});
+
+    @Test
+    @DisplayName("Compiled slabs should match slab-by-slab branching at every income, including slab edges")
+    void testMatchesBranchingTax() {
+        Random random = new Random(9);
+        double[] edges = {-5, 0, 700000, 1000000, 1200000, 1500000, 1500000.01, 699999.99};
+        for (double income : edges) {
+            assertEquals(branchingTax(income), SIMPLIFIED.tax(income), 1e-6, "income " + income);
+        }
+        for (int i = 0; i < 10000; i++) {
+            double income = random.nextDouble() * 3000000;
+            assertEquals(branchingTax(income), SIMPLIFIED.tax(income), 1e-6, "income " + income);
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> TaxSchedule.compile(new double[]{500000, 250000}, new double[]{0.05, 0.20}));
+        assertThrows(IllegalArgumentException.class,
+                () -> TaxSchedule.compile(new double[]{250000}, new double[]{1.5}));
+    }
+
+    @Test
+    @DisplayName("Cached deduction savings should equal the tax difference, below and above the cap")
+    void testDeductionSavings() {
+        double income = 1800000;
+        double cap = 180000;
+        TaxSchedule.DeductionSavings savings = SIMPLIFIED.deductionSavings(income, cap);
+
+        for (double amount : new double[]{-50, 0, 49.25, 100000, 179999.5, 180000, 500000}) {
+            double deduction = Math.min(amount, cap);
+            double expected = SIMPLIFIED.tax(income) - SIMPLIFIED.tax(income - deduction);
+            assertEquals(expected, savings.saving(amount), 1e-6, "amount " + amount);
+        }
+        // above the cap every amount saves the same
+        assertEquals(54000, savings.saving(1e9), 1e-6);
+    }
+
+    // the slab calculation the compiled table replaces
+    private static double branchingTax(double income) {
+        if (income <= 0) return 0;
+        double tax = 0;
+        if (income > 1500000) {
+            tax += (income - 1500000) * 0.30;
+            income = 1500000;
+        }
+        if (income > 1200000) {
+            tax += (income - 1200000) * 0.20;
+            income = 1200000;
+        }
+        if (income > 1000000) {
+            tax += (income - 1000000) * 0.15;
+            income = 1000000;
+        }
+        if (income > 700000) {
+            tax += (income - 700000) * 0.10;
+        }
+        return tax;
+    }
+}
@@ -0,0 +1,67 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests TimeBuckets growth in both directions, exact merges and the span cap
+// Command: mvn test -Dtest=TimeBucketsTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimeBucketsTest {
+
+    @Test
+    @DisplayName("Merged series in any grouping should match one series over all values")
+    void testMergeMatchesSingleSeries() {
+        Random random = new Random(31);
+        TimeBuckets whole = new TimeBuckets(1000);
+        TimeBuckets[] parts = {new TimeBuckets(1000), new TimeBuckets(1000), new TimeBuckets(1000)};
+        for (int i = 0; i < 5000; i++) {
+            // parts grow both before and after their first bucket
+            long bucket = 20000 + random.nextInt(700);
+            long amount = random.nextInt(100000);
+            whole.add(bucket, amount, amount / 10);
+            parts[random.nextInt(parts.length)].add(bucket, amount, amount / 10);
+        }
+
+        TimeBuckets merged = new TimeBuckets(1000);
+        parts[1].merge(parts[2]);
+        merged.merge(parts[0]);
+        merged.merge(parts[1]);
+
+        assertFalse(merged.isOverflowed());
+        assertEquals(whole.firstBucket(), merged.firstBucket());
+        assertEquals(whole.span(), merged.span());
+        for (int i = 0; i < whole.span(); i++) {
+            assertEquals(whole.count(i), merged.count(i));
+            assertEquals(whole.spentPaise(i), merged.spentPaise(i));
+            assertEquals(whole.savingsPaise(i), merged.savingsPaise(i));
+        }
+    }
+
+    @Test
+    @DisplayName("A span wider than the cap should stop the series, whether added or merged")
+    void testOverflow() {
+        TimeBuckets near = new TimeBuckets(10);
+        near.add(100, 500, 50);
+        near.add(109, 500, 50);
+        assertFalse(near.isOverflowed());
+        assertEquals(10, near.span());
+        assertEquals(1, near.count(9));
+
+        TimeBuckets far = new TimeBuckets(10);
+        far.add(90, 500, 50);
+        near.merge(far);
+        assertTrue(near.isOverflowed());
+        assertEquals(0, near.span());
+
+        // one outlying date never allocates beyond the cap
+        TimeBuckets outlier = new TimeBuckets(10);
+        outlier.add(0, 1, 1);
+        outlier.add(1_000_000_000L, 1, 1);
+        assertTrue(outlier.isOverflowed());
+    }
+}
@@ -0,0 +1,102 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests TimestampCodec fast path against java.time parsing, formatting, and error parity
+// Command: mvn test -Dtest=TimestampCodecTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimestampCodecTest {
+
+    private static final DateTimeFormatter REFERENCE = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm")
+            .optionalStart()
+            .appendPattern(":ss")
+            .optionalEnd()
+            .parseDefaulting(ChronoField.SECOND_OF_MINUTE, 0)
+            .toFormatter();
+
+    @Test
+    @DisplayName("Should parse both minute and second precision timestamps")
+    void testParseBothWidths() {
+        assertEquals(reference("2024-02-15 12:30"), TimestampCodec.parse("2024-02-15 12:30"));
+        assertEquals(reference("2024-02-15 12:30:45"), TimestampCodec.parse("2024-02-15 12:30:45"));
+        assertEquals(0L, TimestampCodec.parse("1970-01-01 00:00"));
+    }
+
+    @Test
+    @DisplayName("Should match java.time on random dates, including leap days")
+    void testMatchesJavaTime() {
+        Random random = new Random(11);
+        for (int i = 0; i < 5000; i++) {
+            long epochSecond = random.nextLong() % 4_000_000_000L;
+            String text = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)
+                    .format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
+
+            assertEquals(reference(text), TimestampCodec.parse(text), text);
+            assertEquals(text, TimestampCodec.format(epochSecond));
+        }
+        assertEquals(reference("2024-02-29 23:59:59"), TimestampCodec.parse("2024-02-29 23:59:59"));
+    }
+
+    @Test
+    @DisplayName("Should resolve out-of-range days the same way as the formatter")
+    void testSmartResolutionFallback() {
+        // the formatter clamps day 30 of February to the last valid day
+        assertEquals(reference("2023-02-30 10:00"), TimestampCodec.parse("2023-02-30 10:00"));
+        assertEquals(TimestampCodec.NOT_FIXED_WIDTH, TimestampCodec.tryParse("2023-02-30 10:00"));
+    }
+
+    @Test
+    @DisplayName("Should reject malformed input with the same exception as the formatter")
+    void testMalformedInputErrors() {
+        String[] malformed = {"", "2024-02-15", "2024/02/15 12:30", "2024-02-15T12:30",
+                "2024-13-01 00:00", "2024-02-15 25:00", "2024-02-15 12:3a", "2024-02-15 12:30:"};
+
+        for (String text : malformed) {
+            DateTimeParseException expected = assertThrows(DateTimeParseException.class,
+                    () -> LocalDateTime.parse(text, REFERENCE));
+            DateTimeParseException actual = assertThrows(DateTimeParseException.class,
+                    () -> TimestampCodec.parse(text), text);
+            assertEquals(expected.getMessage(), actual.getMessage());
+        }
+        assertThrows(NullPointerException.class, () -> TimestampCodec.parse(null));
+    }
+
+    @Test
+    @DisplayName("Should truncate seconds to the start of the minute")
+    void testTruncateToMinute() {
+        long timestamp = TimestampCodec.parse("2024-01-01 09:15:59");
+        assertEquals("2024-01-01 09:15:00", TimestampCodec.format(TimestampCodec.truncateToMinute(timestamp)));
+    }
+
+    @Test
+    @DisplayName("Calendar fields should match java.time, including before 1970")
+    void testCalendarFields() {
+        Random random = new Random(29);
+        for (int i = 0; i < 100000; i++) {
+            long epochSecond = random.nextLong() % 200_000_000_000L;
+            LocalDateTime time = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+
+            assertEquals(time.toLocalDate().toEpochDay(), TimestampCodec.epochDay(epochSecond));
+            assertEquals((time.getYear() - 1970) * 12L + time.getMonthValue() - 1, TimestampCodec.epochMonth(epochSecond));
+            assertEquals(time.getDayOfWeek().getValue() - 1, TimestampCodec.dayOfWeek(epochSecond));
+            assertEquals(time.getHour(), TimestampCodec.hourOfDay(epochSecond));
+        }
+    }
+
+    private static long reference(String text) {
+        return LocalDateTime.parse(text, REFERENCE).toEpochSecond(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,80 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests TopKHeap against a full sort, including ties, and split-then-merged offers by heap position
+// Command: mvn test -Dtest=TopKHeapTest
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TopKHeapTest {
+
+    @Test
+    @DisplayName("Kept entries should be the k best of a full sort, best first, ties to the lower key")
+    void testMatchesFullSort() {
+        Random random = new Random(37);
+        int n = 5000;
+        int k = 25;
+        long[][] entries = new long[n][];
+        TopKHeap heap = new TopKHeap(k);
+        long[] payload = new long[k];
+        for (int i = 0; i < n; i++) {
+            // few distinct scores so ties are common
+            long score = random.nextInt(200);
+            entries[i] = new long[]{score, i};
+            int slot = heap.offer(score, i);
+            if (slot >= 0) {
+                payload[slot] = i;
+            }
+        }
+        Arrays.sort(entries, Comparator.<long[]>comparingLong(e -> -e[0]).thenComparingLong(e -> e[1]));
+
+        int[] slots = heap.sortedSlots();
+        assertEquals(k, slots.length);
+        for (int i = 0; i < k; i++) {
+            assertEquals(entries[i][1], payload[slots[i]]);
+            assertEquals(entries[i][0], heap.scoreOf(slots[i]));
+            assertEquals(entries[i][1], heap.keyOf(slots[i]));
+        }
+
+        assertEquals(-1, new TopKHeap(0).offer(1.0, 1));
+    }
+
+    @Test
+    @DisplayName("Offers split across heaps and merged should keep the same entries")
+    void testSplitAndMerge() {
+        Random random = new Random(41);
+        TopKHeap whole = new TopKHeap(10);
+        TopKHeap[] parts = {new TopKHeap(10), new TopKHeap(10), new TopKHeap(10)};
+        for (int i = 0; i < 3000; i++) {
+            double score = random.nextInt(50);
+            whole.offer(score, i);
+            parts[random.nextInt(parts.length)].offer(score, i);
+        }
+
+        // merges walk the heap positions, in no particular order
+        TopKHeap merged = new TopKHeap(10);
+        for (int p = parts.length - 1; p >= 0; p--) {
+            for (int position = 0; position < parts[p].size(); position++) {
+                int slot = parts[p].slotAt(position);
+                assertEquals(parts[p].scoreOf(slot), parts[p].scoreAt(position));
+                assertEquals(parts[p].keyOf(slot), parts[p].keyAt(position));
+                merged.offer(parts[p].scoreAt(position), parts[p].keyAt(position));
+            }
+        }
+
+        int[] expected = whole.sortedSlots();
+        int[] actual = merged.sortedSlots();
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(whole.scoreOf(expected[i]), merged.scoreOf(actual[i]));
+            assertEquals(whole.keyOf(expected[i]), merged.keyOf(actual[i]));
+        }
+    }
+}
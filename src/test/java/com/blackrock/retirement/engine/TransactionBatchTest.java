@@ -0,0 +1,83 @@
+package com.blackrock.retirement.engine;
+
+// Test type: Unit Test
+// Validation: Tests TransactionBatch columns - null handling, lazy timestamp parsing, validity bitset
+// Command: mvn test -Dtest=TransactionBatchTest
+
+import com.blackrock.retirement.model.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionBatchTest {
+
+    @Test
+    @DisplayName("Should keep absent numeric fields absent")
+    void testNullFields() {
+        Transaction txn = new Transaction();
+        txn.setDate("2024-01-15 10:30:00");
+        txn.setAmount(150.75);
+
+        TransactionBatch batch = TransactionBatch.of(Collections.singletonList(txn));
+
+        assertTrue(batch.hasAmount(0));
+        assertEquals(150.75, batch.amountOrNull(0));
+        assertFalse(batch.hasCeiling(0));
+        assertNull(batch.ceilingOrNull(0));
+        assertNull(batch.remanentOrNull(0));
+    }
+
+    @Test
+    @DisplayName("Should parse non fixed-width dates lazily and only fail when read")
+    void testLazyTimestamps() {
+        Transaction odd = new Transaction("2023-02-30 10:00", 10.0, 100.0, 90.0);
+        Transaction bad = new Transaction("not a date", 10.0, 100.0, 90.0);
+
+        TransactionBatch batch = TransactionBatch.of(Arrays.asList(odd, bad));
+
+        assertEquals(TimestampCodec.parse("2023-02-28 10:00"), batch.timestamp(0));
+        assertThrows(DateTimeParseException.class, () -> batch.timestamp(1));
+    }
+
+    @Test
+    @DisplayName("Should iterate valid and invalid rows in input order")
+    void testValidityIteration() {
+        TransactionBatch batch = TransactionBatch.of(Arrays.asList(
+                new Transaction("2024-01-01 00:00", 1.0, 100.0, 99.0),
+                new Transaction("2024-01-02 00:00", 2.0, 100.0, 98.0),
+                new Transaction("2024-01-03 00:00", 3.0, 100.0, 97.0)));
+
+        batch.reject(1, "Duplicate transaction");
+
+        assertEquals(2, batch.validCount());
+        assertEquals(0, batch.nextValid(0));
+        assertEquals(2, batch.nextValid(1));
+        assertEquals(-1, batch.nextValid(3));
+        assertEquals(1, batch.nextInvalid(0));
+        assertEquals(-1, batch.nextInvalid(2));
+        assertEquals("Duplicate transaction", batch.message(1));
+    }
+
+    @Test
+    @DisplayName("Should reject a value too large for paise instead of reading it as absent")
+    void testOutOfRangeValues() {
+        TransactionBatch batch = TransactionBatch.of(Arrays.asList(
+                new Transaction("2024-01-01 00:00", -1e20, 100.0, 50.0),
+                new Transaction("2024-01-02 00:00", 50.0, 1e20, 50.0),
+                new Transaction("2024-01-03 00:00", 50.0, 100.0, 50.0)));
+
+        assertTrue(batch.hasAmount(0));
+        assertEquals(-Paise.MAX_PAISE, batch.amountPaise(0));
+        assertFalse(batch.isValid(0));
+        assertEquals("Amount is out of range", batch.message(0));
+        assertFalse(batch.isValid(1));
+        assertEquals("Ceiling is out of range", batch.message(1));
+        assertTrue(batch.isValid(2));
+        assertTrue(Paise.ceilToHundredRupees(batch.ceilingPaise(1)) > Paise.MAX_PAISE);
+    }
+}
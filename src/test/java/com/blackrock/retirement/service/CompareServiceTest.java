@@ -10,7 +10,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -149,4 +152,36 @@ class CompareServiceTest {
 
         assertTrue(highEarner.getSuggestedNpsPercent() > regularEarner.getSuggestedNpsPercent());
     }
+
+    @Test
+    @DisplayName("Configured instruments should be projected alongside NPS and Index")
+    void testConfiguredInstrumentProjection() {
+        InvestmentService withGold = new InvestmentService(new InstrumentRegistry(
+                Map.of("gold", new Instrument("gold", 0.1449, false))));
+
+        // enough k-periods for the projections to run concurrently
+        List<KPeriod> kPeriods = new ArrayList<>();
+        for (int month = 1; month <= 12; month++) {
+            for (int i = 0; i < 10; i++) {
+                kPeriods.add(new KPeriod(String.format("2024-%02d-01 00:00", month),
+                        String.format("2024-%02d-28 23:59", month)));
+            }
+        }
+        List<Transaction> txns = List.of(
+                new Transaction("2024-01-15 10:30:00", 150.75, 200.0, 49.25),
+                new Transaction("2024-06-10 09:00:00", 620.0, 700.0, 80.0));
+
+        CompareResponse result = withGold.compareReturns(30, 50000, 6.0, null, null, kPeriods, txns);
+        CompareResponse baseline = service.compareReturns(30, 50000, 6.0, null, null, kPeriods, txns);
+
+        assertNull(baseline.getOtherInstruments());
+        assertEquals(1, result.getOtherInstruments().size());
+        InstrumentProjection gold = result.getOtherInstruments().get(0);
+        assertEquals("gold", gold.getName());
+        assertEquals(kPeriods.size(), gold.getSavings().size());
+        // same rate as the index fund, so the same profit
+        assertEquals(result.getIndexTotalProfit(), gold.getTotalProfit());
+        assertEquals(baseline.getNpsTotalProfit(), result.getNpsTotalProfit());
+        assertEquals(baseline.getNpsTotalTaxBenefit(), result.getNpsTotalTaxBenefit());
+    }
 }
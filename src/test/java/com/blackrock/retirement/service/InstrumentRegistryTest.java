@@ -0,0 +1,47 @@
+package com.blackrock.retirement.service;
+
+// Test type: Unit Test
+// Validation: Tests InstrumentRegistry built-in instruments, property binding and overrides
+// Command: mvn test -Dtest=InstrumentRegistryTest
+
+import com.blackrock.retirement.model.Instrument;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InstrumentRegistryTest {
+
+    @Test
+    @DisplayName("Should provide NPS and index by default")
+    void testBuiltIns() {
+        InstrumentRegistry registry = new InstrumentRegistry();
+
+        assertEquals(2, registry.all().size());
+        assertEquals(0.0711, registry.get("nps").getAnnualRate());
+        assertTrue(registry.get("NPS").isTaxBenefit());
+        assertEquals(0.1449, registry.get("index").getAnnualRate());
+        assertFalse(registry.get("index").isTaxBenefit());
+        assertThrows(UnknownInstrumentException.class, () -> registry.get("gold"));
+    }
+
+    @Test
+    @DisplayName("Should add instruments from configuration and keep unset built-in fields")
+    void testConfiguredInstruments() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("retirement.instruments.gold.annual-rate", "0.09")
+                .withProperty("retirement.instruments.nps.annual-rate", "0.08");
+
+        InstrumentRegistry registry = new InstrumentRegistry(environment);
+
+        Instrument gold = registry.get("gold");
+        assertEquals("gold", gold.getName());
+        assertEquals(0.09, gold.getAnnualRate());
+        assertFalse(gold.isTaxBenefit());
+        // only the rate was overridden, NPS keeps its tax benefit
+        assertEquals(0.08, registry.get("nps").getAnnualRate());
+        assertTrue(registry.get("nps").isTaxBenefit());
+        assertEquals(3, registry.all().size());
+    }
+}
@@ -4,12 +4,22 @@ package com.blackrock.retirement.service;
 // Validation: Tests InvestmentService - NPS/Index returns, compound interest, inflation, tax slabs
 // Command: mvn test -Dtest=InvestmentServiceTest
 
+import com.blackrock.retirement.dto.GoalSeekResponse;
+import com.blackrock.retirement.dto.MonteCarloResponse;
 import com.blackrock.retirement.dto.ReturnsResponse;
+import com.blackrock.retirement.dto.ScenarioResponse;
+import com.blackrock.retirement.engine.TemporalRules;
 import com.blackrock.retirement.model.*;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -211,4 +221,214 @@ class InvestmentServiceTest {
         assertTrue(saving.getProfit() > 0);
         assertEquals(saving.getAmount(), 1000.0);
     }
+
+    @Test
+    @DisplayName("Should sum overlapping and nested k-periods independently")
+    void testOverlappingKPeriods() {
+        Transaction jan = new Transaction("2024-01-15 10:30:00", 150.0, 200.0, 50.0);
+        Transaction feb = new Transaction("2024-02-15 10:30:00", 170.0, 200.0, 30.0);
+        Transaction mar = new Transaction("2024-03-01 00:00:00", 190.0, 200.0, 10.0);
+
+        KPeriod year = new KPeriod("2024-01-01 00:00:00", "2024-12-31 23:59:00");
+        KPeriod febOnly = new KPeriod("2024-02-01 00:00:00", "2024-02-29 23:59:00");
+        KPeriod boundary = new KPeriod("2024-02-15 10:30:00", "2024-03-01 00:00:00");
+
+        ReturnsResponse result = service.calculateIndexReturns(
+                30, 50000, 6.0, null, null,
+                Arrays.asList(year, febOnly, boundary), Arrays.asList(mar, jan, feb));
+
+        assertEquals(90.0, result.getSavingsByDates().get(0).getAmount());
+        assertEquals(30.0, result.getSavingsByDates().get(1).getAmount());
+        // both k-period boundaries are inclusive
+        assertEquals(40.0, result.getSavingsByDates().get(2).getAmount());
+    }
+
+    @Test
+    @DisplayName("Each scenario should match a separate returns call")
+    void testScenariosMatchIndividualCalls() {
+        List<Transaction> txns = Arrays.asList(
+                new Transaction("2024-01-15 10:30:00", 150.75, 200.0, 49.25),
+                new Transaction("2024-03-10 09:00:00", 620.0, 700.0, 80.0),
+                new Transaction("2024-03-10 09:00:00", 90.0, 100.0, 10.0));
+        TemporalRules rules = TemporalRules.compile(null,
+                Collections.singletonList(new PPeriod(25.0, "2024-03-01 00:00", "2024-03-31 23:59")),
+                Arrays.asList(new KPeriod("2024-01-01 00:00", "2024-12-31 23:59"),
+                        new KPeriod("2024-03-01 00:00", "2024-03-31 23:59")));
+        List<Scenario> scenarios = Arrays.asList(
+                new Scenario(29, 50000, 5.5), new Scenario(45, 150000, 7.0), new Scenario(58, 20000, 4.0));
+
+        ScenarioResponse response = service.evaluateScenarios(rules, txns, "nps", scenarios);
+
+        assertEquals("nps", response.getInstrument());
+        assertEquals(3, response.getScenarios().size());
+        for (int s = 0; s < scenarios.size(); s++) {
+            Scenario scenario = scenarios.get(s);
+            ReturnsResponse single = service.calculateNpsReturns(
+                    scenario.getAge(), scenario.getWage(), scenario.getInflation(), rules, txns);
+
+            assertEquals(single.getTotalTransactionAmount(), response.getTotalTransactionAmount());
+            List<SavingsByDate> expected = single.getSavingsByDates();
+            List<SavingsByDate> actual = response.getScenarios().get(s).getSavingsByDates();
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getAmount(), actual.get(i).getAmount());
+                assertEquals(expected.get(i).getProfit(), actual.get(i).getProfit());
+                assertEquals(expected.get(i).getTaxBenefit(), actual.get(i).getTaxBenefit());
+            }
+        }
+        assertThrows(UnknownInstrumentException.class,
+                () -> service.evaluateScenarios(rules, txns, "gold", scenarios));
+    }
+
+    @Test
+    @DisplayName("Monte Carlo percentiles should collapse to the fixed-rate profit without volatility")
+    void testMonteCarloWithoutVolatility() {
+        List<Transaction> txns = Arrays.asList(
+                new Transaction("2024-01-15 10:30:00", 150.75, 200.0, 49.25),
+                new Transaction("2024-03-10 09:00:00", 620.0, 700.0, 80.0));
+        TemporalRules rules = TemporalRules.compile(null, null,
+                Collections.singletonList(new KPeriod("2024-01-01 00:00", "2024-12-31 23:59")));
+
+        // NPS has no volatility configured, so every path compounds at 7.11%
+        MonteCarloResponse simulated = service.simulateReturns(30, 50000, 6.0, rules, txns, "nps", 1000, 1L);
+        ReturnsResponse fixed = service.calculateNpsReturns(30, 50000, 6.0, rules, txns);
+
+        SavingsByDate expected = fixed.getSavingsByDates().get(0);
+        assertEquals(expected.getProfit(), simulated.getSavingsByDates().get(0).getProfitP5());
+        assertEquals(expected.getProfit(), simulated.getSavingsByDates().get(0).getProfitP50());
+        assertEquals(expected.getProfit(), simulated.getSavingsByDates().get(0).getProfitP95());
+        assertEquals(expected.getTaxBenefit(), simulated.getSavingsByDates().get(0).getTaxBenefit());
+        assertEquals(1000, simulated.getSimulations());
+    }
+
+    @Test
+    @DisplayName("Time-weighted returns should compound older remanents for longer")
+    void testTimeWeightedCompounding() {
+        // a year (365.25 days) apart, so the older remanent compounds for exactly one more year
+        List<Transaction> txns = Arrays.asList(
+                new Transaction("2023-01-01 00:00:00", 150.75, 200.0, 49.25),
+                new Transaction("2024-01-01 06:00:00", 620.0, 700.0, 80.0));
+        TemporalRules rules = TemporalRules.compile(null, null, Arrays.asList(
+                new KPeriod("2023-01-01 00:00", "2023-12-31 23:59"),
+                new KPeriod("2024-01-01 00:00", "2024-12-31 23:59")));
+
+        ReturnsResponse fixed = service.calculateIndexReturns(30, 50000, 6.0, rules, txns);
+        ReturnsResponse weighted = service.calculateIndexReturns(30, 50000, 6.0, rules, txns, null, true);
+
+        // the latest remanent compounds for the same 30 years either way
+        assertEquals(fixed.getSavingsByDates().get(1).getProfit(), weighted.getSavingsByDates().get(1).getProfit());
+
+        double expected = 49.25 * Math.pow(1.1449, 31) / Math.pow(1.06, 30) - 49.25;
+        assertEquals(expected, weighted.getSavingsByDates().get(0).getProfit(), 0.01);
+        assertTrue(weighted.getSavingsByDates().get(0).getProfit() > fixed.getSavingsByDates().get(0).getProfit());
+        assertEquals(fixed.getSavingsByDates().get(0).getAmount(), weighted.getSavingsByDates().get(0).getAmount());
+    }
+
+    @Test
+    @DisplayName("Goal seek should return the extra and fixed amounts at which /returns reaches the target")
+    void testGoalSeekMatchesReturns() {
+        List<Transaction> txns = Arrays.asList(
+                new Transaction("2024-01-15 10:30:00", 150.75, 200.0, 49.25),
+                new Transaction("2024-03-10 09:00:00", 620.0, 700.0, 80.0),
+                new Transaction("2024-06-01 12:00:00", 380.0, 400.0, 20.0));
+        KPeriod k = new KPeriod("2024-01-01 00:00", "2024-12-31 23:59");
+        List<PPeriod> p = Collections.singletonList(new PPeriod(10.0, "2024-03-01 00:00", "2024-03-31 23:59"));
+        TemporalRules rules = TemporalRules.compile(null, p, Collections.singletonList(k));
+
+        for (boolean taxBenefit : new boolean[]{false, true}) {
+            GoalSeekResponse extra = service.seekGoal(30, 200000, 6.0, rules, txns, "nps", null,
+                    false, 5000, "extra", 0, taxBenefit);
+            assertTrue(extra.isReachable());
+            assertEquals(taxBenefit ? "bracketed" : "closed-form", extra.getMethod());
+            double required = extra.getRequiredAmount();
+
+            // the same extra as a p-period over the goal k-period reaches the target, a paisa less does not
+            assertTrue(valueWithExtra(p, txns, k, required, taxBenefit) >= 5000 - 0.01);
+            assertTrue(valueWithExtra(p, txns, k, required - 0.01, taxBenefit) < 5000);
+            assertEquals(extra.getProjectedValue(), valueWithExtra(p, txns, k, required, taxBenefit), 0.02);
+        }
+
+        GoalSeekResponse fixed = service.seekGoal(30, 200000, 6.0, rules, txns, "nps", null,
+                false, 5000, "fixed", 0, false);
+        List<QPeriod> q = Collections.singletonList(new QPeriod(fixed.getRequiredAmount(), k.getStart(), k.getEnd()));
+        SavingsByDate saving = service.calculateNpsReturns(30, 200000, 6.0,
+                TemporalRules.compile(q, p, Collections.singletonList(k)), txns).getSavingsByDates().get(0);
+        assertEquals(5000, saving.getAmount() + saving.getProfit(), 0.05);
+    }
+
+    @Test
+    @DisplayName("Goal seek should report empty periods as unreachable and reject unknown goals")
+    void testGoalSeekUnreachable() {
+        List<Transaction> txns = Collections.singletonList(
+                new Transaction("2024-01-15 10:30:00", 150.75, 200.0, 49.25));
+        TemporalRules rules = TemporalRules.compile(null, null, Arrays.asList(
+                new KPeriod("2024-01-01 00:00", "2024-12-31 23:59"),
+                new KPeriod("2025-01-01 00:00", "2025-12-31 23:59")));
+
+        GoalSeekResponse empty = service.seekGoal(30, 50000, 6.0, rules, txns, "index", null,
+                true, 1000, "extra", 1, false);
+        assertFalse(empty.isReachable());
+        assertNull(empty.getRequiredAmount());
+        assertEquals(0, empty.getTransactionsInPeriod());
+
+        // a target the current savings already beat needs no extra
+        GoalSeekResponse met = service.seekGoal(30, 50000, 6.0, rules, txns, "index", null,
+                true, 1, "extra", 0, false);
+        assertEquals(0.0, met.getRequiredAmount());
+
+        assertThrows(InvalidGoalException.class,
+                () -> service.seekGoal(30, 50000, 6.0, rules, txns, "index", null, false, 1000, "wage", 0, false));
+        assertThrows(InvalidGoalException.class,
+                () -> service.seekGoal(30, 50000, 6.0, rules, txns, "index", null, false, 1000, "extra", 2, false));
+    }
+
+    @Test
+    @DisplayName("Timeline series should end on the /returns value of each k-period and instrument")
+    void testTimelineEndsOnReturns() throws IOException {
+        List<Transaction> txns = Arrays.asList(
+                new Transaction("2023-01-01 00:00:00", 150.75, 200.0, 49.25),
+                new Transaction("2024-01-01 06:00:00", 620.0, 700.0, 80.0));
+        TemporalRules rules = TemporalRules.compile(null, null, Arrays.asList(
+                new KPeriod("2023-01-01 00:00", "2023-12-31 23:59"),
+                new KPeriod("2023-01-01 00:00", "2024-12-31 23:59")));
+
+        for (boolean timeWeighted : new boolean[]{false, true}) {
+            StringWriter out = new StringWriter();
+            ObjectMapper mapper = new ObjectMapper();
+            try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                service.projectTimeline(35, 6.0, rules, txns, Arrays.asList("index", "nps"), timeWeighted, true)
+                        .write(generator);
+            }
+
+            String[] lines = out.toString().split("\n");
+            assertEquals(4, lines.length);
+            for (String line : lines) {
+                JsonNode series = mapper.readTree(line);
+                JsonNode points = series.get("points");
+                assertEquals(25 * 12, points.size());
+                assertEquals(1, points.get(0).get("month").asInt());
+
+                ReturnsResponse returns = "nps".equals(series.get("instrument").asText())
+                        ? service.calculateNpsReturns(35, 50000, 6.0, rules, txns, null, timeWeighted)
+                        : service.calculateIndexReturns(35, 50000, 6.0, rules, txns, null, timeWeighted);
+                SavingsByDate saving = returns.getSavingsByDates().stream()
+                        .filter(s -> s.getEnd().equals(series.get("end").asText()))
+                        .findFirst().orElseThrow();
+                JsonNode last = points.get(points.size() - 1);
+                assertEquals(25, last.get("year").asInt());
+                assertEquals(saving.getAmount(), series.get("amount").asDouble());
+                assertEquals(saving.getAmount() + saving.getProfit(), last.get("realBalance").asDouble(), 0.011);
+            }
+        }
+    }
+
+    // value of the period through /returns:nps, with the extra added as one more p-period over it
+    private double valueWithExtra(List<PPeriod> pPeriods, List<Transaction> txns, KPeriod k, double extra,
+                                  boolean taxBenefit) {
+        List<PPeriod> p = new ArrayList<>(pPeriods);
+        p.add(new PPeriod(extra, k.getStart(), k.getEnd()));
+        SavingsByDate saving = service.calculateNpsReturns(30, 200000, 6.0,
+                TemporalRules.compile(null, p, Collections.singletonList(k)), txns).getSavingsByDates().get(0);
+        return saving.getAmount() + saving.getProfit() + (taxBenefit ? saving.getTaxBenefit() : 0);
+    }
 }
@@ -0,0 +1,146 @@
+package com.blackrock.retirement.service;
+
+// Test type: Unit Test
+// Validation: Tests PortfolioSessionRegistry incremental appends, memory-budgeted eviction and concurrent appends
+// Command: mvn test -Dtest=PortfolioSessionRegistryTest
+
+import com.blackrock.retirement.dto.ReturnsResponse;
+import com.blackrock.retirement.dto.SessionRequest;
+import com.blackrock.retirement.dto.SessionResponse;
+import com.blackrock.retirement.dto.SessionReturnsRequest;
+import com.blackrock.retirement.model.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PortfolioSessionRegistryTest {
+
+    private final InvestmentService investmentService = new InvestmentService();
+
+    private final List<QPeriod> q = Collections.singletonList(new QPeriod(0, "2024-07-01 00:00", "2024-07-31 23:59"));
+    private final List<PPeriod> p = Collections.singletonList(new PPeriod(25, "2024-10-01 00:00", "2024-12-31 23:59"));
+    private final List<KPeriod> k = Arrays.asList(
+            new KPeriod("2024-01-01 00:00", "2024-12-31 23:59"),
+            new KPeriod("2024-03-01 00:00", "2024-11-30 23:59"));
+
+    @Test
+    @DisplayName("Appending deltas should give the same returns as sending the whole history")
+    void testDeltasMatchFullHistory() {
+        PortfolioSessionRegistry registry = new PortfolioSessionRegistry(investmentService, new RuleSetRegistry(4), 1 << 20);
+        List<Transaction> history = Arrays.asList(
+                new Transaction("2024-02-28 15:49:20", 375.0, 0, 0),
+                new Transaction("2024-07-15 10:30:00", 620.0, 0, 0),
+                new Transaction("2024-10-12 20:15:30", 250.0, 0, 0),
+                new Transaction("2024-12-17 08:09:45", -480.0, 0, 0),
+                // duplicate of the first date, arriving in a later delta
+                new Transaction("2024-02-28 15:49:20", 99.0, 0, 0),
+                new Transaction("2024-05-01 09:00:00", 1519.0, 0, 0));
+
+        SessionResponse created = registry.create(sessionRequest(history.subList(0, 2)));
+        registry.append(created.getSessionId(), history.subList(2, 4));
+        SessionResponse last = registry.append(created.getSessionId(), history.subList(4, 6));
+
+        assertEquals(6, last.getTransactionCount());
+        assertEquals(4, last.getValidCount());
+        assertEquals(1, last.getRejected());
+
+        ReturnsResponse expected = investmentService.calculateNpsReturns(29, 50000, 5.5, q, p, k, history);
+        ReturnsResponse actual = registry.returns(created.getSessionId(), returnsRequest());
+
+        assertEquals(expected.getTotalTransactionAmount(), actual.getTotalTransactionAmount());
+        assertEquals(expected.getTotalCeiling(), actual.getTotalCeiling());
+        for (int i = 0; i < k.size(); i++) {
+            SavingsByDate e = expected.getSavingsByDates().get(i);
+            SavingsByDate a = actual.getSavingsByDates().get(i);
+            assertEquals(e.getAmount(), a.getAmount());
+            assertEquals(e.getProfit(), a.getProfit());
+            assertEquals(e.getTaxBenefit(), a.getTaxBenefit());
+        }
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used session when over the memory budget")
+    void testMemoryBudgetEviction() {
+        // room for two small sessions but not three
+        PortfolioSessionRegistry registry = new PortfolioSessionRegistry(investmentService, new RuleSetRegistry(4), 1200);
+        List<Transaction> one = Collections.singletonList(new Transaction("2024-02-28 15:49:20", 375.0, 0, 0));
+
+        String a = registry.create(sessionRequest(one)).getSessionId();
+        String b = registry.create(sessionRequest(one)).getSessionId();
+        // touch a so b becomes the least recently used
+        registry.returns(a, returnsRequest());
+        String c = registry.create(sessionRequest(one)).getSessionId();
+
+        assertEquals(2, registry.size());
+        assertTrue(registry.bytes() <= 1200);
+        assertNotNull(registry.returns(a, returnsRequest()));
+        assertNotNull(registry.returns(c, returnsRequest()));
+        assertThrows(UnknownSessionException.class, () -> registry.returns(b, returnsRequest()));
+        assertThrows(UnknownSessionException.class, () -> registry.append(b, one));
+
+        assertTrue(registry.remove(a));
+        assertFalse(registry.remove(a));
+    }
+
+    @Test
+    @DisplayName("Concurrent appends to one session should all be counted exactly once")
+    void testConcurrentAppends() throws Exception {
+        PortfolioSessionRegistry registry = new PortfolioSessionRegistry(investmentService, new RuleSetRegistry(4), 1 << 24);
+        String id = registry.create(sessionRequest(Collections.emptyList())).getSessionId();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> appends = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                appends.add(pool.submit(() -> {
+                    for (int batch = 0; batch < 25; batch++) {
+                        List<Transaction> delta = new ArrayList<>();
+                        for (int i = 0; i < 10; i++) {
+                            // distinct minute per transaction across all threads
+                            int minute = (thread * 25 + batch) * 10 + i;
+                            delta.add(new Transaction(String.format("2024-04-%02d %02d:%02d", 1 + minute / 1440,
+                                    minute / 60 % 24, minute % 60), 150.0, 0, 0));
+                        }
+                        registry.append(id, delta);
+                    }
+                }));
+            }
+            for (Future<?> append : appends) {
+                append.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        ReturnsResponse response = registry.returns(id, returnsRequest());
+        assertEquals(2000 * 150.0, response.getTotalTransactionAmount());
+        assertEquals(2000 * 50.0, response.getSavingsByDates().get(0).getAmount());
+    }
+
+    private SessionRequest sessionRequest(List<Transaction> transactions) {
+        SessionRequest request = new SessionRequest();
+        request.setQ(q);
+        request.setP(p);
+        request.setK(k);
+        request.setTransactions(new ArrayList<>(transactions));
+        return request;
+    }
+
+    private static SessionReturnsRequest returnsRequest() {
+        SessionReturnsRequest request = new SessionReturnsRequest();
+        request.setAge(29);
+        request.setWage(50000);
+        request.setInflation(5.5);
+        return request;
+    }
+}
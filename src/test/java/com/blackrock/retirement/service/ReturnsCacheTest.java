@@ -0,0 +1,122 @@
+package com.blackrock.retirement.service;
+
+// Test type: Unit Test
+// Validation: Tests ReturnsCache content keys, size/memory-bounded LRU eviction and single-flight coalescing
+// Command: mvn test -Dtest=ReturnsCacheTest
+
+import com.blackrock.retirement.dto.ReturnsRequest;
+import com.blackrock.retirement.dto.ReturnsResponse;
+import com.blackrock.retirement.model.Transaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReturnsCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Should key requests by endpoint and content")
+    void testContentKeys() {
+        ReturnsCache cache = new ReturnsCache(objectMapper, 16, 1 << 20);
+
+        String key = cache.key("nps", request(30, 150.75));
+        assertEquals(key, cache.key("nps", request(30, 150.75)));
+        assertNotEquals(key, cache.key("index", request(30, 150.75)));
+        assertNotEquals(key, cache.key("nps", request(31, 150.75)));
+        assertNotEquals(key, cache.key("nps", request(30, 150.76)));
+    }
+
+    @Test
+    @DisplayName("Should evict least recently used results by entry count and by size")
+    void testBoundedEviction() {
+        ReturnsCache byCount = new ReturnsCache(objectMapper, 2, 1 << 20);
+        byCount.getOrCompute("a", () -> "first");
+        byCount.getOrCompute("b", () -> "second");
+        // touch a so b becomes the eldest entry
+        byCount.getOrCompute("a", () -> "recomputed");
+        byCount.getOrCompute("c", () -> "third");
+
+        assertTrue(byCount.contains("a"));
+        assertFalse(byCount.contains("b"));
+        assertTrue(byCount.contains("c"));
+        assertEquals("first", byCount.getOrCompute("a", () -> "recomputed"));
+
+        // each result serializes to 12 bytes with its quotes, so only two fit in 30
+        ReturnsCache bySize = new ReturnsCache(objectMapper, 100, 30);
+        bySize.getOrCompute("a", () -> "0123456789");
+        bySize.getOrCompute("b", () -> "0123456789");
+        bySize.getOrCompute("c", () -> "0123456789");
+        bySize.getOrCompute("big", () -> "a result larger than the whole cache");
+
+        assertEquals(2, bySize.size());
+        assertEquals(24, bySize.bytes());
+        assertFalse(bySize.contains("a"));
+        assertFalse(bySize.contains("big"));
+    }
+
+    @Test
+    @DisplayName("Should run one computation for concurrent identical requests and not cache failures")
+    void testSingleFlight() throws Exception {
+        ReturnsCache cache = new ReturnsCache(objectMapper, 16, 1 << 20);
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ReturnsResponse>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(pool.submit(() -> cache.getOrCompute("same", () -> {
+                    computations.incrementAndGet();
+                    await(release);
+                    return new ReturnsResponse();
+                })));
+            }
+            // let the callers pile up behind the first computation
+            Thread.sleep(200);
+            release.countDown();
+
+            ReturnsResponse first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<ReturnsResponse> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThrows(IllegalStateException.class,
+                () -> cache.getOrCompute("failing", () -> { throw new IllegalStateException("boom"); }));
+        assertFalse(cache.contains("failing"));
+        assertEquals("ok", cache.getOrCompute("failing", () -> "ok"));
+    }
+
+    private static ReturnsRequest request(int age, double amount) {
+        ReturnsRequest request = new ReturnsRequest();
+        request.setAge(age);
+        request.setWage(50000);
+        request.setInflation(5.5);
+        request.setTransactions(Collections.singletonList(new Transaction("2024-02-15 12:30:00", amount, 0, 0)));
+        return request;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
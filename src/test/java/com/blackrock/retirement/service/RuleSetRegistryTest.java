@@ -0,0 +1,97 @@
+package com.blackrock.retirement.service;
+
+// Test type: Unit Test
+// Validation: Tests RuleSetRegistry - content IDs, LRU eviction, resolution of registered vs inline rules
+// Command: mvn test -Dtest=RuleSetRegistryTest
+
+import com.blackrock.retirement.engine.TemporalRules;
+import com.blackrock.retirement.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleSetRegistryTest {
+
+    private RuleSetRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        registry = new RuleSetRegistry(2);
+    }
+
+    @Test
+    @DisplayName("Should return the same ID when the same rules are registered twice")
+    void testContentAddressedId() {
+        List<QPeriod> q = Collections.singletonList(new QPeriod(0, "2024-02-01 00:00", "2024-03-01 00:00"));
+        List<KPeriod> k = Collections.singletonList(new KPeriod("2024-01-01 00:00", "2024-06-01 00:00"));
+
+        String first = registry.register(q, null, k);
+        String second = registry.register(q, null, k);
+        String other = registry.register(null, null, k);
+
+        assertEquals(first, second);
+        assertNotEquals(first, other);
+        assertEquals(2, registry.size());
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used rule set when full")
+    void testLruEviction() {
+        String a = registry.register(null, null, Collections.singletonList(new KPeriod("2024-01-01 00:00", "2024-01-31 00:00")));
+        String b = registry.register(null, null, Collections.singletonList(new KPeriod("2024-02-01 00:00", "2024-02-28 00:00")));
+
+        // touch a so b becomes the eldest entry
+        registry.get(a);
+        String c = registry.register(null, null, Collections.singletonList(new KPeriod("2024-03-01 00:00", "2024-03-31 00:00")));
+
+        assertNotNull(registry.get(a));
+        assertNotNull(registry.get(c));
+        assertThrows(UnknownRuleSetException.class, () -> registry.get(b));
+    }
+
+    @Test
+    @DisplayName("Filtering with a registered rule set should match inline periods")
+    void testRegisteredRulesMatchInline() {
+        List<PPeriod> p = Collections.singletonList(new PPeriod(25.0, "2024-01-01 00:00", "2024-04-01 00:00"));
+        List<KPeriod> k = Collections.singletonList(new KPeriod("2024-01-01 00:00", "2024-06-01 00:00"));
+        String id = registry.register(null, p, k);
+
+        Transaction txn = new Transaction();
+        txn.setDate("2024-02-15 12:30:00");
+        txn.setAmount(150.75);
+
+        TemporalFilterService filterService = new TemporalFilterService();
+        TemporalRules rules = registry.resolve(id, null, null, null);
+        TemporalFilterService.FilterResult registered = filterService.filterTransactions(
+                Collections.singletonList(txn), rules, 50000);
+        TemporalFilterService.FilterResult inline = filterService.filterTransactions(
+                Collections.singletonList(txn), null, p, k, 50000);
+
+        assertEquals(74.25, registered.getValid().get(0).getRemanent());
+        assertEquals(inline.getValid().get(0).getRemanent(), registered.getValid().get(0).getRemanent());
+        assertTrue(registered.getValid().get(0).getInKPeriod());
+    }
+
+    @Test
+    @DisplayName("Should reject unknown rule set IDs")
+    void testUnknownId() {
+        UnknownRuleSetException ex = assertThrows(UnknownRuleSetException.class,
+                () -> registry.resolve("missing", null, null, null));
+        assertEquals("Unknown rule set: missing", ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Should reject a rule set ID sent together with inline periods")
+    void testIdWithInlinePeriods() {
+        List<KPeriod> k = Collections.singletonList(new KPeriod("2024-01-01 00:00", "2024-06-01 00:00"));
+        String id = registry.register(null, null, k);
+
+        assertThrows(ConflictingRulesException.class, () -> registry.resolve(id, null, null, k));
+        assertNotNull(registry.resolve(id, Collections.emptyList(), null, null));
+    }
+}
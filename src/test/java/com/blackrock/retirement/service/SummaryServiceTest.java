@@ -5,14 +5,17 @@ package com.blackrock.retirement.service;
 // Command: mvn test -Dtest=SummaryServiceTest
 
 import com.blackrock.retirement.dto.SummaryResponse;
+import com.blackrock.retirement.engine.SpendingAccumulator;
 import com.blackrock.retirement.model.Transaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -122,4 +125,204 @@ class SummaryServiceTest {
         assertEquals(1, result.getValidTransactions());
         assertEquals(1, result.getInvalidTransactions());
     }
+
+    @Test
+    @DisplayName("Should report median, p90 and p99 spend and remanent within 1%")
+    void testSpendAndRemanentQuantiles() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            // spends of 10, 20, ..., 1000 rupees; remanents of 90, 80, ..., 0
+            Transaction txn = new Transaction();
+            txn.setDate(String.format("2024-%02d-%02d 10:%02d:00", 1 + i % 12, 1 + i % 28, i % 60));
+            txn.setAmount(10.0 * i);
+            transactions.add(txn);
+        }
+
+        SummaryResponse result = service.analyzeSummary(transactions);
+
+        assertEquals(100, result.getValidTransactions());
+        assertEquals(500.0, result.getMedianSpend(), 5.0);
+        assertEquals(900.0, result.getP90Spend(), 9.0);
+        assertEquals(990.0, result.getP99Spend(), 9.9);
+        assertEquals(40.0, result.getMedianRemanent(), 0.4);
+        assertEquals(80.0, result.getP90Remanent(), 0.8);
+        assertEquals(90.0, result.getP99Remanent(), 0.9);
+    }
+
+    @Test
+    @DisplayName("Should bucket spends by day, week and month and project from the observed rate")
+    void testTimeBucketsAndObservedRate() {
+        // Monday 2024-01-01 to Wednesday 2024-01-31, two spends on some days
+        Transaction t1 = new Transaction("2024-01-01 09:00:00", 150.0, 200.0, 50.0);
+        Transaction t2 = new Transaction("2024-01-01 18:30:00", 80.0, 100.0, 20.0);
+        Transaction t3 = new Transaction("2024-01-08 09:15:00", 250.0, 300.0, 50.0);
+        Transaction t4 = new Transaction("2024-01-31 23:59:00", 120.0, 200.0, 80.0);
+        Transaction t5 = new Transaction("2024-02-02 10:00:00", 300.0, 300.0, 0.0);
+        Transaction t6 = new Transaction("2024-03-01 10:00:00", 190.0, 200.0, 10.0);
+
+        SummaryResponse result = service.analyzeSummary(Arrays.asList(t1, t2, t3, t4, t5, t6));
+
+        assertEquals(5, result.getDailySpend().size());
+        assertEquals("2024-01-01", result.getDailySpend().get(0).getStart());
+        assertEquals(2, result.getDailySpend().get(0).getCount());
+        assertEquals(230.0, result.getDailySpend().get(0).getSpent());
+        assertEquals(70.0, result.getDailySpend().get(0).getSavings());
+
+        // weeks start on Monday: Jan 1, Jan 8, Jan 29 (holds Jan 31 and Feb 2), Feb 26
+        assertEquals(4, result.getWeeklySpend().size());
+        assertEquals("2024-01-29", result.getWeeklySpend().get(2).getStart());
+        assertEquals(2, result.getWeeklySpend().get(2).getCount());
+        assertEquals("2024-02-26", result.getWeeklySpend().get(3).getStart());
+
+        assertEquals(3, result.getMonthlySpend().size());
+        assertEquals("2024-01", result.getMonthlySpend().get(0).getStart());
+        assertEquals(4, result.getMonthlySpend().get(0).getCount());
+        assertEquals(600.0, result.getMonthlySpend().get(0).getSpent());
+
+        assertEquals(2, result.getHourWeekdayHeatmap()[0][9]);   // two Mondays at 9
+        assertEquals(1, result.getHourWeekdayHeatmap()[2][23]);  // Wednesday night
+        assertEquals(2, result.getHourWeekdayHeatmap()[4][10]);  // two Fridays at 10
+        assertEquals(0, result.getHourWeekdayHeatmap()[6][12]);
+
+        // six spends over the 61 days from Jan 1 to Mar 1
+        double perMonth = 6 * (365.25 / 12) / 61;
+        assertEquals(Math.round(perMonth * 100) / 100.0, result.getObservedTransactionsPerMonth());
+        assertEquals(Math.round(35.0 * perMonth * 100) / 100.0, result.getMonthlySavingsEstimate(), 0.01);
+    }
+
+    @Test
+    @DisplayName("Should assume 30 transactions a month when the dates span less than a month")
+    void testShortSpanTransactionRate() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            transactions.add(new Transaction(String.format("2024-01-01 1%d:00:00", i), 150.0, 200.0, 50.0));
+        }
+
+        SummaryResponse result = service.analyzeSummary(transactions);
+
+        // one day would otherwise project 5 * 30.44 = 152 transactions a month
+        assertNull(result.getObservedTransactionsPerMonth());
+        assertEquals(50.0 * 30, result.getMonthlySavingsEstimate());
+    }
+
+    @Test
+    @DisplayName("Should report a spending spike among the anomalies")
+    void testAnomalies() {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Transaction txn = new Transaction();
+            txn.setDate(String.format("2024-01-%02d 10:00:00", i + 1));
+            txn.setAmount(i == 20 ? 9000.0 : 200.0 + (i % 5) * 10);
+            transactions.add(txn);
+        }
+
+        SummaryResponse result = service.analyzeSummary(transactions);
+
+        assertFalse(result.getAnomalies().isEmpty());
+        assertTrue(result.getAnomalies().size() <= 10);
+        assertEquals("spike", result.getAnomalies().get(0).getType());
+        assertEquals("2024-01-21 10:00:00", result.getAnomalies().get(0).getDate());
+        assertEquals(9000.0, result.getAnomalies().get(0).getAmount());
+    }
+
+    @Test
+    @DisplayName("Should list the configured number of largest expenses, remanent contributors and spend days")
+    void testTopKLists() {
+        Transaction t1 = new Transaction("2024-01-01 09:00:00", 150.0, 200.0, 50.0);
+        Transaction t2 = new Transaction("2024-01-01 18:00:00", 620.0, 700.0, 80.0);
+        Transaction t3 = new Transaction("2024-01-02 09:00:00", 410.0, 500.0, 90.0);
+        Transaction t4 = new Transaction("2024-01-03 09:00:00", 620.0, 700.0, 80.0);
+        Transaction t5 = new Transaction("2024-01-04 09:00:00", 95.0, 100.0, 5.0);
+
+        SummaryResponse result = new SummaryService(Integer.MAX_VALUE, 2)
+                .analyzeSummary(Arrays.asList(t1, t2, t3, t4, t5));
+
+        // equal amounts keep the earlier spend first
+        assertEquals(2, result.getLargestExpenses().size());
+        assertEquals("2024-01-01 18:00:00", result.getLargestExpenses().get(0).getDate());
+        assertEquals(620.0, result.getLargestExpenses().get(0).getAmount());
+        assertEquals("2024-01-03 09:00:00", result.getLargestExpenses().get(1).getDate());
+
+        assertEquals(2, result.getTopSavingsContributors().size());
+        assertEquals(90.0, result.getTopSavingsContributors().get(0).getRemanent());
+        assertEquals("2024-01-02 09:00:00", result.getTopSavingsContributors().get(0).getDate());
+        assertEquals("2024-01-01 18:00:00", result.getTopSavingsContributors().get(1).getDate());
+
+        assertEquals(2, result.getTopSpendDays().size());
+        assertEquals("2024-01-01", result.getTopSpendDays().get(0).getStart());
+        assertEquals(770.0, result.getTopSpendDays().get(0).getSpent());
+        assertEquals(2, result.getTopSpendDays().get(0).getCount());
+        assertEquals("2024-01-03", result.getTopSpendDays().get(1).getStart());
+
+        assertEquals(5, service.analyzeSummary(Arrays.asList(t1, t2, t3, t4, t5)).getLargestExpenses().size());
+
+        assertThrows(IllegalArgumentException.class, () -> new SummaryService(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> new SummaryService(1, 1001));
+    }
+
+    @Test
+    @DisplayName("Parallel accumulation and merged partial summaries should match the sequential summary")
+    void testParallelAndMergedMatchSequential() {
+        Random random = new Random(5);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            Transaction txn = new Transaction();
+            txn.setDate(String.format("2024-%02d-%02d %02d:%02d:00", 1 + i % 12,
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60)));
+            txn.setAmount(random.nextInt(10) == 0 ? -50.0 : random.nextInt(100000) / 100.0);
+            transactions.add(txn);
+        }
+
+        SummaryResponse sequential = new SummaryService(Integer.MAX_VALUE).analyzeSummary(transactions);
+        SummaryResponse parallel = new SummaryService(1).analyzeSummary(transactions);
+        assertSameSummary(sequential, parallel);
+
+        // batches by month have no duplicate dates between them, so merging loses nothing
+        SpendingAccumulator merged = new SpendingAccumulator();
+        for (int month = 0; month < 12; month++) {
+            List<Transaction> batch = new ArrayList<>();
+            for (int i = month; i < transactions.size(); i += 12) {
+                batch.add(transactions.get(i));
+            }
+            merged.merge(service.accumulate(batch));
+        }
+        SummaryResponse combined = service.summarize(merged);
+        assertEquals(sequential.getValidTransactions(), combined.getValidTransactions());
+        assertEquals(sequential.getInvalidTransactions(), combined.getInvalidTransactions());
+        assertEquals(sequential.getTotalSpent(), combined.getTotalSpent());
+        assertEquals(sequential.getTotalSavingsPotential(), combined.getTotalSavingsPotential());
+        assertEquals(sequential.getHighestSpend(), combined.getHighestSpend());
+        assertEquals(sequential.getLowestSpend(), combined.getLowestSpend());
+        assertEquals(sequential.getP99Spend(), combined.getP99Spend());
+        assertEquals(sequential.getLargestExpenses().get(4).getDate(), combined.getLargestExpenses().get(4).getDate());
+        assertEquals(sequential.getTopSpendDays().get(0).getSpent(), combined.getTopSpendDays().get(0).getSpent());
+        assertEquals(sequential.getInvestmentReadinessScore(), combined.getInvestmentReadinessScore());
+        assertEquals(sequential.getTips(), combined.getTips());
+    }
+
+    private static void assertSameSummary(SummaryResponse expected, SummaryResponse actual) {
+        assertEquals(expected.getValidTransactions(), actual.getValidTransactions());
+        assertEquals(expected.getInvalidTransactions(), actual.getInvalidTransactions());
+        assertEquals(expected.getTotalSpent(), actual.getTotalSpent());
+        assertEquals(expected.getAverageSpend(), actual.getAverageSpend());
+        assertEquals(expected.getHighestSpend(), actual.getHighestSpend());
+        assertEquals(expected.getHighestSpendDate(), actual.getHighestSpendDate());
+        assertEquals(expected.getLowestSpend(), actual.getLowestSpend());
+        assertEquals(expected.getLowestSpendDate(), actual.getLowestSpendDate());
+        assertEquals(expected.getTotalSavingsPotential(), actual.getTotalSavingsPotential());
+        assertEquals(expected.getMedianSpend(), actual.getMedianSpend());
+        assertEquals(expected.getP90Remanent(), actual.getP90Remanent());
+        assertEquals(expected.getAnomalies().size(), actual.getAnomalies().size());
+        for (int i = 0; i < expected.getLargestExpenses().size(); i++) {
+            assertEquals(expected.getLargestExpenses().get(i).getDate(), actual.getLargestExpenses().get(i).getDate());
+            assertEquals(expected.getTopSavingsContributors().get(i).getDate(), actual.getTopSavingsContributors().get(i).getDate());
+            assertEquals(expected.getTopSpendDays().get(i).getStart(), actual.getTopSpendDays().get(i).getStart());
+        }
+        for (int i = 0; i < expected.getAnomalies().size(); i++) {
+            assertEquals(expected.getAnomalies().get(i).getDate(), actual.getAnomalies().get(i).getDate());
+            assertEquals(expected.getAnomalies().get(i).getScore(), actual.getAnomalies().get(i).getScore());
+        }
+        assertEquals(expected.getInvestmentReadinessScore(), actual.getInvestmentReadinessScore());
+        assertEquals(expected.getTips(), actual.getTips());
+    }
 }
@@ -0,0 +1,47 @@
+package com.blackrock.retirement.service;
+
+// Test type: Unit Test
+// Validation: Tests TaxRegimeRegistry built-in regime, configured slab tables and the default regime
+// Command: mvn test -Dtest=TaxRegimeRegistryTest
+
+import com.blackrock.retirement.engine.TaxSchedule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaxRegimeRegistryTest {
+
+    @Test
+    @DisplayName("Should compile configured regimes and use the configured default")
+    void testConfiguredRegimes() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("retirement.tax.regimes.old", "250000:0.05, 500000:0.20, 1000000:0.30")
+                .withProperty("retirement.tax.default-regime", "old");
+
+        TaxRegimeRegistry registry = new TaxRegimeRegistry(environment);
+
+        TaxSchedule old = registry.get("OLD");
+        // 12,500 + 1,00,000 + 60,000
+        assertEquals(172500, old.tax(1200000), 1e-6);
+        assertSame(old, registry.get(null));
+        // 30% above 15,00,000 on top of 1,20,000
+        assertEquals(180000, registry.get("simplified").tax(1700000), 1e-6);
+        assertTrue(registry.names().contains("old"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown regimes and malformed slab tables")
+    void testInvalidRegimes() {
+        TaxRegimeRegistry registry = new TaxRegimeRegistry();
+
+        assertThrows(UnknownTaxRegimeException.class, () -> registry.get("new-fy2030"));
+        assertThrows(IllegalArgumentException.class,
+                () -> new TaxRegimeRegistry(Map.of("bad", "250000-0.05"), TaxRegimeRegistry.SIMPLIFIED));
+        assertThrows(UnknownTaxRegimeException.class,
+                () -> new TaxRegimeRegistry(Map.of(), "old"));
+    }
+}
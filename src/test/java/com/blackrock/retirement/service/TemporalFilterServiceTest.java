@@ -4,14 +4,18 @@ package com.blackrock.retirement.service;
 // Validation: Tests TemporalFilterService q/p/k period logic, negative/duplicate filtering
 // Command: mvn test -Dtest=TemporalFilterServiceTest
 
+import com.blackrock.retirement.engine.DuplicateDetector;
+import com.blackrock.retirement.engine.TemporalRules;
 import com.blackrock.retirement.model.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -184,4 +188,64 @@ class TemporalFilterServiceTest {
         assertTrue(result.getValid().isEmpty());
         assertTrue(result.getInvalid().isEmpty());
     }
+
+    @Test
+    @DisplayName("Chunks should keep input order and detect duplicates across the stream")
+    void testFilterChunksShareDuplicateState() {
+        TemporalRules rules = TemporalRules.compile(
+                Collections.singletonList(new QPeriod(0.0, "2024-01-01 00:00", "2024-01-31 23:59")),
+                null,
+                Collections.singletonList(new KPeriod("2024-01-01 00:00", "2024-12-31 23:59")));
+        DuplicateDetector seenDates = DuplicateDetector.hashed(4);
+
+        List<Transaction> first = service.filterChunk(Collections.singletonList(
+                new Transaction("2024-01-15 10:30:00", 150.0, 0.0, 0.0)), rules, seenDates);
+        List<Transaction> second = service.filterChunk(Arrays.asList(
+                new Transaction("2024-01-15 10:30:00", 120.0, 0.0, 0.0),
+                new Transaction("2024-02-15 10:30:00", 120.0, 0.0, 0.0)), rules, seenDates);
+
+        assertEquals(0.0, first.get(0).getRemanent());
+        assertTrue(first.get(0).getInKPeriod());
+        assertEquals("Duplicate transaction", second.get(0).getMessage());
+        assertEquals(80.0, second.get(1).getRemanent());
+    }
+
+    @Test
+    @DisplayName("Parallel path should match the sequential path row for row")
+    void testParallelMatchesSequential() {
+        Random random = new Random(7);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            // few distinct minutes so many rows are duplicates, plus some negatives
+            Transaction txn = new Transaction();
+            txn.setDate(String.format("2024-01-%02d %02d:%02d:00",
+                    1 + random.nextInt(28), random.nextInt(24), random.nextInt(60)));
+            txn.setAmount(random.nextInt(10) == 0 ? -50.0 : random.nextInt(100000) / 100.0);
+            transactions.add(txn);
+        }
+        TemporalRules rules = TemporalRules.compile(
+                Collections.singletonList(new QPeriod(0.0, "2024-01-05 00:00", "2024-01-09 23:59")),
+                Collections.singletonList(new PPeriod(25.0, "2024-01-08 00:00", "2024-01-20 23:59")),
+                Collections.singletonList(new KPeriod("2024-01-10 00:00", "2024-01-15 23:59")));
+
+        TemporalFilterService.FilterResult sequential =
+                new TemporalFilterService(Integer.MAX_VALUE).filterTransactions(transactions, rules, 50000);
+        TemporalFilterService.FilterResult parallel =
+                new TemporalFilterService(1).filterTransactions(transactions, rules, 50000);
+
+        assertEquals(sequential.getValid().size(), parallel.getValid().size());
+        assertEquals(sequential.getInvalid().size(), parallel.getInvalid().size());
+        for (int i = 0; i < sequential.getValid().size(); i++) {
+            Transaction expected = sequential.getValid().get(i);
+            Transaction actual = parallel.getValid().get(i);
+            assertEquals(expected.getDate(), actual.getDate());
+            assertEquals(expected.getAmount(), actual.getAmount());
+            assertEquals(expected.getRemanent(), actual.getRemanent());
+            assertEquals(expected.getInKPeriod(), actual.getInKPeriod());
+        }
+        for (int i = 0; i < sequential.getInvalid().size(); i++) {
+            assertEquals(sequential.getInvalid().get(i).getAmount(), parallel.getInvalid().get(i).getAmount());
+            assertEquals(sequential.getInvalid().get(i).getMessage(), parallel.getInvalid().get(i).getMessage());
+        }
+    }
 }
@@ -6,10 +6,14 @@ package com.blackrock.retirement.service;
 
 import com.blackrock.retirement.model.Expense;
 import com.blackrock.retirement.model.Transaction;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.io.StringWriter;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -119,4 +123,25 @@ class TransactionServiceTest {
         List<Transaction> result = service.parseExpenses(Collections.emptyList());
         assertTrue(result.isEmpty());
     }
+
+    @Test
+    @DisplayName("Streaming parse should produce the same transactions as the buffered parse")
+    void testStreamingParse() throws Exception {
+        String body = "{\"expenses\": ["
+                + "{\"timestamp\": \"2024-02-15 12:30:45\", \"amount\": 150.75, \"note\": {\"x\": 1}},"
+                + "{\"amount\": 620.0, \"timestamp\": \"2024-03-10 09:00\"}"
+                + "], \"extra\": [1, 2]}";
+
+        JsonFactory factory = new JsonFactory();
+        StringWriter out = new StringWriter();
+        try (JsonParser parser = factory.createParser(body);
+             JsonGenerator generator = factory.createGenerator(out)) {
+            service.parseExpenses(parser, generator);
+        }
+
+        assertEquals("{\"transactions\":["
+                + "{\"date\":\"2024-02-15 12:30:00\",\"amount\":150.75,\"ceiling\":200.0,\"remanent\":49.25},"
+                + "{\"date\":\"2024-03-10 09:00:00\",\"amount\":620.0,\"ceiling\":700.0,\"remanent\":80.0}"
+                + "]}", out.toString());
+    }
 }
@@ -4,6 +4,7 @@ package com.blackrock.retirement.service;
 // Validation: Tests ValidationService business rules - negative amounts, duplicates, amount limits
 // Command: mvn test -Dtest=ValidationServiceTest
 
+import com.blackrock.retirement.engine.DuplicateDetector;
 import com.blackrock.retirement.model.Transaction;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -172,4 +173,23 @@ class ValidationServiceTest {
         assertEquals(150.0, result.getValid().get(0).getAmount());
         assertEquals(300.0, result.getInvalid().get(0).getAmount());
     }
+
+    @Test
+    @DisplayName("Duplicates should be detected across NDJSON chunks")
+    void testDuplicateAcrossChunks() {
+        DuplicateDetector seenDates = DuplicateDetector.hashed(4);
+
+        List<Transaction> first = service.validateChunk(50000, Arrays.asList(
+                new Transaction("2024-01-15 10:30:00", 150.0, 200.0, 50.0),
+                new Transaction("2024-01-16 10:30:00", -5.0, 0.0, 5.0)), seenDates);
+        List<Transaction> second = service.validateChunk(50000, Arrays.asList(
+                new Transaction("2024-01-15 10:30:00", 300.0, 300.0, 0.0),
+                new Transaction("2024-01-16 10:30:00", 250.0, 300.0, 50.0)), seenDates);
+
+        assertNull(first.get(0).getMessage());
+        assertEquals("Negative amounts are not allowed", first.get(1).getMessage());
+        assertEquals("Duplicate transaction", second.get(0).getMessage());
+        // a rejected row does not count as seen
+        assertNull(second.get(1).getMessage());
+    }
 }